@@ -0,0 +1,181 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.whoslucid.cobblemarket.storage.ListingStore;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cost of the lookups every purchase, bid and listing-limit check makes, as the market grows.
+ * The indexed lookups should score the same at every size; the scans (how the lookups used to work,
+ * over the list of active listings) grow linearly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingLookupBenchmark {
+
+    // Listings per seller, so the seller count grows with the market
+    private static final int LISTINGS_PER_SELLER = 10;
+
+    @Param({"1000", "10000", "100000"})
+    private int listings;
+
+    private ListingManager manager;
+    private List<Listing<?>> active;
+    private UUID[] ids;
+    private UUID[] sellers;
+
+    @Setup
+    public void setUp() {
+        manager = new ListingManager(new NoStore());
+        active = new ArrayList<>(listings);
+        ids = new UUID[listings];
+        sellers = new UUID[Math.max(1, listings / LISTINGS_PER_SELLER)];
+        for (int i = 0; i < sellers.length; i++) {
+            sellers[i] = UUID.randomUUID();
+        }
+
+        for (int i = 0; i < listings; i++) {
+            Listing<?> listing = new BenchmarkListing(sellers[i % sellers.length], i);
+            manager.addListing(listing);
+            active.add(listing);
+            ids[i] = listing.getId();
+        }
+    }
+
+    @Benchmark
+    public Listing<?> getListing() {
+        return manager.getListing(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public int getPlayerListingCount() {
+        return manager.getPlayerListingCount(sellers[ThreadLocalRandom.current().nextInt(sellers.length)]);
+    }
+
+    @Benchmark
+    public Listing<?> scanListing() {
+        UUID id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return active.stream()
+                .filter(listing -> listing.getId().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public long scanPlayerListingCount() {
+        UUID seller = sellers[ThreadLocalRandom.current().nextInt(sellers.length)];
+        return active.stream()
+                .filter(listing -> seller.equals(listing.getSellerUuid()))
+                .count();
+    }
+
+    /**
+     * A listing without a payload, so filling the market decodes nothing
+     */
+    private static class BenchmarkListing extends Listing<Object> {
+
+        BenchmarkListing(UUID sellerUuid, int n) {
+            this.id = UUID.randomUUID();
+            this.sellerUuid = sellerUuid;
+            this.sellerName = "seller" + n % 1000;
+            this.price = BigDecimal.valueOf(100 + n % 5000);
+            this.createdTime = System.currentTimeMillis() - n;
+            this.endTime = createdTime + TimeUnit.DAYS.toMillis(2);
+            this.listingType = ListingType.FIXED_PRICE;
+        }
+
+        @Override
+        public Object getItem() {
+            return null;
+        }
+
+        @Override
+        public ItemStack getDisplayItem() {
+            return null;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "listing";
+        }
+
+        @Override
+        public String getSearchableText() {
+            return sellerName;
+        }
+
+        @Override
+        public boolean deliverTo(ServerPlayer player) {
+            return false;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public boolean hasPayload() {
+            return true;
+        }
+
+        @Override
+        public boolean convertPayload(boolean binary) {
+            return false;
+        }
+    }
+
+    /**
+     * A store that persists nothing
+     */
+    private static class NoStore implements ListingStore {
+
+        @Override
+        public int load(Consumer<Listing<?>> active) {
+            return 0;
+        }
+
+        @Override
+        public List<Listing<?>> loadExpired(UUID sellerUuid) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveListing(Listing<?> listing) {
+        }
+
+        @Override
+        public void removeListing(Listing<?> listing) {
+        }
+
+        @Override
+        public void expireListing(Listing<?> listing) {
+        }
+
+        @Override
+        public void relistListing(Listing<?> listing) {
+        }
+
+        @Override
+        public void reclaimListing(UUID sellerUuid, UUID listingId) {
+        }
+
+        @Override
+        public void saveAll(Collection<Listing<?>> active) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblelib.Model.EconomyUse;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+import com.whoslucid.cobblemarket.listing.ItemListing;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.ListingType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save and load throughput of one record through the streaming adapters of {@link ListingCodec}, against
+ * reflective Gson binding through a JSON tree (how listings and history were (de)serialized before).
+ * Run with the gc profiler (on by default) for the allocation per record.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingCodecBenchmark {
+
+    // Size of a typical compressed item payload
+    private static final int PAYLOAD_BYTES = 512;
+    private static final int BIDS = 20;
+
+    // Reflective binding with the same Base64 payloads, so only the binding differs
+    private static final Gson REFLECTIVE = new GsonBuilder()
+            .disableHtmlEscaping()
+            .registerTypeAdapter(byte[].class, new TypeAdapter<byte[]>() {
+                @Override
+                public void write(JsonWriter out, byte[] value) throws IOException {
+                    out.value(Base64.getEncoder().encodeToString(value));
+                }
+
+                @Override
+                public byte[] read(JsonReader in) throws IOException {
+                    return Base64.getDecoder().decode(in.nextString());
+                }
+            }.nullSafe())
+            .create();
+
+    private ItemListing auction;
+    private TransactionRecord record;
+
+    private String auctionJson;
+    private String reflectiveAuctionJson;
+    private String recordJson;
+
+    @Setup
+    public void setUp() {
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        ThreadLocalRandom.current().nextBytes(payload);
+
+        auction = new ItemListing();
+        auction.setId(UUID.randomUUID());
+        auction.setSellerUuid(UUID.randomUUID());
+        auction.setSellerName("Seller");
+        auction.setPrice(BigDecimal.valueOf(1000));
+        auction.setCurrency(new EconomyUse("Cobbletokens", ""));
+        auction.setCreatedTime(System.currentTimeMillis());
+        auction.setEndTime(auction.getCreatedTime() + TimeUnit.DAYS.toMillis(1));
+        auction.setListingType(ListingType.AUCTION);
+        auction.setItemBytes(payload);
+        auction.setItemId("minecraft:netherite_sword");
+        auction.setItemName("Netherite Sword");
+        auction.setCount(1);
+        auction.setAuction(new AuctionState(BigDecimal.valueOf(1000), BigDecimal.TEN));
+        for (int i = 0; i < BIDS; i++) {
+            auction.getAuction().placeMaxBid(UUID.randomUUID(), "Bidder" + i, BigDecimal.valueOf(1000 + 50L * (i + 1)));
+        }
+        auction.setPrice(auction.getAuction().getCurrentBid());
+
+        record = TransactionRecord.sale("Netherite Sword", BigDecimal.valueOf(1950), "Cobbletokens",
+                BigDecimal.valueOf(97.5), "Buyer", UUID.randomUUID(), false, ListingType.AUCTION);
+
+        auctionJson = ListingCodec.compact().toJson(auction, Listing.class);
+        reflectiveAuctionJson = REFLECTIVE.toJson(REFLECTIVE.toJsonTree(auction));
+        recordJson = ListingCodec.compact().toJson(record);
+    }
+
+    @Benchmark
+    public String saveListing() {
+        return ListingCodec.compact().toJson(auction, Listing.class);
+    }
+
+    @Benchmark
+    public String saveListingPretty() {
+        return ListingCodec.pretty().toJson(auction, Listing.class);
+    }
+
+    @Benchmark
+    public String saveListingReflective() {
+        return REFLECTIVE.toJson(REFLECTIVE.toJsonTree(auction));
+    }
+
+    @Benchmark
+    public Listing<?> loadListing() {
+        return ListingCodec.read(auctionJson);
+    }
+
+    @Benchmark
+    public ItemListing loadListingReflective() {
+        return REFLECTIVE.fromJson(JsonParser.parseString(reflectiveAuctionJson), ItemListing.class);
+    }
+
+    @Benchmark
+    public String saveRecord() {
+        return ListingCodec.compact().toJson(record);
+    }
+
+    @Benchmark
+    public String saveRecordReflective() {
+        return REFLECTIVE.toJson(REFLECTIVE.toJsonTree(record));
+    }
+
+    @Benchmark
+    public TransactionRecord loadRecord() {
+        return ListingCodec.compact().fromJson(recordJson, TransactionRecord.class);
+    }
+
+    @Benchmark
+    public TransactionRecord loadRecordReflective() {
+        return REFLECTIVE.fromJson(JsonParser.parseString(recordJson), TransactionRecord.class);
+    }
+}
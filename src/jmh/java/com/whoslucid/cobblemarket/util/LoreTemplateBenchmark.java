@@ -0,0 +1,120 @@
+package com.whoslucid.cobblemarket.util;
+
+import com.whoslucid.cobblelib.Model.EconomyUse;
+import com.whoslucid.cobblelib.util.AdventureTranslator;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.config.Lang;
+import com.whoslucid.cobblemarket.listing.ItemListing;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.ListingType;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the lore of one browse-menu slot: the compiled {@link LoreTemplate} against the chained
+ * {@code String.replace} calls and whole-list translation it replaced (kept below as they were).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoreTemplateBenchmark {
+
+    private List<String> listingLore;
+    private List<String> auctionLore;
+    private LoreTemplate listingTemplate;
+    private LoreTemplate auctionTemplate;
+
+    private Listing<?> listing;
+    private Listing<?> auction;
+
+    @Setup
+    public void setUp() {
+        Lang lang = new Lang();
+        listingLore = lang.getListingLore();
+        auctionLore = lang.getAuctionLore();
+        listingTemplate = LoreTemplate.compile(listingLore);
+        auctionTemplate = LoreTemplate.compile(auctionLore);
+
+        listing = listing("Diamond Sword", BigDecimal.valueOf(1250));
+
+        auction = listing("Netherite Ingot", BigDecimal.valueOf(5000));
+        auction.setListingType(ListingType.AUCTION);
+        auction.setAuction(new AuctionState(BigDecimal.valueOf(5000), BigDecimal.valueOf(50)));
+        auction.getAuction().placeMaxBid(UUID.randomUUID(), "Bidder", BigDecimal.valueOf(6000));
+        auction.getAuction().placeMaxBid(UUID.randomUUID(), "Rival", BigDecimal.valueOf(5500));
+    }
+
+    @Benchmark
+    public List<Component> listingChained() {
+        List<String> lines = new ArrayList<>(listingLore.size());
+        for (String line : listingLore) {
+            lines.add(chained(line, listing));
+        }
+        return AdventureTranslator.toNativeL(lines);
+    }
+
+    @Benchmark
+    public List<Component> listingTemplate() {
+        return listingTemplate.render(listing);
+    }
+
+    @Benchmark
+    public List<Component> auctionChained() {
+        AuctionState state = auction.getAuction();
+        List<String> lines = new ArrayList<>(auctionLore.size());
+        for (String line : auctionLore) {
+            line = chained(line, auction);
+            line = line.replace("%current_bid%", MarketUtils.formatPrice(state.getCurrentBid()));
+            line = line.replace("%bidder%", state.getHighestBidderName() != null ?
+                    state.getHighestBidderName() : "No bids");
+            line = line.replace("%min_next_bid%", MarketUtils.formatPrice(state.getMinNextBid()));
+            lines.add(line);
+        }
+        return AdventureTranslator.toNativeL(lines);
+    }
+
+    @Benchmark
+    public List<Component> auctionTemplate() {
+        return auctionTemplate.render(auction);
+    }
+
+    /**
+     * The per-line replace chain of an item listing, as it was before the templates
+     */
+    private static String chained(String text, Listing<?> listing) {
+        text = text.replace("%listing_id%", listing.getId().toString());
+        text = text.replace("%seller%", listing.getSellerName());
+        text = text.replace("%price%", MarketUtils.formatPrice(listing.getPrice()));
+        text = text.replace("%currency%", listing.getCurrency().getCurrency());
+        text = text.replace("%time_remaining%", TimeUtils.formatDuration(listing.getRemainingTime()));
+        text = text.replace("%listing_type%", listing.getListingType().name());
+        text = text.replace("%listing_name%", listing.getDisplayName());
+        return text;
+    }
+
+    /**
+     * An item listing without a payload: its name comes from the cached attributes, so nothing is decoded
+     */
+    private static Listing<?> listing(String name, BigDecimal price) {
+        ItemListing listing = new ItemListing();
+        listing.setId(UUID.randomUUID());
+        listing.setSellerUuid(UUID.randomUUID());
+        listing.setSellerName("Seller");
+        listing.setPrice(price);
+        listing.setCurrency(new EconomyUse("Cobbletokens", ""));
+        listing.setCreatedTime(System.currentTimeMillis());
+        listing.setEndTime(listing.getCreatedTime() + TimeUnit.DAYS.toMillis(2));
+        listing.setListingType(ListingType.FIXED_PRICE);
+        listing.setItemName(name);
+        return listing;
+    }
+}
@@ -2,12 +2,19 @@ package com.whoslucid.cobblemarket;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
 import com.whoslucid.cobblemarket.command.CommandTree;
 import com.whoslucid.cobblemarket.config.Config;
 import com.whoslucid.cobblemarket.config.Lang;
+import com.whoslucid.cobblemarket.economy.EscrowLedger;
 import com.whoslucid.cobblemarket.listing.ListingManager;
 import com.whoslucid.cobblemarket.history.HistoryManager;
 import com.whoslucid.cobblemarket.moderation.TimeoutManager;
+import com.whoslucid.cobblemarket.storage.Storage;
+import com.whoslucid.cobblemarket.ui.PageCache;
+import com.whoslucid.cobblemarket.ui.UiSession;
+import com.whoslucid.cobblemarket.util.MainThreadScheduler;
+import com.whoslucid.cobblemarket.util.MarketExecutor;
 import net.minecraft.server.MinecraftServer;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -15,12 +22,14 @@ import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.server.ServerStartedEvent;
 import net.neoforged.neoforge.event.server.ServerStoppingEvent;
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
-import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -33,6 +42,9 @@ public class CobbleMarket {
     public static final String PATH_LISTINGS = "/config/cobblemarket/listings/";
     public static final String PATH_EXPIRED = "/config/cobblemarket/expired/";
     public static final String PATH_HISTORY = "/config/cobblemarket/history/";
+    public static final String PATH_JOURNAL = "/config/cobblemarket/journal/";
+    public static final String PATH_QUARANTINE = "/config/cobblemarket/quarantine/";
+    public static final String PATH_ESCROW = "/config/cobblemarket/escrow/";
 
     public static MinecraftServer server;
     public static Config config = new Config();
@@ -40,18 +52,48 @@ public class CobbleMarket {
     public static ListingManager listingManager;
     public static HistoryManager historyManager;
     public static TimeoutManager timeoutManager;
-
-    public static final Executor EXECUTOR = Executors.newSingleThreadExecutor(
-            new ThreadFactoryBuilder().setNameFormat("cobblemarket-%d").setDaemon(true).build()
+    public static EscrowLedger escrow;
+
+    // Blocking file and database writes on virtual threads, ordered per key (a listing, a player, a file)
+    public static final MarketExecutor IO = new MarketExecutor("io",
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cobblemarket-io-", 0).factory()),
+            64, () -> config.getThreading().getIoQueueLimit(), MarketExecutor.Overflow.BLOCK);
+
+    // Menu building, ordered per player
+    public static final MarketExecutor UI = new MarketExecutor("ui",
+            Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)),
+                    new ThreadFactoryBuilder().setNameFormat("cobblemarket-ui-%d").setDaemon(true).build()),
+            64, () -> config.getThreading().getUiQueueLimit(), MarketExecutor.Overflow.DROP_OLDEST);
+
+    // External services (Discord webhooks), isolated so a slow endpoint cannot hold up anything else
+    public static final MarketExecutor INTEGRATION = new MarketExecutor("integration",
+            Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("cobblemarket-integration-%d").setDaemon(true).build()),
+            1, () -> config.getThreading().getIntegrationQueueLimit(), MarketExecutor.Overflow.DROP_OLDEST);
+
+    // Auction bid sequencers: bids on one auction are resolved one at a time, in arrival order
+    public static final MarketExecutor AUCTIONS = new MarketExecutor("auctions",
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cobblemarket-auction-", 0).factory()),
+            64, () -> config.getThreading().getAuctionQueueLimit(), MarketExecutor.Overflow.REJECT);
+
+    // Parallel workers for CPU-bound bulk work (startup load and validation)
+    public static final ForkJoinPool WORKERS = new ForkJoinPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() - 1),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("cobblemarket-worker-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false
     );
 
+    // Budgeted work queue for the server thread, drained every tick
+    public static final MainThreadScheduler MAIN_THREAD = new MainThreadScheduler();
+
     public static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(2,
             new ThreadFactoryBuilder().setNameFormat("cobblemarket-scheduler-%d").setDaemon(true).build()
     );
 
-    private int tickCounter = 0;
-    private static final int TICKS_PER_EXPIRATION_CHECK = 1200; // Check every 60 seconds (20 ticks/sec * 60)
-
     public CobbleMarket(IEventBus modEventBus, ModContainer modContainer) {
         NeoForge.EVENT_BUS.register(this);
     }
@@ -69,11 +111,16 @@ public class CobbleMarket {
         // Load data
         listingManager.loadAll();
         timeoutManager.load();
+
+        // Replay the escrow ledger once the listings are known, so holds of interrupted purchases are refunded
+        escrow = new EscrowLedger(Utils.getAbsolutePath(PATH_ESCROW));
+        escrow.load();
     }
 
     public static void reload() {
         config.init();
         language.init();
+        PageCache.clear();
         CobbleLib.LOGGER.info("CobbleMarket configuration reloaded.");
     }
 
@@ -81,13 +128,6 @@ public class CobbleMarket {
     public void onServerStarted(ServerStartedEvent event) {
         server = event.getServer();
         load();
-
-        // Schedule auction checks
-        SCHEDULER.scheduleAtFixedRate(() -> {
-            if (server != null && listingManager != null) {
-                server.execute(() -> listingManager.checkAuctionEndings());
-            }
-        }, 10, 10, TimeUnit.SECONDS);
     }
 
     @SubscribeEvent
@@ -99,6 +139,9 @@ public class CobbleMarket {
         if (timeoutManager != null) {
             timeoutManager.save();
         }
+        if (escrow != null) {
+            escrow.close();
+        }
 
         // Shutdown executors
         SCHEDULER.shutdown();
@@ -109,16 +152,31 @@ public class CobbleMarket {
         } catch (InterruptedException e) {
             SCHEDULER.shutdownNow();
         }
+
+        UI.shutdown(1, TimeUnit.SECONDS);
+        AUCTIONS.shutdown(2, TimeUnit.SECONDS);
+        INTEGRATION.shutdown(2, TimeUnit.SECONDS);
+
+        // Let queued writes finish before closing the database
+        IO.awaitIdle(30, TimeUnit.SECONDS);
+        Storage.close();
+        IO.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UiSession.close(event.getEntity().getUUID());
     }
 
     @SubscribeEvent
     public void onServerTick(ServerTickEvent.Post event) {
-        tickCounter++;
-        if (tickCounter >= TICKS_PER_EXPIRATION_CHECK) {
-            tickCounter = 0;
-            if (listingManager != null) {
-                listingManager.checkExpirations();
-            }
+        // Expire listings and end auctions as soon as they are due (only due entries are visited)
+        if (listingManager != null) {
+            listingManager.processDeadlines();
+        }
+        MAIN_THREAD.runTick(config.getTickBudgetMicros());
+        if (escrow != null) {
+            escrow.tick();
         }
     }
 
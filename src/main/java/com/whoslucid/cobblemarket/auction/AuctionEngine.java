@@ -0,0 +1,174 @@
+package com.whoslucid.cobblemarket.auction;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.PlayerUtils;
+import com.whoslucid.cobblelib.util.TypeMessage;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.ListingState;
+import com.whoslucid.cobblemarket.ui.AuctionDetailMenu;
+import com.whoslucid.cobblemarket.util.MainThreadScheduler;
+import com.whoslucid.cobblemarket.util.MarketUtils;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Proxy bidding. Players register the most they are willing to pay and {@link AuctionState#placeMaxBid}
+ * answers competing bids automatically, one increment at a time, so a bidding war is settled in one
+ * resolution instead of one menu round-trip per increment.
+ * <p>
+ * Bid commands run on the auction's lane of {@link CobbleMarket#AUCTIONS}, which acts as a single-writer
+ * sequencer: commands for one auction are resolved one at a time in arrival order, off the server thread.
+ * While a bid's escrow hold is taken on the server thread the auction stays reserved and the lane moves on;
+ * the bid is resolved on the lane once the hold completes, and bids arriving meanwhile are told it is busy.
+ * Each resolution costs one escrow hold (the new maximum, or the top-up of a raised one), at most one
+ * refund (the outbid maximum) and one persisted bid, however many increments it covered.
+ */
+public class AuctionEngine {
+
+    /**
+     * Queue a maximum bid on the auction's sequencer
+     */
+    public static void submit(ServerPlayer player, Listing<?> listing, BigDecimal max) {
+        boolean queued = CobbleMarket.AUCTIONS.execute(listing.getId(), () -> process(player, listing.getId(), max));
+        if (!queued) {
+            send(player, CobbleMarket.language.getMessageListingBusy());
+        }
+    }
+
+    private static void process(ServerPlayer player, UUID auctionId, BigDecimal max) {
+        Listing<?> listing = CobbleMarket.listingManager.getListing(auctionId);
+        if (listing == null || !listing.isAuction()) {
+            send(player, CobbleMarket.language.getMessageListingNotFound());
+            return;
+        }
+        if (!listing.reserve()) {
+            // Reserved by a bid waiting on its escrow hold or by the auction settling; otherwise it is gone
+            send(player, listing.getState() == ListingState.RESERVED
+                    ? CobbleMarket.language.getMessageListingBusy()
+                    : CobbleMarket.language.getMessageListingNotFound());
+            return;
+        }
+
+        AuctionState auction = listing.getAuction();
+        UUID bidderUuid = player.getUUID();
+        if (listing.isSeller(bidderUuid)) {
+            listing.release();
+            send(player, CobbleMarket.language.getMessageCannotBidOwnAuction());
+            return;
+        }
+
+        BigDecimal minimum = auction.getMinNextBid(bidderUuid);
+        if (max.compareTo(minimum) < 0) {
+            listing.release();
+            send(player, CobbleMarket.language.getMessageBidTooLow()
+                    .replace("%min_bid%", MarketUtils.formatPrice(minimum))
+                    .replace("%currency%", listing.getCurrency().getCurrency()));
+            return;
+        }
+
+        // The highest bidder only tops up the difference to their new maximum
+        boolean leading = auction.hasBids() && auction.isHighestBidder(bidderUuid);
+        BigDecimal toHold = leading ? max.subtract(auction.getMaxBid()) : max;
+        // The listing stays reserved while the server thread takes the money; no lane thread waits for it
+        hold(auctionId, bidderUuid, toHold, listing)
+                .thenAcceptAsync(held -> place(player, listing, max, held), lane(auctionId))
+                .exceptionally(e -> {
+                    CobbleLib.LOGGER.error("Failed to place a bid on auction " + auctionId + " - " + e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Resolve a bid once its escrow hold is settled, then give up the reservation taken by {@link #process}
+     */
+    private static void place(ServerPlayer player, Listing<?> listing, BigDecimal max, boolean held) {
+        AuctionState auction = listing.getAuction();
+        AuctionState.BidResult result;
+        try {
+            if (!held) {
+                send(player, CobbleMarket.language.getMessageNotEnoughMoney()
+                        .replace("%currency%", listing.getCurrency().getCurrency()));
+                return;
+            }
+
+            result = auction.placeMaxBid(player.getUUID(), player.getName().getString(), max);
+            listing.setPrice(auction.getCurrentBid());
+            if (result.outbidUuid() != null) {
+                CobbleMarket.escrow.refund(listing.getId(), result.outbidUuid(), result.outbidMax(), listing.getCurrency());
+            }
+            CobbleMarket.listingManager.recordBid(listing, result);
+        } finally {
+            listing.release();
+        }
+
+        notify(player, listing, max, result);
+        AuctionDetailMenu.open(player, listing);
+    }
+
+    /**
+     * Take money into escrow on the server thread, where the economy API is called.
+     * The scheduler drains its queue every tick, so the future always completes while the server runs.
+     */
+    private static CompletableFuture<Boolean> hold(UUID auctionId, UUID bidderUuid, BigDecimal amount, Listing<?> listing) {
+        CompletableFuture<Boolean> held = new CompletableFuture<>();
+        CobbleMarket.MAIN_THREAD.submit(MainThreadScheduler.Priority.INTERACTIVE, () -> {
+            try {
+                held.complete(CobbleMarket.escrow.hold(auctionId, bidderUuid, amount, listing.getCurrency()));
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to take a bid on auction " + auctionId + " into escrow - " + e.getMessage());
+                held.complete(false);
+            }
+        });
+        return held;
+    }
+
+    /**
+     * The auction's lane. A continuation must run even when the lane is full (it holds the reservation and the money),
+     * so one that is refused runs where it was completed; the reservation still keeps other writers out.
+     */
+    private static Executor lane(UUID auctionId) {
+        return task -> {
+            if (!CobbleMarket.AUCTIONS.execute(auctionId, task)) {
+                task.run();
+            }
+        };
+    }
+
+    private static void notify(ServerPlayer player, Listing<?> listing, BigDecimal max, AuctionState.BidResult result) {
+        String amount = MarketUtils.formatPrice(listing.getAuction().getCurrentBid());
+        switch (result.status()) {
+            case RAISED -> send(player, CobbleMarket.language.getMessageMaxBidRaised()
+                    .replace("%amount%", MarketUtils.formatPrice(max))
+                    .replace("%currency%", listing.getCurrency().getCurrency())
+                    .replace("%listing_name%", listing.getDisplayName()));
+            case LEADING -> send(player, CobbleMarket.language.getMessageBidPlaced()
+                    .replace("%amount%", amount)
+                    .replace("%currency%", listing.getCurrency().getCurrency())
+                    .replace("%listing_name%", listing.getDisplayName()));
+            default -> {
+            }
+        }
+
+        if (result.outbidUuid() != null) {
+            String message = CobbleMarket.language.getMessageBidOutbid()
+                    .replace("%prefix%", CobbleMarket.language.getPrefix())
+                    .replace("%listing_name%", listing.getDisplayName())
+                    .replace("%amount%", amount);
+            CobbleMarket.server.execute(() ->
+                    PlayerUtils.sendMessage(result.outbidUuid(), message, null, TypeMessage.CHAT));
+        }
+    }
+
+    /**
+     * Send a chat message from the server thread
+     */
+    private static void send(ServerPlayer player, String message) {
+        String text = message.replace("%prefix%", CobbleMarket.language.getPrefix());
+        player.getServer().execute(() -> PlayerUtils.sendMessage(player, text, null, TypeMessage.CHAT));
+    }
+}
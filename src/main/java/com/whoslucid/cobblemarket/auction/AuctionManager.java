@@ -1,13 +1,11 @@
 package com.whoslucid.cobblemarket.auction;
 
-import com.cobblemon.mod.common.Cobblemon;
-import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.whoslucid.cobblelib.CobbleLib;
-import com.whoslucid.cobblelib.api.EconomyApi;
 import com.whoslucid.cobblelib.util.PlayerUtils;
 import com.whoslucid.cobblelib.util.TypeMessage;
 import com.whoslucid.cobblemarket.CobbleMarket;
 import com.whoslucid.cobblemarket.history.TransactionRecord;
+import com.whoslucid.cobblemarket.listing.Listing;
 import com.whoslucid.cobblemarket.listing.ListingType;
 import com.whoslucid.cobblemarket.util.MarketUtils;
 import com.whoslucid.cobblemarket.util.PriceCalculator;
@@ -21,8 +19,8 @@ public class AuctionManager {
     /**
      * Process an auction that has ended
      */
-    public static void processAuctionEnd(Auction auction) {
-        if (auction.hasBids()) {
+    public static void processAuctionEnd(Listing<?> auction) {
+        if (auction.getAuction().hasBids()) {
             processAuctionWithWinner(auction);
         } else {
             processAuctionNoBids(auction);
@@ -32,51 +30,47 @@ public class AuctionManager {
     /**
      * Process auction with a winner
      */
-    private static void processAuctionWithWinner(Auction auction) {
-        UUID winnerId = auction.getHighestBidderUuid();
-        String winnerName = auction.getHighestBidderName();
-        BigDecimal finalPrice = auction.getCurrentBid();
+    private static void processAuctionWithWinner(Listing<?> auction) {
+        AuctionState state = auction.getAuction();
+        UUID winnerId = state.getHighestBidderUuid();
+        String winnerName = state.getHighestBidderName();
+        BigDecimal finalPrice = state.getCurrentBid();
 
-        // Winner already paid when placing bid, so just transfer the Pokemon
-        Pokemon pokemon = auction.getPokemon();
-        if (pokemon == null) {
-            // Refund winner
-            EconomyApi.addMoney(winnerId, finalPrice, auction.getCurrency());
-            return;
-        }
-
-        // Try to give Pokemon to winner
+        // Winner already paid when placing bid, so just transfer the Pokemon or item
         ServerPlayer winner = CobbleMarket.server.getPlayerList().getPlayer(winnerId);
-        if (winner != null) {
-            // Winner is online
-            var party = Cobblemon.INSTANCE.getStorage().getParty(winner);
-            if (!party.add(pokemon)) {
-                var pc = Cobblemon.INSTANCE.getStorage().getPC(winner);
-                if (pc != null) {
-                    pc.add(pokemon);
-                }
-            }
-        } else {
+        if (winner == null) {
             // Winner is offline - refund and they'll need to reclaim
             // We can't access PC for offline players without a ServerPlayer
-            EconomyApi.addMoney(winnerId, finalPrice, auction.getCurrency());
+            CobbleMarket.escrow.refund(auction.getId(), winnerId, state.getMaxBid(), auction.getCurrency());
             CobbleLib.LOGGER.info("Auction winner " + winnerName + " was offline. Refunding bid.");
             return;
         }
+        if (!auction.deliverTo(winner)) {
+            // Refund winner
+            CobbleMarket.escrow.refund(auction.getId(), winnerId, state.getMaxBid(), auction.getCurrency());
+            return;
+        }
 
-        // Pay seller (minus tax)
+        // Pay seller (minus tax), settled with the next escrow batch
         BigDecimal sellerEarnings = PriceCalculator.calculateSellerEarnings(finalPrice);
-        EconomyApi.addMoney(auction.getSellerUuid(), sellerEarnings, auction.getCurrency());
+        CobbleMarket.escrow.payout(auction.getId(), winnerId, finalPrice,
+                auction.getSellerUuid(), sellerEarnings, auction.getCurrency());
+
+        // The winner's maximum was held, give back what the final price did not use
+        BigDecimal unused = state.getMaxBid().subtract(finalPrice);
+        if (unused.signum() > 0) {
+            CobbleMarket.escrow.refund(auction.getId(), winnerId, unused, auction.getCurrency());
+        }
 
         // Record transactions
         BigDecimal tax = PriceCalculator.calculateTax(finalPrice);
         CobbleMarket.historyManager.addTransaction(winnerId,
                 TransactionRecord.purchase(auction.getDisplayName(), finalPrice, auction.getCurrency().getCurrency(),
-                        auction.getSellerName(), auction.getSellerUuid(), true, ListingType.AUCTION));
+                        auction.getSellerName(), auction.getSellerUuid(), auction.isPokemon(), ListingType.AUCTION));
 
         CobbleMarket.historyManager.addTransaction(auction.getSellerUuid(),
                 TransactionRecord.sale(auction.getDisplayName(), finalPrice, auction.getCurrency().getCurrency(),
-                        tax, winnerName, winnerId, true, ListingType.AUCTION));
+                        tax, winnerName, winnerId, auction.isPokemon(), ListingType.AUCTION));
 
         // Notify winner
         PlayerUtils.sendMessage(winnerId, CobbleMarket.language.getMessageAuctionWon()
@@ -106,7 +100,7 @@ public class AuctionManager {
     /**
      * Process auction with no bids
      */
-    private static void processAuctionNoBids(Auction auction) {
+    private static void processAuctionNoBids(Listing<?> auction) {
         // Notify seller
         PlayerUtils.sendMessage(auction.getSellerUuid(), CobbleMarket.language.getMessageAuctionEndedNoBids()
                         .replace("%prefix%", CobbleMarket.language.getPrefix())
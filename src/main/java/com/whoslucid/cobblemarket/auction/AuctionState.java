@@ -0,0 +1,209 @@
+package com.whoslucid.cobblemarket.auction;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bidding state of a listing sold by auction. Any listing (Pokemon or item) can carry one,
+ * see {@link com.whoslucid.cobblemarket.listing.Listing#startAuction}.
+ * <p>
+ * Bids are resolved on the auction's sequencer lane while other threads render and save it, so the bid list
+ * is copy-on-write (readers iterate a stable array) and resolutions are synchronized with {@link #copy()}.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class AuctionState {
+
+    private BigDecimal startingPrice;
+    private BigDecimal currentBid;
+    private UUID highestBidderUuid;
+    private String highestBidderName;
+    private BigDecimal minBidIncrement;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final CopyOnWriteArrayList<Bid> bidHistory = new CopyOnWriteArrayList<>();
+    // Maximum the highest bidder is willing to pay; the current bid is raised up to it automatically
+    private BigDecimal maxBid;
+
+    public enum BidStatus {
+        TOO_LOW,    // Below the minimum next bid (or not above the bidder's own maximum); nothing changed
+        RAISED,     // The highest bidder raised their maximum; the current bid did not move
+        LEADING,    // The bidder leads at the new current bid
+        OUTBID      // The highest bidder's maximum beat the bid right away
+    }
+
+    /**
+     * Outcome of a maximum bid
+     *
+     * @param bid        the bid recorded by the resolution, null if the current bid did not move
+     * @param outbidUuid bidder whose maximum was beaten (the previous leader, or the new bidder), null if none
+     * @param outbidMax  maximum held for the outbid bidder, to be refunded
+     */
+    public record BidResult(BidStatus status, Bid bid, UUID outbidUuid, BigDecimal outbidMax) {
+    }
+
+    /**
+     * Create the state of a new auction
+     */
+    public AuctionState(BigDecimal startingPrice, BigDecimal minBidIncrement) {
+        this.startingPrice = startingPrice;
+        this.currentBid = startingPrice;
+        this.minBidIncrement = minBidIncrement != null ? minBidIncrement :
+                CobbleMarket.config.getAuctionMinBidIncrement();
+    }
+
+    /**
+     * Constructor for deserialization (GSON)
+     */
+    public AuctionState() {
+    }
+
+    /**
+     * Copy the bidding state at one point in time, for saving it while bids keep coming in
+     */
+    public synchronized AuctionState copy() {
+        AuctionState copy = new AuctionState();
+        copy.startingPrice = startingPrice;
+        copy.currentBid = currentBid;
+        copy.highestBidderUuid = highestBidderUuid;
+        copy.highestBidderName = highestBidderName;
+        copy.minBidIncrement = minBidIncrement;
+        copy.bidHistory.addAll(bidHistory);
+        copy.maxBid = maxBid;
+        return copy;
+    }
+
+    /**
+     * Get the bids in the order they were placed (read-only)
+     */
+    public List<Bid> getBidHistory() {
+        return Collections.unmodifiableList(bidHistory);
+    }
+
+    /**
+     * Replace the bids (when loading)
+     */
+    public void setBidHistory(List<Bid> bids) {
+        bidHistory.clear();
+        if (bids != null) bidHistory.addAll(bids);
+    }
+
+    /**
+     * Add a bid read back from storage, unless it is already known (when loading)
+     */
+    public void restoreBid(Bid bid) {
+        bidHistory.addIfAbsent(bid);
+    }
+
+    /**
+     * Register a maximum bid and resolve it against the highest bidder's maximum in one step:
+     * the higher maximum leads, at one increment above the lower one (capped at its own maximum).
+     * Ties go to the earlier bidder. The caller must hold the listing's reservation
+     * and update the listing price to the new current bid.
+     */
+    public synchronized BidResult placeMaxBid(UUID bidderUuid, String bidderName, BigDecimal max) {
+        if (max.compareTo(getMinNextBid(bidderUuid)) < 0) {
+            return new BidResult(BidStatus.TOO_LOW, null, null, null);
+        }
+
+        if (!hasBids()) {
+            return lead(bidderUuid, bidderName, max, startingPrice, null, null);
+        }
+        if (isHighestBidder(bidderUuid)) {
+            this.maxBid = max;
+            return new BidResult(BidStatus.RAISED, null, null, null);
+        }
+
+        BigDecimal leaderMax = getMaxBid();
+        if (max.compareTo(leaderMax) > 0) {
+            return lead(bidderUuid, bidderName, max, max.min(leaderMax.add(minBidIncrement)),
+                    highestBidderUuid, leaderMax);
+        }
+
+        // The highest bidder answers automatically
+        Bid bid = addBid(highestBidderUuid, highestBidderName, leaderMax.min(max.add(minBidIncrement)));
+        return new BidResult(BidStatus.OUTBID, bid, bidderUuid, max);
+    }
+
+    private BidResult lead(UUID bidderUuid, String bidderName, BigDecimal max, BigDecimal amount,
+                           UUID outbidUuid, BigDecimal outbidMax) {
+        this.highestBidderUuid = bidderUuid;
+        this.highestBidderName = bidderName;
+        this.maxBid = max;
+        Bid bid = addBid(bidderUuid, bidderName, amount);
+        return new BidResult(BidStatus.LEADING, bid, outbidUuid, outbidMax);
+    }
+
+    private Bid addBid(UUID bidderUuid, String bidderName, BigDecimal amount) {
+        this.currentBid = amount;
+
+        Bid bid = Bid.create(bidderUuid, bidderName, amount);
+        bidHistory.add(bid);
+        return bid;
+    }
+
+    /**
+     * Get the highest bidder's maximum (their current bid for auctions bid on before maximum bids existed)
+     */
+    public BigDecimal getMaxBid() {
+        return maxBid != null ? maxBid : currentBid;
+    }
+
+    /**
+     * Get the minimum amount for the next bid
+     */
+    public BigDecimal getMinNextBid() {
+        if (bidHistory.isEmpty()) {
+            return startingPrice;
+        }
+        return currentBid.add(minBidIncrement);
+    }
+
+    /**
+     * Get the lowest maximum a player may register: the minimum next bid, or for the highest bidder
+     * one increment above their current maximum
+     */
+    public BigDecimal getMinNextBid(UUID bidderUuid) {
+        if (hasBids() && isHighestBidder(bidderUuid)) {
+            return getMaxBid().add(minBidIncrement);
+        }
+        return getMinNextBid();
+    }
+
+    /**
+     * Check if there are any bids
+     */
+    public boolean hasBids() {
+        return !bidHistory.isEmpty();
+    }
+
+    /**
+     * Get the number of bids
+     */
+    public int getBidCount() {
+        return bidHistory.size();
+    }
+
+    /**
+     * Get the previous highest bidder (for refunds when outbid)
+     */
+    public Bid getPreviousBid() {
+        List<Bid> bids = List.copyOf(bidHistory);
+        return bids.size() < 2 ? null : bids.get(bids.size() - 2);
+    }
+
+    /**
+     * Check if the given UUID is the current highest bidder
+     */
+    public boolean isHighestBidder(UUID uuid) {
+        return highestBidderUuid != null && highestBidderUuid.equals(uuid);
+    }
+}
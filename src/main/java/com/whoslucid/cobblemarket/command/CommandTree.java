@@ -8,18 +8,25 @@ import com.whoslucid.cobblelib.api.PermissionApi;
 import com.whoslucid.cobblelib.util.AdventureTranslator;
 import com.whoslucid.cobblelib.util.PlayerUtils;
 import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.PayloadCache;
 import com.whoslucid.cobblemarket.ui.MarketMainMenu;
 import com.whoslucid.cobblemarket.ui.PokemonListingsMenu;
 import com.whoslucid.cobblemarket.ui.ItemListingsMenu;
 import com.whoslucid.cobblemarket.ui.MyListingsMenu;
 import com.whoslucid.cobblemarket.ui.ExpiredListingsMenu;
 import com.whoslucid.cobblemarket.ui.HistoryMenu;
+import com.whoslucid.cobblemarket.ui.PageCache;
+import com.whoslucid.cobblemarket.ui.UiSession;
+import com.whoslucid.cobblemarket.util.MainThreadScheduler;
+import com.whoslucid.cobblemarket.util.MarketExecutor;
 import com.whoslucid.cobblemarket.util.TimeUtils;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.arguments.EntityArgument;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class CommandTree {
@@ -155,6 +162,47 @@ public class CommandTree {
                                                         return 1;
                                                     })))))
 
+                    // /market admin stats - Market and scheduler statistics
+                    .then(Commands.literal("admin")
+                            .requires(source -> PermissionApi.hasPermission(source, "cobblemarket.admin", 4))
+                            .then(Commands.literal("stats")
+                                    .executes(context -> {
+                                        MainThreadScheduler scheduler = CobbleMarket.MAIN_THREAD;
+                                        List<String> lines = List.of(
+                                                "&6Market stats",
+                                                "&7Active listings: &f" + CobbleMarket.listingManager.getSnapshot().size()
+                                                        + " &7(version &f" + CobbleMarket.listingManager.getVersion() + "&7)",
+                                                "&7Scheduled deadlines: &f" + CobbleMarket.listingManager.getDeadlines().size(),
+                                                "&7Backlog: &f" + scheduler.getBacklog()
+                                                        + " &7(interactive &f" + scheduler.getBacklog(MainThreadScheduler.Priority.INTERACTIVE)
+                                                        + "&7, settlement &f" + scheduler.getBacklog(MainThreadScheduler.Priority.SETTLEMENT)
+                                                        + "&7, bulk &f" + scheduler.getBacklog(MainThreadScheduler.Priority.BULK) + "&7)",
+                                                "&7Last busy tick: &f" + scheduler.getLastTickTasks() + " &7tasks in &f"
+                                                        + scheduler.getLastTickMicros() + "µs &7(budget &f"
+                                                        + CobbleMarket.config.getTickBudgetMicros() + "µs&7)",
+                                                "&7Ticks over budget: &f" + scheduler.getTicksOverBudget(),
+                                                "&7Payload cache: &f" + PayloadCache.size() + "&7/&f" + CobbleMarket.config.getPayloadCacheSize(),
+                                                "&7Page cache: &f" + PageCache.size() + "&7/&f" + CobbleMarket.config.getPageCacheSize()
+                                                        + " &7(hit rate &f" + PageCache.getHitRate() + "%&7)",
+                                                "&7Superseded menu builds skipped: &f" + UiSession.getSkipped(),
+                                                "&7Escrow: &f" + CobbleMarket.escrow.getHoldCount() + " &7holds " + CobbleMarket.escrow.getHeld()
+                                                        + ", &f" + CobbleMarket.escrow.getPendingCount() + " &7pending " + CobbleMarket.escrow.getPending()
+                                                        + ", &f" + CobbleMarket.escrow.getSettledCount() + " &7settled " + CobbleMarket.escrow.getSettled()
+                                                        + ", &f" + CobbleMarket.escrow.getUnconfirmedCount() + " &7held back"
+                                        );
+                                        List<String> executorLines = new ArrayList<>(lines);
+                                        for (MarketExecutor executor : List.of(CobbleMarket.IO, CobbleMarket.UI, CobbleMarket.AUCTIONS, CobbleMarket.INTEGRATION)) {
+                                            executorLines.add("&7Lane " + executor.getName() + ": &f" + executor.getQueued()
+                                                    + " &7queued, &f" + executor.getPending() + " &7pending, wait avg &f"
+                                                    + executor.getAverageWaitMicros() + "µs &7max &f" + executor.getMaxWaitMicros()
+                                                    + "µs&7, dropped &f" + executor.getDropped() + "&7, blocked &f" + executor.getBlocked());
+                                        }
+                                        for (String line : executorLines) {
+                                            context.getSource().sendSuccess(() -> AdventureTranslator.toNative(line), false);
+                                        }
+                                        return 1;
+                                    })))
+
                     // /market admin remove <listingId>
                     .then(Commands.literal("admin")
                             .then(Commands.literal("remove")
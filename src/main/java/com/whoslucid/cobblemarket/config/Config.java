@@ -61,6 +61,31 @@ public class Config {
     // Discord
     private DiscordConfig discord = new DiscordConfig();
 
+    // Storage
+    private StorageConfig storage = new StorageConfig();
+
+    // Background work lanes
+    private ThreadingConfig threading = new ThreadingConfig();
+
+    // Batched payouts and refunds
+    private EscrowConfig escrow = new EscrowConfig();
+
+    // Number of listings whose decoded Pokemon/ItemStack is kept in memory
+    private int payloadCacheSize = 2048;
+
+    // Time the market may spend on the server thread per tick (expirations, auction settlement)
+    private long tickBudgetMicros = 2000;
+
+    // Build the next page of a browse menu in the background while the current one is shown
+    private boolean prefetchNextPage = true;
+
+    // Rendered browse pages shared by all players, and how long one may be shown before it is rebuilt
+    private int pageCacheSize = 64;
+    private int pageCacheSeconds = 30;
+
+    // Menu requests this close to the previous one are held back so a burst of clicks builds only the last menu
+    private int menuDebounceMillis = 150;
+
     public void init() {
         CompletableFuture<Boolean> futureRead = Utils.readFileAsync(CobbleMarket.PATH, "config.json", el -> {
             Gson gson = Utils.newGson();
@@ -112,4 +137,60 @@ public class Config {
         private boolean notifySales = true;
         private boolean notifyAuctionEnd = true;
     }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @ToString
+    public static class StorageConfig {
+        // FILES: one JSON file per listing, JOURNAL: append-only journal with periodic snapshots,
+        // SQL: embedded H2 database (listings and history)
+        private String mode = "FILES";
+        private String sqlFile = "cobblemarket-db";
+        // BINARY: Pokemon/item payloads as compressed NBT (Base64 in JSON files), JSON: readable JSON trees.
+        // Existing listings are converted to the configured format in the background after startup.
+        private String payloadFormat = "BINARY";
+        // Write listing and history files on one line instead of pretty-printed (smaller and faster, less readable)
+        private boolean compactFiles = false;
+        private long journalSegmentMaxBytes = 8L * 1024 * 1024;
+        private int journalCompactAfterRecords = 5000;
+
+        public boolean isJournal() {
+            return "JOURNAL".equalsIgnoreCase(mode);
+        }
+
+        public boolean isSql() {
+            return "SQL".equalsIgnoreCase(mode);
+        }
+
+        public boolean isBinaryPayloads() {
+            return !"JSON".equalsIgnoreCase(payloadFormat);
+        }
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @ToString
+    public static class ThreadingConfig {
+        // Maximum pending tasks per lane. Full I/O makes the submitter wait (writes are never dropped);
+        // full UI and integration lanes drop their oldest task.
+        private int ioQueueLimit = 10000;
+        private int uiQueueLimit = 256;
+        private int integrationQueueLimit = 100;
+        // Bids waiting on auction sequencers; beyond this new bids are refused with a "try again" message
+        private int auctionQueueLimit = 1000;
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @ToString
+    public static class EscrowConfig {
+        // Seller payouts and refunds are paid every this many ticks, one economy call per player and currency
+        private int settleIntervalTicks = 20;
+        private int settleBatchSize = 500;
+        // The ledger log is rewritten with only open entries after this many records
+        private int compactAfterRecords = 10000;
+    }
 }
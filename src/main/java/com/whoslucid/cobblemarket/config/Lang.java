@@ -6,6 +6,8 @@ import com.whoslucid.cobblelib.Model.ItemModel;
 import com.whoslucid.cobblelib.ui.ConfirmMenu;
 import com.whoslucid.cobblelib.util.Utils;
 import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.index.SortMode;
+import com.whoslucid.cobblemarket.util.LoreTemplate;
 import lombok.*;
 
 import java.util.Arrays;
@@ -31,6 +33,7 @@ public class Lang {
     private String titleAuctionDetail = "&0Auction: %listing_name%";
     private String titleSelectPokemon = "&0Select Pokemon to List";
     private String titleConfirmPurchase = "&0Confirm Purchase";
+    private String titlePokemonFilters = "&0Pokemon Filters";
 
     // Messages
     private String messageListingCreated = "%prefix% &aListing created for &e%price% %currency%";
@@ -42,6 +45,7 @@ public class Lang {
     private String messageListingRelisted = "%prefix% &aRelisted &e%listing_name%";
 
     private String messageBidPlaced = "%prefix% &aBid of &e%amount% %currency% &aplaced on &e%listing_name%";
+    private String messageMaxBidRaised = "%prefix% &aYour maximum bid on &e%listing_name% &ais now &e%amount% %currency%";
     private String messageBidOutbid = "%prefix% &cYou have been outbid on &e%listing_name%&c! Current bid: &e%amount%";
     private String messageAuctionWon = "%prefix% &aYou won the auction for &e%listing_name%&a!";
     private String messageAuctionEnded = "%prefix% &eAuction for &6%listing_name% &eended. Winner: &a%winner%";
@@ -54,6 +58,7 @@ public class Lang {
     private String messageCannotBuyOwnListing = "%prefix% &cYou cannot buy your own listing";
     private String messageCannotBidOwnAuction = "%prefix% &cYou cannot bid on your own auction";
     private String messageListingNotFound = "%prefix% &cListing not found or already sold";
+    private String messageListingBusy = "%prefix% &cSomeone else is buying or bidding on this listing, try again in a moment";
     private String messagePlayerTimedOut = "%prefix% &cYou are timed out from trading for &e%remaining%";
     private String messagePokemonBlacklisted = "%prefix% &cThis Pokemon cannot be listed";
     private String messageItemBlacklisted = "%prefix% &cThis item cannot be listed";
@@ -105,6 +110,16 @@ public class Lang {
             "&eClick to place bid"
     );
 
+    // Lore of the browse menus, compiled from the lines above when the language is loaded
+    @Setter(AccessLevel.NONE)
+    private transient LoreTemplate pokemonListingTemplate;
+    @Setter(AccessLevel.NONE)
+    private transient LoreTemplate itemListingTemplate;
+    @Setter(AccessLevel.NONE)
+    private transient LoreTemplate auctionTemplate;
+    @Setter(AccessLevel.NONE)
+    private transient LoreTemplate myListingTemplate;
+
     // Confirm menu
     private ConfirmMenu confirmMenu = new ConfirmMenu();
 
@@ -128,6 +143,17 @@ public class Lang {
                 CobbleLib.LOGGER.fatal("Could not write lang.json file for CobbleMarket.");
             }
         }
+        CobbleMarket.language.compileTemplates();
+    }
+
+    /**
+     * Compile the lore templates of the browse menus
+     */
+    public void compileTemplates() {
+        pokemonListingTemplate = LoreTemplate.compile(pokemonLore, List.of(""), listingLore);
+        itemListingTemplate = LoreTemplate.compile(listingLore);
+        auctionTemplate = LoreTemplate.compile(pokemonLore, List.of(""), auctionLore);
+        myListingTemplate = LoreTemplate.compile(listingLore, List.of("", "&cClick to cancel listing"));
     }
 
     @Getter
@@ -156,6 +182,39 @@ public class Lang {
                 Arrays.asList("&7Show only legendaries"), 0);
         private ItemModel filterAll = new ItemModel(49, "minecraft:compass", "&fShow All",
                 Arrays.asList("&7Remove filters"), 0);
+        private ItemModel filterMythical = new ItemModel(4, "minecraft:amethyst_shard", "&dMythical Only",
+                Arrays.asList("&7Show only mythicals"), 0);
+        private ItemModel filterUltraBeast = new ItemModel(5, "minecraft:end_crystal", "&3Ultra Beasts Only",
+                Arrays.asList("&7Show only ultra beasts"), 0);
+        private ItemModel filterHiddenAbility = new ItemModel(6, "minecraft:ender_eye", "&aHidden Ability Only",
+                Arrays.asList("&7Show only hidden abilities"), 0);
+        private ItemModel filterPerfectIvs = new ItemModel(37, "minecraft:experience_bottle", "&bPerfect IVs: &f%value%",
+                Arrays.asList("&7Minimum number of perfect IVs", "", "&eClick to cycle"), 0);
+        private ItemModel filterNature = new ItemModel(39, "minecraft:oak_sapling", "&aNature: &f%value%",
+                Arrays.asList("&7Only show this nature", "", "&eClick to cycle"), 0);
+        private ItemModel filterLevel = new ItemModel(41, "minecraft:ladder", "&eLevel: &f%value%",
+                Arrays.asList("&7Only show this level range", "", "&eClick to cycle"), 0);
+        private ItemModel filterCurrency = new ItemModel(43, "minecraft:gold_nugget", "&6Currency: &f%value%",
+                Arrays.asList("&7Only show this currency", "", "&eClick to cycle"), 0);
+        private ItemModel filterType = new ItemModel("minecraft:paper", "&fType: %value%",
+                Arrays.asList("&7Show Pokemon of this type", "&7(selected types are combined)"));
+        private ItemModel filters = new ItemModel(47, "minecraft:hopper", "&bMore Filters",
+                Arrays.asList("&7Combine filters by rarity, IVs,", "&7nature, type, level and currency"), 0);
+        private ItemModel filterApply = new ItemModel(50, "minecraft:lime_dye", "&aShow Results",
+                Arrays.asList("&7Browse the matching listings"), 0);
+        private ItemModel filterClear = new ItemModel(48, "minecraft:barrier", "&cClear Filters",
+                Arrays.asList("&7Remove all filters"), 0);
+        private String filterActive = "&a&l(Active)";
+        private String filterAny = "Any";
+        private String filterCount = "&7Matches: &e%count%";
+        private ItemModel sort = new ItemModel(52, "minecraft:comparator", "&bSort: &f%value%",
+                Arrays.asList("&7Change the listing order", "", "&eClick to cycle"), 0);
+        private String sortNewest = "Newest";
+        private String sortPriceAscending = "Price: Low to High";
+        private String sortPriceDescending = "Price: High to Low";
+        private String sortEndingSoon = "Ending Soon";
+        private String sortLevel = "Level";
+        private String sortPerfectIvs = "Perfect IVs";
         private ItemModel search = new ItemModel(51, "minecraft:spyglass", "&bSearch",
                 Arrays.asList("&7Search by name"), 0);
 
@@ -176,5 +235,16 @@ public class Lang {
         private ItemModel close = new ItemModel(49, "minecraft:barrier", "&cClose", Arrays.asList(), 0);
 
         private ItemModel filler = new ItemModel("minecraft:gray_stained_glass_pane", " ", Arrays.asList());
+
+        public String getSortName(SortMode mode) {
+            return switch (mode) {
+                case NEWEST -> sortNewest;
+                case PRICE_ASCENDING -> sortPriceAscending;
+                case PRICE_DESCENDING -> sortPriceDescending;
+                case ENDING_SOON -> sortEndingSoon;
+                case LEVEL -> sortLevel;
+                case PERFECT_IVS -> sortPerfectIvs;
+            };
+        }
     }
 }
@@ -0,0 +1,550 @@
+package com.whoslucid.cobblemarket.economy;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.Model.EconomyUse;
+import com.whoslucid.cobblelib.api.EconomyApi;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Escrow between buyers, bidders and sellers.
+ * <p>
+ * Money taken from a buyer or bidder is recorded as a hold on the listing. Seller payouts and refunds
+ * are not paid immediately: they become pending credits that {@link #settle()} pays out in batches,
+ * merging every credit owed to the same player in the same currency into one economy call.
+ * <p>
+ * Every change is appended to {@code ledger.log} before the call returns, so after a crash the open holds
+ * and unpaid credits are replayed; holds left behind by an interrupted purchase are refunded on load.
+ * <p>
+ * A batch is logged as {@code SETTLING} before its economy call and as {@code SETTLED} after it. The economy
+ * call and the log cannot be updated together, so a crash between the two leaves the batch's credits
+ * unconfirmed: they may or may not have been paid. Rather than pay them a second time, replay holds them back
+ * and logs them for manual reconciliation (append an {@code ABORTED} record with their IDs to pay them,
+ * or a {@code SETTLED} record per ID to drop them). No credit is ever paid twice automatically.
+ */
+public class EscrowLedger {
+
+    public enum Op {
+        HOLD,       // Money taken from a payer for a listing
+        CREDIT,     // Money owed to a player, optionally released from a payer's hold
+        SETTLING,   // A batch of credits is about to be paid through the economy API
+        SETTLED,    // A credit was paid through the economy API
+        ABORTED     // The economy call of a settling batch failed; its credits are pending again
+    }
+
+    public enum Kind {
+        PAYOUT,     // Seller earnings
+        REFUND      // Money returned to a buyer or bidder
+    }
+
+    private static final String LOG_FILE = "ledger.log";
+
+    private record HoldKey(UUID listingId, UUID payer) {
+    }
+
+    private record Credit(UUID id, UUID recipient, BigDecimal amount, EconomyUse currency, Kind kind) {
+    }
+
+    private final File dir;
+    private final Gson gson;
+
+    // Guarded by this
+    private final Map<HoldKey, BigDecimal> holds = new HashMap<>();
+    private final Map<HoldKey, EconomyUse> holdCurrencies = new HashMap<>();
+    private final Map<UUID, Credit> pending = new LinkedHashMap<>();
+    // Credits of the batch being paid (and, during replay, of every batch whose outcome is not logged yet)
+    private final Set<UUID> settling = new HashSet<>();
+    // Credits whose batch was interrupted by a crash; never paid automatically
+    private final Map<UUID, Credit> unconfirmed = new LinkedHashMap<>();
+    private final Map<String, BigDecimal> settledTotals = new TreeMap<>();
+    private long settledCount = 0;
+    private int recordsSinceCompact = 0;
+    private int ticks = 0;
+    private BufferedWriter writer;
+
+    public EscrowLedger(File dir) {
+        this.dir = dir;
+        this.gson = new GsonBuilder()
+                .disableHtmlEscaping()
+                .create();
+    }
+
+    // ==================== Holds and credits ====================
+
+    /**
+     * Take money from a buyer or bidder and hold it for a listing
+     *
+     * @return false if the payer cannot afford it (nothing is taken)
+     */
+    public synchronized boolean hold(UUID listingId, UUID payer, BigDecimal amount, EconomyUse currency) {
+        if (!EconomyApi.hasEnoughMoney(payer, amount, currency, true)) return false;
+
+        HoldKey key = new HoldKey(listingId, payer);
+        holds.merge(key, amount, BigDecimal::add);
+        holdCurrencies.put(key, currency);
+
+        JsonObject record = record(Op.HOLD);
+        record.addProperty("listing", listingId.toString());
+        record.addProperty("payer", payer.toString());
+        record.addProperty("amount", amount);
+        record.add("currency", gson.toJsonTree(currency));
+        append(record);
+        return true;
+    }
+
+    /**
+     * Give money held for a listing back to its payer (failed purchase, outbid, undeliverable auction).
+     * Refunds of money taken before the ledger existed have no hold and are credited all the same.
+     */
+    public synchronized void refund(UUID listingId, UUID payer, BigDecimal amount, EconomyUse currency) {
+        credit(listingId, payer, amount, payer, amount, currency, Kind.REFUND);
+    }
+
+    /**
+     * Release a completed sale's hold and owe the seller their earnings (the tax stays with the market)
+     *
+     * @param price    amount held from the buyer
+     * @param earnings amount credited to the seller
+     */
+    public synchronized void payout(UUID listingId, UUID buyer, BigDecimal price,
+                                    UUID seller, BigDecimal earnings, EconomyUse currency) {
+        credit(listingId, buyer, price, seller, earnings, currency, Kind.PAYOUT);
+    }
+
+    private void credit(UUID listingId, UUID payer, BigDecimal released,
+                        UUID recipient, BigDecimal amount, EconomyUse currency, Kind kind) {
+        release(new HoldKey(listingId, payer), released);
+
+        Credit credit = new Credit(UUID.randomUUID(), recipient, amount, currency, kind);
+        pending.put(credit.id(), credit);
+
+        JsonObject record = creditRecord(credit);
+        record.addProperty("listing", listingId.toString());
+        record.addProperty("payer", payer.toString());
+        record.addProperty("released", released);
+        append(record);
+    }
+
+    private void release(HoldKey key, BigDecimal amount) {
+        BigDecimal remaining = holds.getOrDefault(key, BigDecimal.ZERO).subtract(amount);
+        if (remaining.signum() > 0) {
+            holds.put(key, remaining);
+        } else {
+            holds.remove(key);
+            holdCurrencies.remove(key);
+        }
+    }
+
+    // ==================== Settlement ====================
+
+    /**
+     * Count a server tick and settle pending credits once the configured interval has passed
+     */
+    public void tick() {
+        synchronized (this) {
+            if (pending.isEmpty() || ++ticks < CobbleMarket.config.getEscrow().getSettleIntervalTicks()) return;
+            ticks = 0;
+        }
+        settle();
+    }
+
+    /**
+     * Pay out a batch of pending credits, one economy call per player and currency.
+     * Must run on the server thread, where the economy API is called everywhere else.
+     */
+    public void settle() {
+        Map<String, List<Credit>> batches = new LinkedHashMap<>();
+        synchronized (this) {
+            int limit = Math.max(1, CobbleMarket.config.getEscrow().getSettleBatchSize());
+            for (Credit credit : pending.values()) {
+                if (limit-- <= 0) break;
+                batches.computeIfAbsent(credit.recipient() + "|" + credit.currency().getCurrency(),
+                        k -> new ArrayList<>()).add(credit);
+            }
+        }
+
+        for (List<Credit> batch : batches.values()) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (Credit credit : batch) {
+                total = total.add(credit.amount());
+            }
+            Credit first = batch.get(0);
+            settling(batch);
+            try {
+                if (total.signum() > 0) {
+                    EconomyApi.addMoney(first.recipient(), total, first.currency());
+                }
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to settle " + batch.size() + " escrow credits for "
+                        + first.recipient() + ", retrying later: " + e.getMessage());
+                aborted(batch);
+                continue;
+            }
+            settled(batch);
+        }
+    }
+
+    private synchronized void settling(List<Credit> batch) {
+        JsonArray ids = new JsonArray();
+        for (Credit credit : batch) {
+            settling.add(credit.id());
+            ids.add(credit.id().toString());
+        }
+        JsonObject record = record(Op.SETTLING);
+        record.add("ids", ids);
+        append(record);
+    }
+
+    private synchronized void aborted(List<Credit> batch) {
+        JsonArray ids = new JsonArray();
+        for (Credit credit : batch) {
+            settling.remove(credit.id());
+            ids.add(credit.id().toString());
+        }
+        JsonObject record = record(Op.ABORTED);
+        record.add("ids", ids);
+        append(record);
+    }
+
+    private synchronized void settled(List<Credit> batch) {
+        for (Credit credit : batch) {
+            settling.remove(credit.id());
+            if (pending.remove(credit.id()) == null) continue;
+
+            settledCount++;
+            settledTotals.merge(credit.currency().getCurrency(), credit.amount(), BigDecimal::add);
+
+            JsonObject record = record(Op.SETTLED);
+            record.addProperty("id", credit.id().toString());
+            append(record);
+        }
+    }
+
+    // ==================== Persistence ====================
+
+    private JsonObject record(Op op) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", op.name());
+        return record;
+    }
+
+    private JsonObject creditRecord(Credit credit) {
+        JsonObject record = record(Op.CREDIT);
+        record.addProperty("id", credit.id().toString());
+        record.addProperty("recipient", credit.recipient().toString());
+        record.addProperty("amount", credit.amount());
+        record.add("currency", gson.toJsonTree(credit.currency()));
+        record.addProperty("kind", credit.kind().name());
+        return record;
+    }
+
+    /**
+     * Append a record and flush it before returning. Records are a few dozen bytes and money has already
+     * moved when they are written, so they are not deferred to the I/O lane where a crash could lose them.
+     */
+    private void append(JsonObject record) {
+        try {
+            if (writer == null) {
+                if (!dir.exists()) dir.mkdirs();
+                writer = new BufferedWriter(new FileWriter(new File(dir, LOG_FILE), true));
+            }
+            writer.write(gson.toJson(record));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to append to escrow ledger: " + e.getMessage());
+        }
+
+        if (++recordsSinceCompact >= CobbleMarket.config.getEscrow().getCompactAfterRecords()) {
+            compact();
+        }
+    }
+
+    /**
+     * Replay the ledger, refund holds that no longer back a bid and rewrite the log with only open entries.
+     * Must run after the listings are loaded.
+     */
+    public synchronized void load() {
+        holds.clear();
+        holdCurrencies.clear();
+        pending.clear();
+        settling.clear();
+        unconfirmed.clear();
+        int records = 0;
+
+        File file = new File(dir, LOG_FILE);
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        apply(JsonParser.parseString(line).getAsJsonObject());
+                        records++;
+                    } catch (Exception e) {
+                        CobbleLib.LOGGER.warn("Skipping unreadable escrow ledger record: " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                CobbleLib.LOGGER.error("Failed to read escrow ledger: " + e.getMessage());
+            }
+        }
+
+        holdBackUnconfirmed();
+        compact();
+        reconcile();
+
+        if (records > 0) {
+            CobbleLib.LOGGER.info("Replayed " + records + " escrow ledger records: " + holds.size()
+                    + " open holds, " + pending.size() + " credits to settle, " + unconfirmed.size()
+                    + " credits held back");
+        }
+    }
+
+    /**
+     * Move the credits of batches interrupted between their economy call and its confirmation out of settlement
+     */
+    private void holdBackUnconfirmed() {
+        for (UUID id : settling) {
+            Credit credit = pending.remove(id);
+            if (credit == null) credit = unconfirmed.get(id);
+            if (credit == null) continue;
+
+            unconfirmed.put(id, credit);
+            CobbleLib.LOGGER.error("Escrow credit " + id + " of " + credit.amount() + " " + credit.currency().getCurrency()
+                    + " to " + credit.recipient() + " may already have been paid before a crash; it is held back"
+                    + " for manual reconciliation in " + LOG_FILE);
+        }
+        settling.clear();
+    }
+
+    private void apply(JsonObject record) {
+        switch (Op.valueOf(record.get("op").getAsString())) {
+            case HOLD -> {
+                HoldKey key = new HoldKey(UUID.fromString(record.get("listing").getAsString()),
+                        UUID.fromString(record.get("payer").getAsString()));
+                holds.merge(key, record.get("amount").getAsBigDecimal(), BigDecimal::add);
+                holdCurrencies.put(key, gson.fromJson(record.get("currency"), EconomyUse.class));
+            }
+            case CREDIT -> {
+                if (record.has("listing")) {
+                    release(new HoldKey(UUID.fromString(record.get("listing").getAsString()),
+                                    UUID.fromString(record.get("payer").getAsString())),
+                            record.get("released").getAsBigDecimal());
+                }
+                Credit credit = new Credit(UUID.fromString(record.get("id").getAsString()),
+                        UUID.fromString(record.get("recipient").getAsString()),
+                        record.get("amount").getAsBigDecimal(),
+                        gson.fromJson(record.get("currency"), EconomyUse.class),
+                        Kind.valueOf(record.get("kind").getAsString()));
+                pending.put(credit.id(), credit);
+            }
+            case SETTLING -> {
+                for (UUID id : ids(record)) {
+                    settling.add(id);
+                }
+            }
+            case SETTLED -> {
+                UUID id = UUID.fromString(record.get("id").getAsString());
+                settling.remove(id);
+                pending.remove(id);
+                unconfirmed.remove(id);
+            }
+            case ABORTED -> {
+                for (UUID id : ids(record)) {
+                    settling.remove(id);
+                    Credit credit = unconfirmed.remove(id);
+                    if (credit != null) pending.put(id, credit);
+                }
+            }
+        }
+    }
+
+    private static List<UUID> ids(JsonObject record) {
+        List<UUID> ids = new ArrayList<>();
+        for (JsonElement id : record.getAsJsonArray("ids")) {
+            ids.add(UUID.fromString(id.getAsString()));
+        }
+        return ids;
+    }
+
+    /**
+     * Refund holds that are not the standing bid of an active auction: a purchase interrupted by a crash
+     * after the buyer was charged, or an auction whose settlement never recorded its payout
+     */
+    private void reconcile() {
+        for (HoldKey key : new ArrayList<>(holds.keySet())) {
+            Listing<?> listing = CobbleMarket.listingManager.getListing(key.listingId());
+            if (listing != null && listing.isAuction() && listing.getAuction().isHighestBidder(key.payer())) {
+                continue;
+            }
+            refundHold(key, "interrupted purchase or settlement");
+        }
+    }
+
+    /**
+     * Refund every hold of a listing taken off the market without being settled (quarantined after loading,
+     * which reconciling at load cannot see: the listing was still active then)
+     */
+    public synchronized void refundHolds(UUID listingId, String reason) {
+        for (HoldKey key : new ArrayList<>(holds.keySet())) {
+            if (key.listingId().equals(listingId)) {
+                refundHold(key, reason);
+            }
+        }
+    }
+
+    private void refundHold(HoldKey key, String reason) {
+        BigDecimal amount = holds.get(key);
+        CobbleLib.LOGGER.warn("Refunding " + amount + " held for listing " + key.listingId()
+                + " to " + key.payer() + " (" + reason + ")");
+        refund(key.listingId(), key.payer(), amount, holdCurrencies.get(key));
+    }
+
+    /**
+     * Rewrite the log with the open holds and unpaid credits only
+     */
+    private void compact() {
+        recordsSinceCompact = 0;
+        try {
+            if (!dir.exists()) dir.mkdirs();
+            closeWriter();
+
+            File temp = new File(dir, LOG_FILE + ".tmp");
+            try (BufferedWriter out = new BufferedWriter(new FileWriter(temp))) {
+                for (Map.Entry<HoldKey, BigDecimal> hold : holds.entrySet()) {
+                    JsonObject record = record(Op.HOLD);
+                    record.addProperty("listing", hold.getKey().listingId().toString());
+                    record.addProperty("payer", hold.getKey().payer().toString());
+                    record.addProperty("amount", hold.getValue());
+                    record.add("currency", gson.toJsonTree(holdCurrencies.get(hold.getKey())));
+                    out.write(gson.toJson(record));
+                    out.newLine();
+                }
+                for (Credit credit : pending.values()) {
+                    out.write(gson.toJson(creditRecord(credit)));
+                    out.newLine();
+                }
+                // Unconfirmed credits and the batch being paid stay marked as settling
+                JsonArray ids = new JsonArray();
+                for (Credit credit : unconfirmed.values()) {
+                    out.write(gson.toJson(creditRecord(credit)));
+                    out.newLine();
+                    ids.add(credit.id().toString());
+                }
+                for (UUID id : settling) {
+                    ids.add(id.toString());
+                }
+                if (!ids.isEmpty()) {
+                    JsonObject record = record(Op.SETTLING);
+                    record.add("ids", ids);
+                    out.write(gson.toJson(record));
+                    out.newLine();
+                }
+            }
+            Files.move(temp.toPath(), new File(dir, LOG_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            CobbleLib.LOGGER.error("Failed to compact escrow ledger: " + e.getMessage());
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to close escrow ledger: " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    /**
+     * Settle what is still pending and close the log
+     */
+    public void close() {
+        int before;
+        do {
+            before = getPendingCount();
+            settle();
+        } while (getPendingCount() > 0 && getPendingCount() < before);
+
+        synchronized (this) {
+            closeWriter();
+        }
+    }
+
+    // ==================== Stats ====================
+
+    /**
+     * Get the number of open holds
+     */
+    public synchronized int getHoldCount() {
+        return holds.size();
+    }
+
+    /**
+     * Get the held amounts by currency
+     */
+    public synchronized Map<String, BigDecimal> getHeld() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        holds.forEach((key, amount) -> totals.merge(holdCurrencies.get(key).getCurrency(), amount, BigDecimal::add));
+        return totals;
+    }
+
+    /**
+     * Get the number of credits waiting to be paid
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get the amounts waiting to be paid by currency
+     */
+    public synchronized Map<String, BigDecimal> getPending() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (Credit credit : pending.values()) {
+            totals.merge(credit.currency().getCurrency(), credit.amount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    /**
+     * Get the number of credits held back for manual reconciliation
+     */
+    public synchronized int getUnconfirmedCount() {
+        return unconfirmed.size();
+    }
+
+    /**
+     * Get the number of credits paid since startup
+     */
+    public synchronized long getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Get the amounts paid since startup by currency
+     */
+    public synchronized Map<String, BigDecimal> getSettled() {
+        return new TreeMap<>(settledTotals);
+    }
+}
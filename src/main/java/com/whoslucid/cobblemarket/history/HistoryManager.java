@@ -1,104 +1,75 @@
 package com.whoslucid.cobblemarket.history;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.whoslucid.cobblelib.CobbleLib;
-import com.whoslucid.cobblelib.util.Utils;
-import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.storage.HistoryStore;
+import com.whoslucid.cobblemarket.storage.Storage;
+import com.whoslucid.cobblemarket.util.Page;
 import lombok.Getter;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 public class HistoryManager {
 
     private final Map<UUID, PlayerHistory> historyCache = new ConcurrentHashMap<>();
-    private final Gson gson;
+    private final HistoryStore store;
 
     public HistoryManager() {
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .disableHtmlEscaping()
-                .create();
+        this.store = Storage.createHistoryStore();
     }
 
     /**
      * Add a transaction to a player's history
      */
     public void addTransaction(UUID playerUuid, TransactionRecord record) {
-        PlayerHistory history = getOrCreateHistory(playerUuid);
-        history.addTransaction(record);
-        saveHistory(playerUuid, history);
+        // Only the recent transactions of cached players are kept in memory; the store holds all of them
+        historyCache.computeIfPresent(playerUuid, (uuid, history) -> {
+            history.addTransaction(record);
+            return history;
+        });
+        store.append(playerUuid, record);
     }
 
     /**
      * Get or create player history
      */
     public PlayerHistory getOrCreateHistory(UUID playerUuid) {
-        return historyCache.computeIfAbsent(playerUuid, this::loadHistory);
+        return historyCache.computeIfAbsent(playerUuid, store::load);
     }
 
     /**
-     * Get player history (null if doesn't exist)
+     * Get a page of a player's transactions, newest first
      */
-    public PlayerHistory getHistory(UUID playerUuid) {
-        if (historyCache.containsKey(playerUuid)) {
-            return historyCache.get(playerUuid);
-        }
-        PlayerHistory history = loadHistory(playerUuid);
-        if (history != null) {
-            historyCache.put(playerUuid, history);
+    public List<TransactionRecord> getTransactions(UUID playerUuid, int offset, int limit) {
+        PlayerHistory recent = getOrCreateHistory(playerUuid);
+        if (offset + limit <= recent.getTransactionCount() || recent.isComplete()) {
+            return recent.getTransactions(offset, limit);
         }
-        return history;
+        // Older than the buffered transactions
+        return store.loadPage(playerUuid, offset, limit);
     }
 
     /**
-     * Load player history from file
+     * Get a page of a player's transactions, newest first
      */
-    private PlayerHistory loadHistory(UUID playerUuid) {
-        File file = new File(Utils.getAbsolutePath(CobbleMarket.PATH_HISTORY),
-                playerUuid.toString() + ".json");
-
-        if (!file.exists()) {
-            return new PlayerHistory(playerUuid);
-        }
-
-        try (FileReader reader = new FileReader(file)) {
-            PlayerHistory history = gson.fromJson(reader, PlayerHistory.class);
-            if (history == null) {
-                history = new PlayerHistory(playerUuid);
-            }
-            history.setPlayerUuid(playerUuid);
-            return history;
-        } catch (Exception e) {
-            CobbleLib.LOGGER.error("Failed to load history for: " + playerUuid + " - " + e.getMessage());
-            return new PlayerHistory(playerUuid);
+    public Page<TransactionRecord, Integer> getTransactionPage(UUID playerUuid, Integer offset, int limit) {
+        int from = offset != null ? offset : 0;
+        // One extra record tells whether there is a next page
+        List<TransactionRecord> records = new ArrayList<>(getTransactions(playerUuid, from, limit + 1));
+        if (records.size() <= limit) {
+            return new Page<>(records, null);
         }
+        return new Page<>(records.subList(0, limit), from + limit);
     }
 
     /**
-     * Save player history to file
+     * Get the number of transactions stored for a player
      */
-    private void saveHistory(UUID playerUuid, PlayerHistory history) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                File dir = Utils.getAbsolutePath(CobbleMarket.PATH_HISTORY);
-                if (!dir.exists()) dir.mkdirs();
-
-                File file = new File(dir, playerUuid.toString() + ".json");
-                try (FileWriter writer = new FileWriter(file)) {
-                    gson.toJson(history, writer);
-                }
-            } catch (Exception e) {
-                CobbleLib.LOGGER.error("Failed to save history for: " + playerUuid + " - " + e.getMessage());
-            }
-        }, CobbleMarket.EXECUTOR);
+    public int getTransactionCount(UUID playerUuid) {
+        return store.count(playerUuid);
     }
 
     /**
@@ -107,13 +78,4 @@ public class HistoryManager {
     public void clearCache(UUID playerUuid) {
         historyCache.remove(playerUuid);
     }
-
-    /**
-     * Save all cached histories
-     */
-    public void saveAll() {
-        for (Map.Entry<UUID, PlayerHistory> entry : historyCache.entrySet()) {
-            saveHistory(entry.getKey(), entry.getValue());
-        }
-    }
 }
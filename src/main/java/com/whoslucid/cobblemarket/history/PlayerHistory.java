@@ -6,52 +6,86 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-@Getter
-@Setter
+/**
+ * A player's most recent transactions, newest first, kept in a ring buffer:
+ * adding a transaction overwrites the oldest one once the buffer is full instead of shifting the rest.
+ * Older transactions stay in the history store and are paged from there.
+ */
 @EqualsAndHashCode
 @ToString
 public class PlayerHistory {
+    // Number of most recent transactions kept in memory per player
+    public static final int RECENT_TRANSACTIONS = 100;
+
+    @Getter
+    @Setter
     private UUID playerUuid;
-    private List<TransactionRecord> transactions = new ArrayList<>();
+    private final TransactionRecord[] recent = new TransactionRecord[RECENT_TRANSACTIONS];
+    // Guarded by this: index the next transaction is written to, and number of buffered transactions
+    private int head = 0;
+    private int size = 0;
 
     public PlayerHistory() {
-        this.transactions = new ArrayList<>();
     }
 
     public PlayerHistory(UUID playerUuid) {
         this.playerUuid = playerUuid;
-        this.transactions = new ArrayList<>();
     }
 
     /**
-     * Add a transaction record
+     * Add a transaction record (the newest)
      */
-    public void addTransaction(TransactionRecord record) {
-        if (transactions == null) {
-            transactions = new ArrayList<>();
+    public synchronized void addTransaction(TransactionRecord record) {
+        recent[head] = record;
+        head = (head + 1) % recent.length;
+        size = Math.min(size + 1, recent.length);
+    }
+
+    /**
+     * Get a slice of the buffered transactions, newest first
+     */
+    public synchronized List<TransactionRecord> getTransactions(int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), size);
+        int to = Math.min(from + Math.max(limit, 0), size);
+        List<TransactionRecord> records = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            records.add(recent[Math.floorMod(head - 1 - i, recent.length)]);
         }
-        transactions.add(0, record); // Add to front (newest first)
+        return records;
+    }
+
+    /**
+     * Get every buffered transaction, newest first
+     */
+    public List<TransactionRecord> getTransactions() {
+        return getTransactions(0, RECENT_TRANSACTIONS);
+    }
+
+    /**
+     * Replace the buffered transactions (newest first; only the most recent ones are kept)
+     */
+    public synchronized void setTransactions(List<TransactionRecord> transactions) {
+        head = 0;
+        size = 0;
+        if (transactions == null) return;
 
-        // Keep only last 100 transactions
-        if (transactions.size() > 100) {
-            transactions = new ArrayList<>(transactions.subList(0, 100));
+        int count = Math.min(transactions.size(), recent.length);
+        for (int i = count - 1; i >= 0; i--) {
+            addTransaction(transactions.get(i));
         }
     }
 
     /**
-     * Get transactions sorted by timestamp (newest first)
+     * Get the number of buffered transactions
      */
-    public List<TransactionRecord> getTransactionsSorted() {
-        if (transactions == null) return new ArrayList<>();
-        return transactions.stream()
-                .sorted((a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()))
-                .toList();
+    public synchronized int getTransactionCount() {
+        return size;
     }
 
     /**
-     * Get total number of transactions
+     * Whether the buffer holds every transaction of the player (it never filled up)
      */
-    public int getTransactionCount() {
-        return transactions != null ? transactions.size() : 0;
+    public synchronized boolean isComplete() {
+        return size < recent.length;
     }
 }
@@ -4,7 +4,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.whoslucid.cobblelib.CobbleLib;
 import com.whoslucid.cobblemarket.CobbleMarket;
-import com.whoslucid.cobblemarket.auction.Auction;
+import com.whoslucid.cobblemarket.auction.AuctionState;
 import com.whoslucid.cobblemarket.listing.Listing;
 import com.whoslucid.cobblemarket.listing.PokemonListing;
 import com.whoslucid.cobblemarket.util.MarketUtils;
@@ -97,11 +97,13 @@ public class DiscordWebhook {
     /**
      * Send notification for auction end
      */
-    public static void sendAuctionEndNotification(Auction auction) {
+    public static void sendAuctionEndNotification(Listing<?> listing) {
         if (!isEnabled() || !CobbleMarket.config.getDiscord().isNotifyAuctionEnd()) {
             return;
         }
 
+        AuctionState auction = listing.getAuction();
+
         JsonObject embed = new JsonObject();
 
         if (auction.hasBids()) {
@@ -109,11 +111,11 @@ public class DiscordWebhook {
             embed.addProperty("color", 15844367); // Gold
 
             StringBuilder description = new StringBuilder();
-            description.append("**").append(auction.getDisplayName()).append("**\n\n");
-            description.append("**Seller:** ").append(auction.getSellerName()).append("\n");
+            description.append("**").append(listing.getDisplayName()).append("**\n\n");
+            description.append("**Seller:** ").append(listing.getSellerName()).append("\n");
             description.append("**Winner:** ").append(auction.getHighestBidderName()).append("\n");
             description.append("**Final Price:** ").append(MarketUtils.formatPrice(auction.getCurrentBid()))
-                    .append(" ").append(auction.getCurrency().getCurrency()).append("\n");
+                    .append(" ").append(listing.getCurrency().getCurrency()).append("\n");
             description.append("**Total Bids:** ").append(auction.getBidCount()).append("\n");
 
             embed.addProperty("description", description.toString());
@@ -122,10 +124,10 @@ public class DiscordWebhook {
             embed.addProperty("color", 15158332); // Red
 
             StringBuilder description = new StringBuilder();
-            description.append("**").append(auction.getDisplayName()).append("**\n\n");
-            description.append("**Seller:** ").append(auction.getSellerName()).append("\n");
+            description.append("**").append(listing.getDisplayName()).append("**\n\n");
+            description.append("**Seller:** ").append(listing.getSellerName()).append("\n");
             description.append("**Starting Price:** ").append(MarketUtils.formatPrice(auction.getStartingPrice()))
-                    .append(" ").append(auction.getCurrency().getCurrency()).append("\n");
+                    .append(" ").append(listing.getCurrency().getCurrency()).append("\n");
             description.append("\nThe auction ended with no bids.");
 
             embed.addProperty("description", description.toString());
@@ -174,7 +176,7 @@ public class DiscordWebhook {
             } catch (Exception e) {
                 CobbleLib.LOGGER.error("Error sending Discord webhook: " + e.getMessage());
             }
-        }, CobbleMarket.EXECUTOR);
+        }, CobbleMarket.INTEGRATION.ordered("discord"));
     }
 
     /**
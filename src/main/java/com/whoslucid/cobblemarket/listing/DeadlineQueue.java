@@ -0,0 +1,62 @@
+package com.whoslucid.cobblemarket.listing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * End-time priority index of active listings.
+ * Entries are never removed eagerly: a listing that was sold, removed or extended leaves a stale entry behind,
+ * which the caller discards when it is polled (its end time no longer matches).
+ */
+public class DeadlineQueue {
+
+    public record Deadline(UUID listingId, long time) {
+    }
+
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>(Comparator.comparingLong(Deadline::time));
+
+    /**
+     * Schedule a listing to be processed at the given time
+     */
+    public synchronized void schedule(UUID listingId, long time) {
+        queue.add(new Deadline(listingId, time));
+    }
+
+    /**
+     * Get the earliest scheduled time (Long.MAX_VALUE if nothing is scheduled)
+     */
+    public synchronized long nextDeadline() {
+        Deadline head = queue.peek();
+        return head != null ? head.time() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Remove and return every entry that is due strictly before the given time
+     */
+    public synchronized List<Deadline> pollDue(long now) {
+        List<Deadline> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().time() < now) {
+            due.add(queue.poll());
+        }
+        return due;
+    }
+
+    /**
+     * Drop stale entries
+     */
+    public synchronized void retainIf(Predicate<Deadline> live) {
+        queue.removeIf(deadline -> !live.test(deadline));
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+    }
+}
@@ -1,11 +1,10 @@
 package com.whoslucid.cobblemarket.listing;
 
 import com.google.gson.JsonElement;
-import com.mojang.serialization.JsonOps;
 import com.whoslucid.cobblelib.Model.EconomyUse;
-import com.whoslucid.cobblemarket.CobbleMarket;
 import lombok.*;
 import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
 import java.math.BigDecimal;
@@ -17,8 +16,9 @@ import java.util.UUID;
 @ToString(callSuper = true)
 public class ItemListing extends Listing<ItemStack> {
 
-    // Serialized ItemStack data using Minecraft's CODEC
+    // Serialized ItemStack data using Minecraft's CODEC, either as JSON or as compressed NBT (only one is set)
     private JsonElement itemData;
+    private byte[] itemBytes;
 
     // Cached attributes
     private String itemId;
@@ -41,10 +41,7 @@ public class ItemListing extends Listing<ItemStack> {
         this.isPokemon = false;
 
         // Serialize ItemStack
-        this.itemData = ItemStack.OPTIONAL_CODEC.encodeStart(JsonOps.INSTANCE, itemStack)
-                .resultOrPartial(error -> CobbleMarket.server.execute(() ->
-                        com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Error encoding ItemStack: " + error)))
-                .orElse(null);
+        setPayload(Payloads.encode(ItemStack.OPTIONAL_CODEC, itemStack, "ItemStack"));
 
         // Cache attributes
         cacheAttributes(itemStack);
@@ -74,33 +71,76 @@ public class ItemListing extends Listing<ItemStack> {
     }
 
     /**
-     * Deserialize and return the ItemStack
+     * Get a copy of the listed ItemStack
      */
     public ItemStack getItemStack() {
-        if (itemData == null) return ItemStack.EMPTY;
-
-        try {
-            return ItemStack.OPTIONAL_CODEC.decode(JsonOps.INSTANCE, itemData)
-                    .resultOrPartial(error -> CobbleMarket.server.execute(() ->
-                            com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Error decoding ItemStack: " + error)))
-                    .map(pair -> pair.getFirst())
-                    .orElse(ItemStack.EMPTY);
-        } catch (Exception e) {
-            com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Failed to deserialize ItemStack: " + e.getMessage());
-            return ItemStack.EMPTY;
+        if (!hasPayload()) return ItemStack.EMPTY;
+
+        ItemStack item = payload().read(ItemStack::copy);
+        return item != null ? item : ItemStack.EMPTY;
+    }
+
+    /**
+     * Get the cached decoded payload of this listing
+     */
+    private PayloadCache.Entry<ItemStack> payload() {
+        return PayloadCache.get(id, payloadSource(), data -> {
+            ItemStack item = Payloads.decode(ItemStack.OPTIONAL_CODEC, data, "ItemStack");
+            if (item == null) item = ItemStack.EMPTY;
+            if (item.isEmpty()) {
+                return new PayloadCache.Entry<>(data, null, ItemStack.EMPTY, null);
+            }
+            return new PayloadCache.Entry<>(data, item, item, item.getHoverName().getString());
+        });
+    }
+
+    /**
+     * Get the serialized payload (compressed NBT bytes or JSON tree)
+     */
+    private Object payloadSource() {
+        byte[] bytes = itemBytes;
+        return bytes != null ? bytes : itemData;
+    }
+
+    private void setPayload(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            this.itemBytes = bytes;
+            this.itemData = null;
+        } else {
+            this.itemData = (JsonElement) payload;
+            this.itemBytes = null;
         }
     }
 
+    @Override
+    public boolean hasPayload() {
+        return itemBytes != null || itemData != null;
+    }
+
+    @Override
+    public boolean convertPayload(boolean binary) {
+        if (!hasPayload() || (itemBytes != null) == binary) return false;
+
+        Object converted = payload().read(item -> binary
+                ? Payloads.encodeBinary(ItemStack.OPTIONAL_CODEC, item, "ItemStack")
+                : Payloads.encodeJson(ItemStack.OPTIONAL_CODEC, item, "ItemStack"));
+        if (converted == null) return false;
+
+        setPayload(converted);
+        return true;
+    }
+
     @Override
     public ItemStack getDisplayItem() {
-        return getItemStack();
+        if (!hasPayload()) return ItemStack.EMPTY;
+        return payload().getDisplayItem();
     }
 
     @Override
     public String getDisplayName() {
-        ItemStack item = getItemStack();
-        if (!item.isEmpty()) {
-            return item.getHoverName().getString();
+        String name = hasPayload() ? payload().getName() : null;
+        if (name != null) {
+            return name;
         }
         return itemName != null ? itemName : "Unknown Item";
     }
@@ -116,15 +156,27 @@ public class ItemListing extends Listing<ItemStack> {
         return sb.toString();
     }
 
+    @Override
+    public boolean deliverTo(ServerPlayer player) {
+        ItemStack item = getItemStack();
+        if (item.isEmpty()) return false;
+        if (!player.getInventory().add(item)) {
+            // Whatever did not fit goes on the ground at the player's feet
+            player.drop(item, false);
+        }
+        return true;
+    }
+
     @Override
     public boolean isValid() {
-        return itemData != null && !getItemStack().isEmpty();
+        return hasPayload() && payload().isDecoded();
     }
 
     /**
      * Refresh cached attributes from current item data
      */
     public void refreshCache() {
+        PayloadCache.invalidate(id);
         ItemStack item = getItemStack();
         if (!item.isEmpty()) {
             cacheAttributes(item);
@@ -1,13 +1,16 @@
 package com.whoslucid.cobblemarket.listing;
 
 import com.whoslucid.cobblelib.Model.EconomyUse;
+import com.whoslucid.cobblemarket.auction.AuctionState;
 import com.whoslucid.cobblemarket.util.TimeUtils;
 import lombok.*;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
 import java.math.BigDecimal;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 @Getter
 @Setter
@@ -23,10 +26,22 @@ public abstract class Listing<T> {
     protected ListingType listingType;
     protected EconomyUse currency;
     protected boolean isPokemon;
+    // Bidding state, only set on listings sold by auction
+    protected AuctionState auction;
 
     // Version for serialization compatibility
     protected String version = "1.0";
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Listing, ListingState> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Listing.class, ListingState.class, "state");
+
+    // Not persisted: null means ACTIVE, so deserialized listings start active
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile ListingState state;
+
     /**
      * Get the actual listed item (Pokemon or ItemStack)
      */
@@ -47,11 +62,78 @@ public abstract class Listing<T> {
      */
     public abstract String getSearchableText();
 
+    /**
+     * Give the listed Pokemon or item to a player
+     *
+     * @return false if it could not be delivered (nothing was given)
+     */
+    public abstract boolean deliverTo(ServerPlayer player);
+
     /**
      * Validate that the listing data is intact
      */
     public abstract boolean isValid();
 
+    /**
+     * Whether the listing has a serialized payload
+     */
+    public abstract boolean hasPayload();
+
+    /**
+     * Re-encode the payload as binary or JSON if it is stored in the other format
+     *
+     * @return true if the payload changed and the listing should be saved again
+     */
+    public abstract boolean convertPayload(boolean binary);
+
+    /**
+     * Cheap structural check that does not decode the payload (used while loading)
+     */
+    public boolean isWellFormed() {
+        return id != null && sellerUuid != null && price != null && hasPayload();
+    }
+
+    /**
+     * Get the lifecycle state of the listing
+     */
+    public ListingState getState() {
+        ListingState current = state;
+        return current != null ? current : ListingState.ACTIVE;
+    }
+
+    /**
+     * Atomically move the listing from one state to another
+     *
+     * @return false if the listing was not in the expected state
+     */
+    public boolean transition(ListingState expected, ListingState next) {
+        if (STATE.compareAndSet(this, expected, next)) return true;
+        return expected == ListingState.ACTIVE && STATE.compareAndSet(this, null, next);
+    }
+
+    /**
+     * Claim the listing for a purchase, bid or cancellation
+     *
+     * @return false if someone else holds it or it already left the market
+     */
+    public boolean reserve() {
+        return transition(ListingState.ACTIVE, ListingState.RESERVED);
+    }
+
+    /**
+     * Give back a reservation without changing the listing
+     */
+    public void release() {
+        transition(ListingState.RESERVED, ListingState.ACTIVE);
+    }
+
+    /**
+     * Put the listing back on the market (e.g. when an expired listing is relisted)
+     */
+    public void activate() {
+        state = ListingState.ACTIVE;
+    }
+
     /**
      * Check if the listing has expired
      */
@@ -86,7 +168,15 @@ public abstract class Listing<T> {
      * Check if this is an auction listing
      */
     public boolean isAuction() {
-        return listingType == ListingType.AUCTION;
+        return auction != null;
+    }
+
+    /**
+     * Sell the listing by auction, with its price as the starting bid
+     */
+    public void startAuction(BigDecimal minBidIncrement) {
+        this.listingType = ListingType.AUCTION;
+        this.auction = new AuctionState(price, minBidIncrement);
     }
 
     /**
@@ -1,19 +1,19 @@
 package com.whoslucid.cobblemarket.listing;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import com.whoslucid.cobblelib.CobbleLib;
-import com.whoslucid.cobblelib.util.Utils;
 import com.whoslucid.cobblemarket.CobbleMarket;
-import com.whoslucid.cobblemarket.auction.Auction;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.listing.index.AttributeIndex;
+import com.whoslucid.cobblemarket.listing.index.ListingFilter;
+import com.whoslucid.cobblemarket.listing.index.SearchIndex;
+import com.whoslucid.cobblemarket.listing.index.SortMode;
+import com.whoslucid.cobblemarket.listing.index.SortedIndex;
+import com.whoslucid.cobblemarket.storage.ListingStore;
+import com.whoslucid.cobblemarket.storage.Storage;
+import com.whoslucid.cobblemarket.util.MainThreadScheduler;
+import com.whoslucid.cobblemarket.util.Page;
 import lombok.Getter;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,15 +24,44 @@ import java.util.stream.Collectors;
 @Getter
 public class ListingManager {
 
-    private final List<Listing<?>> activeListings = new CopyOnWriteArrayList<>();
+    // Below 1/8 of a kind matching, sorting the matches beats walking the sorted index
+    private static final int SELECTIVE_RATIO = 8;
+
+    // Primary store: listing ID -> listing. Readers use the versioned snapshot instead.
+    private final Map<UUID, Listing<?>> listingsById = new ConcurrentHashMap<>();
+    // Seller UUID -> listing IDs, kept in sync with listingsById
+    private final Map<UUID, Set<UUID>> listingsBySeller = new ConcurrentHashMap<>();
+    // Expired listings, loaded per player from the store on first access
     private final Map<UUID, List<Listing<?>>> expiredListings = new ConcurrentHashMap<>();
-    private final Gson gson;
+
+    // Bumped on every mutation of the active market, which publishes the snapshot derived for it
+    private volatile long version = 0;
+    private volatile MarketSnapshot snapshot = MarketSnapshot.EMPTY;
+    // Guarded by this: creation time each active listing is ordered by in the snapshot (relisting changes it)
+    private final Map<UUID, Long> snapshotTimes = new HashMap<>();
+
+    // Full-text index over active listings
+    private final SearchIndex searchIndex = new SearchIndex();
+    // Attribute bitmaps over active listings, for combinable browse filters
+    private final AttributeIndex attributeIndex = new AttributeIndex();
+    // Price, end time, level... orders over active listings, for sorted browsing without a full sort
+    private final SortedIndex sortedIndex = new SortedIndex();
+
+    // End times of active listings, polled every tick
+    private final DeadlineQueue deadlines = new DeadlineQueue();
+
+    // Persistence backend for the configured storage mode
+    private final ListingStore store;
 
     public ListingManager() {
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .disableHtmlEscaping()
-                .create();
+        this.store = Storage.createListingStore(listingsById::values);
+    }
+
+    /**
+     * Create a manager over the given store (benchmarks run it without any I/O)
+     */
+    ListingManager(ListingStore store) {
+        this.store = store;
     }
 
     // ==================== CRUD Operations ====================
@@ -43,8 +72,10 @@ public class ListingManager {
     public void addListing(Listing<?> listing) {
         if (listing == null || !listing.isValid()) return;
 
-        activeListings.add(listing);
-        saveListing(listing);
+        synchronized (this) {
+            putActive(listing);
+            store.saveListing(listing);
+        }
 
         if (CobbleMarket.config.isDebug()) {
             CobbleLib.LOGGER.info("Added listing: " + listing.getId());
@@ -52,17 +83,38 @@ public class ListingManager {
     }
 
     /**
-     * Remove a listing by ID
+     * Remove a listing by ID (admin removal). Fails while a purchase or bid holds the listing.
      */
     public boolean removeListing(UUID listingId) {
-        Listing<?> listing = getListing(listingId);
-        if (listing == null) return false;
+        Listing<?> listing = listingsById.get(listingId);
+        if (listing == null || !listing.transition(ListingState.ACTIVE, ListingState.CANCELLED)) return false;
+        return takeOff(listing);
+    }
+
+    /**
+     * Take a reserved listing off the market for good, once the item was delivered
+     *
+     * @param outcome SOLD or CANCELLED
+     * @return false if the caller did not hold the reservation
+     */
+    public boolean completeReservation(Listing<?> listing, ListingState outcome) {
+        if (!listing.transition(ListingState.RESERVED, outcome)) return false;
+        return takeOff(listing);
+    }
 
-        activeListings.remove(listing);
-        deleteListingFile(listingId);
+    /**
+     * Remove a listing that has just left the ACTIVE or RESERVED state from the indexes and the store
+     */
+    private boolean takeOff(Listing<?> listing) {
+        synchronized (this) {
+            if (listingsById.get(listing.getId()) != listing) return false;
+            removeActive(listing.getId());
+            store.removeListing(listing);
+        }
+        PayloadCache.invalidate(listing.getId());
 
         if (CobbleMarket.config.isDebug()) {
-            CobbleLib.LOGGER.info("Removed listing: " + listingId);
+            CobbleLib.LOGGER.info("Removed listing: " + listing.getId() + " (" + listing.getState() + ")");
         }
         return true;
     }
@@ -71,10 +123,8 @@ public class ListingManager {
      * Get a listing by ID
      */
     public Listing<?> getListing(UUID listingId) {
-        return activeListings.stream()
-                .filter(l -> l.getId().equals(listingId))
-                .findFirst()
-                .orElse(null);
+        if (listingId == null) return null;
+        return listingsById.get(listingId);
     }
 
     /**
@@ -83,12 +133,15 @@ public class ListingManager {
     public void expireListing(Listing<?> listing) {
         if (listing == null) return;
 
-        activeListings.remove(listing);
-        deleteListingFile(listing.getId());
+        // Already sold, removed or expired by another caller, or held by a buyer
+        if (!listing.transition(ListingState.ACTIVE, ListingState.EXPIRED)) return;
 
-        expiredListings.computeIfAbsent(listing.getSellerUuid(), k -> new CopyOnWriteArrayList<>())
-                .add(listing);
-        saveExpiredListing(listing);
+        synchronized (this) {
+            if (removeActive(listing.getId()) == null) return;
+
+            addExpired(listing);
+            store.expireListing(listing);
+        }
 
         if (CobbleMarket.config.isDebug()) {
             CobbleLib.LOGGER.info("Expired listing: " + listing.getId());
@@ -101,36 +154,61 @@ public class ListingManager {
     public void relist(Listing<?> listing, long newDurationMillis) {
         if (listing == null) return;
 
-        // Remove from expired
-        List<Listing<?>> playerExpired = expiredListings.get(listing.getSellerUuid());
-        if (playerExpired != null) {
-            playerExpired.remove(listing);
-            deleteExpiredListingFile(listing.getSellerUuid(), listing.getId());
-        }
+        synchronized (this) {
+            // Remove from expired
+            removeExpired(listing.getSellerUuid(), listing.getId());
 
-        // Reset duration and add back to active
-        listing.resetDuration(newDurationMillis);
-        listing.setCreatedTime(System.currentTimeMillis());
-        addListing(listing);
+            // Reset duration and add back to active
+            listing.resetDuration(newDurationMillis);
+            listing.setCreatedTime(System.currentTimeMillis());
+            if (!listing.isValid()) return;
+
+            listing.activate();
+            putActive(listing);
+            store.relistListing(listing);
+        }
     }
 
     /**
      * Reclaim an expired listing (remove from expired, return item to player)
      */
     public Listing<?> reclaimExpired(UUID playerUuid, UUID listingId) {
-        List<Listing<?>> playerExpired = expiredListings.get(playerUuid);
-        if (playerExpired == null) return null;
-
-        Listing<?> listing = playerExpired.stream()
-                .filter(l -> l.getId().equals(listingId))
-                .findFirst()
-                .orElse(null);
+        synchronized (this) {
+            Listing<?> listing = removeExpired(playerUuid, listingId);
+            if (listing != null) {
+                store.reclaimListing(playerUuid, listingId);
+                PayloadCache.invalidate(listingId);
+            }
+            return listing;
+        }
+    }
 
-        if (listing != null) {
-            playerExpired.remove(listing);
-            deleteExpiredListingFile(playerUuid, listingId);
+    /**
+     * Persist the outcome of a bid resolution: the bid it placed, or just the raised maximum
+     */
+    public void recordBid(Listing<?> auction, AuctionState.BidResult result) {
+        if (result.status() == AuctionState.BidStatus.TOO_LOW) return;
+
+        synchronized (this) {
+            // A raised maximum places no bid, so only the auction state is saved
+            store.saveBid(auction, result.bid());
+            // A bid changed the price and may have extended the auction (anti-sniping)
+            if (result.bid() != null && listingsById.get(auction.getId()) == auction) {
+                sortedIndex.add(auction);
+                scheduleDeadline(auction);
+                snapshot = snapshot.withVersion(++version);
+            }
         }
-        return listing;
+    }
+
+    // ==================== Snapshot ====================
+
+    /**
+     * Get a consistent, immutable view of the active market, without locking.
+     * Every write publishes a new snapshot derived from the previous one.
+     */
+    public MarketSnapshot getSnapshot() {
+        return snapshot;
     }
 
     // ==================== Query Methods ====================
@@ -139,77 +217,207 @@ public class ListingManager {
      * Get all active listings
      */
     public List<Listing<?>> getAllListings() {
-        return new ArrayList<>(activeListings);
+        return getSnapshot().getListings();
     }
 
     /**
      * Get all Pokemon listings
      */
     public List<PokemonListing> getPokemonListings() {
-        return activeListings.stream()
-                .filter(l -> l instanceof PokemonListing && !l.isAuction())
-                .map(l -> (PokemonListing) l)
-                .collect(Collectors.toList());
+        return getSnapshot().getPokemonListings();
     }
 
     /**
      * Get all Item listings
      */
     public List<ItemListing> getItemListings() {
-        return activeListings.stream()
-                .filter(l -> l instanceof ItemListing)
-                .map(l -> (ItemListing) l)
-                .collect(Collectors.toList());
+        return getSnapshot().getItemListings();
     }
 
     /**
      * Get all active auctions
      */
-    public List<Auction> getAuctions() {
-        return activeListings.stream()
-                .filter(l -> l instanceof Auction)
-                .map(l -> (Auction) l)
-                .collect(Collectors.toList());
+    public List<Listing<?>> getAuctions() {
+        return getSnapshot().getAuctions();
     }
 
     /**
      * Get shiny Pokemon listings
      */
     public List<PokemonListing> getShinyListings() {
-        return activeListings.stream()
-                .filter(l -> l instanceof PokemonListing pl && pl.isShiny())
-                .map(l -> (PokemonListing) l)
-                .collect(Collectors.toList());
+        return filterPokemonListings(ListingFilter.NONE.withFlag(ListingFilter.Flag.SHINY, true), null);
     }
 
     /**
      * Get legendary Pokemon listings
      */
     public List<PokemonListing> getLegendaryListings() {
-        return activeListings.stream()
-                .filter(l -> l instanceof PokemonListing pl && pl.isLegendary())
-                .map(l -> (PokemonListing) l)
-                .collect(Collectors.toList());
+        return filterPokemonListings(ListingFilter.NONE.withFlag(ListingFilter.Flag.LEGENDARY, true), null);
     }
 
     /**
-     * Search listings by query
+     * Search listings by query (every term must match the start of a word)
      */
     public List<Listing<?>> searchListings(String query) {
-        if (query == null || query.isEmpty()) {
+        if (query == null || query.isBlank()) {
             return getAllListings();
         }
-        String lowerQuery = query.toLowerCase();
-        return activeListings.stream()
-                .filter(l -> l.getSearchableText().contains(lowerQuery))
-                .collect(Collectors.toList());
+        return resolve(searchIndex.search(query), Listing.class);
+    }
+
+    /**
+     * Search Pokemon listings (excluding auctions) by query
+     */
+    public List<PokemonListing> searchPokemonListings(String query) {
+        if (query == null || query.isBlank()) {
+            return getPokemonListings();
+        }
+        List<PokemonListing> listings = resolve(searchIndex.search(query), PokemonListing.class);
+        listings.removeIf(Listing::isAuction);
+        return listings;
+    }
+
+    /**
+     * Search item listings by query
+     */
+    public List<ItemListing> searchItemListings(String query) {
+        if (query == null || query.isBlank()) {
+            return getItemListings();
+        }
+        return resolve(searchIndex.search(query), ItemListing.class);
+    }
+
+    /**
+     * Get Pokemon listings (excluding auctions) matching both the attribute filter and the search query
+     */
+    public List<PokemonListing> filterPokemonListings(ListingFilter filter, String query) {
+        if (filter == null || filter.isEmpty()) {
+            return searchPokemonListings(query);
+        }
+
+        AttributeIndex.Matches matches = attributeIndex.query(AttributeIndex.KIND_POKEMON, filter);
+        if (query == null || query.isBlank()) {
+            return resolve(matches.ids(), PokemonListing.class);
+        }
+
+        Set<UUID> ids = searchIndex.search(query);
+        ids.removeIf(id -> !matches.contains(id));
+        return resolve(ids, PokemonListing.class);
+    }
+
+    /**
+     * Count Pokemon listings (excluding auctions) matching both the attribute filter and the search query
+     */
+    public int countPokemonListings(ListingFilter filter, String query) {
+        AttributeIndex.Matches matches = attributeIndex.query(AttributeIndex.KIND_POKEMON, filter != null ? filter : ListingFilter.NONE);
+        if (query == null || query.isBlank()) {
+            return matches.cardinality();
+        }
+
+        int count = 0;
+        for (UUID id : searchIndex.search(query)) {
+            if (matches.contains(id)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get a page of Pokemon listings (excluding auctions) in sort order, matching the attribute filter and search query
+     *
+     * @param cursor the {@link Page#next()} of the previous page, or null for the first page
+     */
+    public Page<PokemonListing, SortedIndex.Cursor> getPokemonPage(ListingFilter filter, String query, SortMode sort,
+                                                                   SortedIndex.Cursor cursor, int limit) {
+        return sortedPage(AttributeIndex.KIND_POKEMON, PokemonListing.class, filter, query, sort, cursor, limit);
+    }
+
+    /**
+     * Get a page of item listings in sort order, matching the search query
+     */
+    public Page<ItemListing, SortedIndex.Cursor> getItemPage(String query, SortMode sort,
+                                                             SortedIndex.Cursor cursor, int limit) {
+        return sortedPage(AttributeIndex.KIND_ITEM, ItemListing.class, null, query, sort, cursor, limit);
+    }
+
+    /**
+     * Get a page of active auctions in sort order
+     */
+    public Page<Listing<?>, SortedIndex.Cursor> getAuctionPage(SortMode sort, SortedIndex.Cursor cursor, int limit) {
+        return sortedPage(AttributeIndex.KIND_AUCTION, Listing.class, null, null, sort, cursor, limit);
+    }
+
+    /**
+     * Get a page of a player's active listings, newest first
+     */
+    public Page<Listing<?>, Integer> getPlayerListingPage(UUID playerUuid, Integer offset, int limit) {
+        List<Listing<?>> listings = getPlayerListings(playerUuid);
+        listings.sort(Comparator.comparingLong((Listing<?> listing) -> listing.getCreatedTime()).reversed());
+        return Page.ofList(listings, offset, limit);
+    }
+
+    /**
+     * Get a page of a player's expired listings
+     */
+    public Page<Listing<?>, Integer> getPlayerExpiredPage(UUID playerUuid, Integer offset, int limit) {
+        return Page.ofList(playerExpired(playerUuid), offset, limit);
+    }
+
+    /**
+     * Walk the sorted index of a listing kind from a cursor, keeping listings that match the filter and query.
+     * When few listings match, the matches are sorted directly instead of walking past everything else.
+     */
+    private <T> Page<T, SortedIndex.Cursor> sortedPage(String kind, Class<? super T> type, ListingFilter filter,
+                                                       String query, SortMode sort, SortedIndex.Cursor cursor, int limit) {
+        boolean filtered = filter != null && !filter.isEmpty();
+        boolean searched = query != null && !query.isBlank();
+        if (!filtered && !searched) {
+            return resolve(sortedIndex.page(kind, sort, id -> true, cursor, limit), type);
+        }
+
+        AttributeIndex.Matches matches = attributeIndex.query(kind, filtered ? filter : ListingFilter.NONE);
+        Set<UUID> found = searched ? searchIndex.search(query) : null;
+        if (found != null) {
+            found.removeIf(id -> !matches.contains(id));
+        }
+
+        int candidates = found != null ? found.size() : matches.cardinality();
+        int total = attributeIndex.count(kind, ListingFilter.NONE);
+        if (candidates * SELECTIVE_RATIO < total) {
+            Collection<UUID> ids = found != null ? found : matches.ids();
+            return resolve(sortedIndex.sort(kind, sort, ids, cursor, limit), type);
+        }
+
+        Predicate<UUID> accept = found != null ? found::contains : matches::contains;
+        return resolve(sortedIndex.page(kind, sort, accept, cursor, limit), type);
+    }
+
+    /**
+     * Look up the listings of a page of IDs, keeping the cursor
+     */
+    private <T> Page<T, SortedIndex.Cursor> resolve(Page<UUID, SortedIndex.Cursor> ids, Class<? super T> type) {
+        return new Page<>(resolve(ids.items(), type), ids.next());
+    }
+
+    /**
+     * Look up active listings of the given type by ID, keeping the order of the IDs
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> resolve(Collection<UUID> ids, Class<? super T> type) {
+        List<T> listings = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Listing<?> listing = listingsById.get(id);
+            if (type.isInstance(listing)) {
+                listings.add((T) listing);
+            }
+        }
+        return listings;
     }
 
     /**
      * Get listings with a filter predicate
      */
     public List<Listing<?>> getFilteredListings(Predicate<Listing<?>> filter) {
-        return activeListings.stream()
+        return getSnapshot().getListings().stream()
                 .filter(filter)
                 .collect(Collectors.toList());
     }
@@ -218,237 +426,348 @@ public class ListingManager {
      * Get a player's active listings
      */
     public List<Listing<?>> getPlayerListings(UUID playerUuid) {
-        return activeListings.stream()
-                .filter(l -> l.isSeller(playerUuid))
-                .collect(Collectors.toList());
+        Set<UUID> ids = listingsBySeller.get(playerUuid);
+        if (ids == null) return new ArrayList<>();
+
+        List<Listing<?>> listings = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Listing<?> listing = listingsById.get(id);
+            if (listing != null) listings.add(listing);
+        }
+        return listings;
     }
 
     /**
      * Get a player's expired listings
      */
     public List<Listing<?>> getPlayerExpiredListings(UUID playerUuid) {
-        return expiredListings.getOrDefault(playerUuid, Collections.emptyList());
+        return playerExpired(playerUuid);
     }
 
     /**
      * Get count of player's active listings
      */
     public int getPlayerListingCount(UUID playerUuid) {
-        return (int) activeListings.stream()
-                .filter(l -> l.isSeller(playerUuid))
-                .count();
+        Set<UUID> ids = listingsBySeller.get(playerUuid);
+        return ids != null ? ids.size() : 0;
     }
 
-    // ==================== Expiration & Auction Checks ====================
+    // ==================== Indexes ====================
 
     /**
-     * Check all listings for expiration
+     * Insert or replace an active listing and bump the market version
      */
-    public void checkExpirations() {
-        List<Listing<?>> toExpire = activeListings.stream()
-                .filter(Listing::isExpired)
-                .filter(l -> !l.isAuction()) // Auctions handled separately
-                .collect(Collectors.toList());
-
-        for (Listing<?> listing : toExpire) {
-            expireListing(listing);
-            // TODO: Notify seller
+    private synchronized void putActive(Listing<?> listing) {
+        Listing<?> previous = listingsById.get(listing.getId());
+        MarketSnapshot next = snapshot;
+        if (previous != null) {
+            unindex(previous);
+            next = next.without(version, previous.getId(), snapshotTimes.remove(previous.getId()));
         }
+        index(listing);
+        scheduleDeadline(listing);
+        snapshotTimes.put(listing.getId(), listing.getCreatedTime());
+        snapshot = next.with(++version, listing, listing.getCreatedTime());
     }
 
     /**
-     * Check auctions for ending
+     * Remove an active listing by ID and bump the market version
      */
-    public void checkAuctionEndings() {
-        List<Auction> endedAuctions = activeListings.stream()
-                .filter(l -> l instanceof Auction a && a.isExpired())
-                .map(l -> (Auction) l)
-                .collect(Collectors.toList());
+    private synchronized Listing<?> removeActive(UUID listingId) {
+        Listing<?> listing = listingsById.get(listingId);
+        if (listing == null) return null;
 
-        for (Auction auction : endedAuctions) {
-            processAuctionEnd(auction);
-        }
+        unindex(listing);
+        snapshot = snapshot.without(++version, listingId, snapshotTimes.remove(listingId));
+        return listing;
     }
 
     /**
-     * Process an ended auction
+     * Add a listing to its seller's expired list
      */
-    public void processAuctionEnd(Auction auction) {
-        activeListings.remove(auction);
-        deleteListingFile(auction.getId());
-
-        if (auction.hasBids()) {
-            // Auction sold - process via AuctionManager
-            com.whoslucid.cobblemarket.auction.AuctionManager.processAuctionEnd(auction);
-
-            if (CobbleMarket.config.isDebug()) {
-                CobbleLib.LOGGER.info("Auction ended with winner: " + auction.getHighestBidderName());
-            }
-        } else {
-            // No bids - move to expired
-            expiredListings.computeIfAbsent(auction.getSellerUuid(), k -> new CopyOnWriteArrayList<>())
-                    .add(auction);
-            saveExpiredListing(auction);
-
-            com.whoslucid.cobblemarket.auction.AuctionManager.processAuctionEnd(auction);
+    private void addExpired(Listing<?> listing) {
+        playerExpired(listing.getSellerUuid()).add(listing);
+    }
 
-            if (CobbleMarket.config.isDebug()) {
-                CobbleLib.LOGGER.info("Auction ended with no bids: " + auction.getId());
+    /**
+     * Remove a listing from a player's expired list by ID
+     */
+    private Listing<?> removeExpired(UUID playerUuid, UUID listingId) {
+        List<Listing<?>> playerExpired = playerExpired(playerUuid);
+
+        for (Listing<?> listing : playerExpired) {
+            if (listing.getId().equals(listingId)) {
+                // Remove by identity, Lombok equals would deep-compare the payload of every element
+                playerExpired.removeIf(l -> l == listing);
+                return listing;
             }
         }
+        return null;
     }
 
-    // ==================== File I/O ====================
+    /**
+     * Get a player's cached expired list, loading it from the store on first access
+     */
+    private List<Listing<?>> playerExpired(UUID playerUuid) {
+        return expiredListings.computeIfAbsent(playerUuid,
+                k -> new CopyOnWriteArrayList<>(store.loadExpired(k)));
+    }
 
     /**
-     * Save a single listing to file
+     * Register a listing in the ID, seller, search, attribute and sorted indexes
      */
-    public void saveListing(Listing<?> listing) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                File dir = Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS);
-                if (!dir.exists()) dir.mkdirs();
+    private void index(Listing<?> listing) {
+        listingsById.put(listing.getId(), listing);
+        searchIndex.add(listing);
+        attributeIndex.add(listing);
+        sortedIndex.add(listing);
+        if (listing.getSellerUuid() != null) {
+            listingsBySeller.computeIfAbsent(listing.getSellerUuid(), k -> ConcurrentHashMap.newKeySet())
+                    .add(listing.getId());
+        }
+    }
 
-                File file = new File(dir, listing.getId().toString() + ".json");
-                try (FileWriter writer = new FileWriter(file)) {
-                    gson.toJson(listing, writer);
-                }
-            } catch (Exception e) {
-                CobbleLib.LOGGER.error("Failed to save listing: " + listing.getId() + " - " + e.getMessage());
-            }
-        }, CobbleMarket.EXECUTOR);
+    /**
+     * Remove a listing from the ID, seller, search, attribute and sorted indexes
+     */
+    private void unindex(Listing<?> listing) {
+        listingsById.remove(listing.getId());
+        searchIndex.remove(listing.getId());
+        attributeIndex.remove(listing.getId());
+        sortedIndex.remove(listing.getId());
+        if (listing.getSellerUuid() != null) {
+            listingsBySeller.computeIfPresent(listing.getSellerUuid(), (k, ids) -> {
+                ids.remove(listing.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
     }
 
+    // ==================== Expiration & Auction Checks ====================
+
     /**
-     * Save an expired listing to file
+     * Expire listings and end auctions whose end time has passed.
+     * Called every tick; only the due entries of the deadline queue are looked at.
      */
-    private void saveExpiredListing(Listing<?> listing) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                File dir = new File(Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED),
-                        listing.getSellerUuid().toString());
-                if (!dir.exists()) dir.mkdirs();
-
-                File file = new File(dir, listing.getId().toString() + ".json");
-                try (FileWriter writer = new FileWriter(file)) {
-                    gson.toJson(listing, writer);
+    public void processDeadlines() {
+        long now = System.currentTimeMillis();
+        if (deadlines.nextDeadline() >= now) return;
+
+        List<Listing<?>> due = new ArrayList<>();
+        synchronized (this) {
+            for (DeadlineQueue.Deadline deadline : deadlines.pollDue(now)) {
+                Listing<?> listing = listingsById.get(deadline.listingId());
+                // Skip stale entries (listing gone or its end time moved)
+                if (listing != null && listing.getEndTime() == deadline.time()) {
+                    due.add(listing);
                 }
-            } catch (Exception e) {
-                CobbleLib.LOGGER.error("Failed to save expired listing: " + listing.getId() + " - " + e.getMessage());
             }
-        }, CobbleMarket.EXECUTOR);
+        }
+
+        // Settle within the per-tick budget; auctions before plain expirations
+        for (Listing<?> listing : due) {
+            if (listing.isAuction()) {
+                CobbleMarket.MAIN_THREAD.submit(MainThreadScheduler.Priority.SETTLEMENT, () -> {
+                    if (isStillDue(listing)) processAuctionEnd(listing);
+                });
+            } else {
+                CobbleMarket.MAIN_THREAD.submit(MainThreadScheduler.Priority.BULK, () -> {
+                    if (isStillDue(listing)) {
+                        expireListing(listing);
+                        // TODO: Notify seller
+                    }
+                });
+            }
+        }
     }
 
     /**
-     * Delete a listing file
+     * Check that a queued listing is still active and past its end time;
+     * reschedule it if it was extended meanwhile or a purchase or bid currently holds it
      */
-    private void deleteListingFile(UUID listingId) {
-        CompletableFuture.runAsync(() -> {
-            File file = new File(Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS),
-                    listingId.toString() + ".json");
-            if (file.exists()) file.delete();
-        }, CobbleMarket.EXECUTOR);
+    private synchronized boolean isStillDue(Listing<?> listing) {
+        if (listingsById.get(listing.getId()) != listing) return false;
+        if (listing.isExpired() && listing.getState() == ListingState.ACTIVE) return true;
+
+        scheduleDeadline(listing);
+        return false;
     }
 
     /**
-     * Delete an expired listing file
+     * Add a listing's end time to the deadline queue, dropping stale entries once they pile up
      */
-    private void deleteExpiredListingFile(UUID playerUuid, UUID listingId) {
-        CompletableFuture.runAsync(() -> {
-            File file = new File(new File(Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED),
-                    playerUuid.toString()), listingId.toString() + ".json");
-            if (file.exists()) file.delete();
-        }, CobbleMarket.EXECUTOR);
+    private void scheduleDeadline(Listing<?> listing) {
+        if (listing.getEndTime() <= 0) return;
+
+        deadlines.schedule(listing.getId(), listing.getEndTime());
+        if (deadlines.size() > 2 * listingsById.size() + 1024) {
+            deadlines.retainIf(deadline -> {
+                Listing<?> active = listingsById.get(deadline.listingId());
+                return active != null && active.getEndTime() == deadline.time();
+            });
+        }
     }
 
     /**
-     * Load all listings from disk
+     * Process an ended auction
      */
-    public void loadAll() {
-        activeListings.clear();
-        expiredListings.clear();
-
-        // Load active listings
-        File listingsDir = Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS);
-        if (listingsDir.exists() && listingsDir.isDirectory()) {
-            File[] files = listingsDir.listFiles((dir, name) -> name.endsWith(".json"));
-            if (files != null) {
-                for (File file : files) {
-                    loadListingFile(file);
+    public void processAuctionEnd(Listing<?> auction) {
+        // Already settled by another caller, or a bid is being placed (the deadline is retried next tick)
+        if (!auction.reserve()) {
+            if (auction.getState() == ListingState.RESERVED) {
+                synchronized (this) {
+                    scheduleDeadline(auction);
                 }
             }
+            return;
         }
+        // Bids need the reservation, so none can land any more and the outcome is final
+        boolean hasBids = auction.getAuction().hasBids();
+        auction.transition(ListingState.RESERVED, hasBids ? ListingState.SOLD : ListingState.EXPIRED);
 
-        // Load expired listings
-        File expiredDir = Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED);
-        if (expiredDir.exists() && expiredDir.isDirectory()) {
-            File[] playerDirs = expiredDir.listFiles(File::isDirectory);
-            if (playerDirs != null) {
-                for (File playerDir : playerDirs) {
-                    UUID playerUuid = UUID.fromString(playerDir.getName());
-                    File[] files = playerDir.listFiles((dir, name) -> name.endsWith(".json"));
-                    if (files != null) {
-                        for (File file : files) {
-                            Listing<?> listing = loadListingFromFile(file);
-                            if (listing != null) {
-                                expiredListings.computeIfAbsent(playerUuid, k -> new CopyOnWriteArrayList<>())
-                                        .add(listing);
-                            }
-                        }
-                    }
-                }
+        synchronized (this) {
+            if (removeActive(auction.getId()) == null) return;
+
+            if (hasBids) {
+                store.removeListing(auction);
+                PayloadCache.invalidate(auction.getId());
+            } else {
+                addExpired(auction);
+                store.expireListing(auction);
             }
         }
 
-        CobbleLib.LOGGER.info("Loaded " + activeListings.size() + " active listings");
+        com.whoslucid.cobblemarket.auction.AuctionManager.processAuctionEnd(auction);
+
+        if (CobbleMarket.config.isDebug()) {
+            CobbleLib.LOGGER.info(hasBids
+                    ? "Auction ended with winner: " + auction.getAuction().getHighestBidderName()
+                    : "Auction ended with no bids: " + auction.getId());
+        }
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Persist the current state of an active listing
+     */
+    public void saveListing(Listing<?> listing) {
+        store.saveListing(listing);
     }
 
     /**
-     * Load a listing from file and add to active
+     * Load all active listings from the store.
+     * Payloads are not decoded here; {@link #validateAsync()} checks them in the background afterwards.
      */
-    private void loadListingFile(File file) {
-        Listing<?> listing = loadListingFromFile(file);
-        if (listing != null && listing.isValid()) {
-            activeListings.add(listing);
+    public void loadAll() {
+        long start = System.nanoTime();
+        List<Listing<?>> malformed = new ArrayList<>();
+        int quarantined;
+
+        synchronized (this) {
+            listingsById.clear();
+            listingsBySeller.clear();
+            searchIndex.clear();
+            attributeIndex.clear();
+            sortedIndex.clear();
+            expiredListings.clear();
+            deadlines.clear();
+            PayloadCache.clear();
+            snapshotTimes.clear();
+            snapshot = MarketSnapshot.EMPTY.withVersion(++version);
+
+            quarantined = store.load(listing -> {
+                if (listing.isWellFormed()) {
+                    putActive(listing);
+                } else {
+                    malformed.add(listing);
+                }
+            });
         }
+
+        for (Listing<?> listing : malformed) {
+            store.quarantine(listing);
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        int loaded = listingsById.size();
+        CobbleLib.LOGGER.info("Loaded " + loaded + " active listings in " + millis + "ms ("
+                + (loaded * 1000L / millis) + " listings/s, "
+                + (quarantined + malformed.size()) + " quarantined)");
+
+        validateAsync();
     }
 
     /**
-     * Load a listing from a file
+     * Decode every active listing in parallel and quarantine the ones that fail, without blocking the caller
      */
-    private Listing<?> loadListingFromFile(File file) {
-        try (FileReader reader = new FileReader(file)) {
-            JsonElement json = JsonParser.parseReader(reader);
-            if (!json.isJsonObject()) return null;
+    public void validateAsync() {
+        List<Listing<?>> listings = getSnapshot().getListings();
+        if (listings.isEmpty()) return;
 
-            // Determine type
-            boolean isPokemon = json.getAsJsonObject().has("pokemonData");
-            boolean isAuction = json.getAsJsonObject().has("bidHistory");
+        CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            List<Listing<?>> invalid = listings.parallelStream()
+                    .filter(listing -> !listing.isValid())
+                    .collect(Collectors.toList());
 
-            if (isAuction) {
-                return gson.fromJson(json, Auction.class);
-            } else if (isPokemon) {
-                return gson.fromJson(json, PokemonListing.class);
-            } else {
-                return gson.fromJson(json, ItemListing.class);
+            for (Listing<?> listing : invalid) {
+                quarantine(listing);
             }
-        } catch (Exception e) {
-            CobbleLib.LOGGER.error("Failed to load listing from: " + file.getName() + " - " + e.getMessage());
+
+            // Upgrade payloads stored in the other format; they were just decoded, so this only re-encodes.
+            // Quarantined listings are no longer active and are skipped by convertPayload.
+            boolean binary = Payloads.isBinary();
+            int converted = 0;
+            for (Listing<?> listing : listings) {
+                if (convertPayload(listing, binary)) {
+                    converted++;
+                }
+            }
+
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            CobbleLib.LOGGER.info("Validated " + listings.size() + " listings in " + millis + "ms ("
+                    + (listings.size() * 1000L / millis) + " listings/s, " + invalid.size() + " quarantined, "
+                    + converted + " converted to " + (binary ? "binary" : "JSON") + " payloads)");
+        }, CobbleMarket.WORKERS).exceptionally(e -> {
+            CobbleLib.LOGGER.error("Listing validation failed: " + e.getMessage());
             return null;
-        }
+        });
     }
 
     /**
-     * Save all listings to disk
+     * Re-encode an active listing's payload in the given format and save it
      */
-    public void saveAll() {
-        for (Listing<?> listing : activeListings) {
-            saveListing(listing);
-        }
-        for (Map.Entry<UUID, List<Listing<?>>> entry : expiredListings.entrySet()) {
-            for (Listing<?> listing : entry.getValue()) {
-                saveExpiredListing(listing);
-            }
+    private synchronized boolean convertPayload(Listing<?> listing, boolean binary) {
+        if (listingsById.get(listing.getId()) != listing) return false;
+        if (!listing.convertPayload(binary)) return false;
+
+        store.saveListing(listing);
+        return true;
+    }
+
+    /**
+     * Take a listing that failed validation out of the market, unless it changed hands in the meantime
+     */
+    private synchronized void quarantine(Listing<?> listing) {
+        if (listingsById.get(listing.getId()) != listing) return;
+
+        removeActive(listing.getId());
+        store.quarantine(listing);
+        PayloadCache.invalidate(listing.getId());
+        CobbleLib.LOGGER.warn("Quarantined invalid listing: " + listing.getId() + " (" + listing.getSellerName() + ")");
+
+        // The auction will never settle, so its bids are given back. Before the ledger is loaded there is
+        // nothing to refund yet: reconciling refunds the holds of listings that are no longer active.
+        if (listing.isAuction() && CobbleMarket.escrow != null) {
+            CobbleMarket.escrow.refundHolds(listing.getId(), "quarantined auction");
         }
     }
+
+    /**
+     * Flush all listings to the store
+     */
+    public synchronized void saveAll() {
+        store.saveAll(getSnapshot().getListings());
+    }
 }
@@ -0,0 +1,15 @@
+package com.whoslucid.cobblemarket.listing;
+
+/**
+ * Lifecycle of a listing. A listing leaves ACTIVE through a single compare-and-set, so only one caller
+ * (buyer, bidder, seller, expiry) can act on it at a time:
+ * ACTIVE -> RESERVED -> SOLD / CANCELLED, RESERVED -> ACTIVE when the holder backs out,
+ * and ACTIVE -> EXPIRED / SOLD / CANCELLED for expiry, auction ends and admin removal.
+ */
+public enum ListingState {
+    ACTIVE,
+    RESERVED,
+    SOLD,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,178 @@
+package com.whoslucid.cobblemarket.listing;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Immutable sequence of listings ordered by creation time (then ID), backing {@link MarketSnapshot}.
+ * It is a treap with path copying: adding or removing a listing copies only the O(log n) nodes on its path
+ * and shares the rest with the previous tree, so every version stays intact for the readers holding it.
+ */
+final class ListingTree<T extends Listing<?>> {
+
+    private record Node<T>(long createdTime, UUID id, int priority, T listing, Node<T> left, Node<T> right, int size) {
+
+        Node<T> with(Node<T> left, Node<T> right) {
+            return new Node<>(createdTime, id, priority, listing, left, right, 1 + sizeOf(left) + sizeOf(right));
+        }
+    }
+
+    private static final ListingTree<?> EMPTY = new ListingTree<>(null);
+
+    private final Node<T> root;
+
+    private ListingTree(Node<T> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Listing<?>> ListingTree<T> empty() {
+        return (ListingTree<T>) EMPTY;
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Add a listing ordered by the given creation time (it must not be in the tree yet)
+     */
+    ListingTree<T> add(long createdTime, T listing) {
+        UUID id = listing.getId();
+        // Priorities come from the (random) ID, so the same market always builds the same tree
+        int priority = Long.hashCode((id.getMostSignificantBits() ^ id.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L);
+        return new ListingTree<>(insert(root, new Node<>(createdTime, id, priority, listing, null, null, 1)));
+    }
+
+    /**
+     * Remove the listing added with the given creation time and ID (the same tree if it is not there)
+     */
+    ListingTree<T> remove(long createdTime, UUID id) {
+        Node<T> next = delete(root, createdTime, id);
+        return next == root ? this : new ListingTree<>(next);
+    }
+
+    /**
+     * Read-only list view: O(log n) positional access, O(1) per element when iterated
+     */
+    List<T> asList() {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+                Node<T> node = root;
+                while (true) {
+                    int left = sizeOf(node.left());
+                    if (index < left) {
+                        node = node.left();
+                    } else if (index > left) {
+                        index -= left + 1;
+                        node = node.right();
+                    } else {
+                        return node.listing();
+                    }
+                }
+            }
+
+            @Override
+            public int size() {
+                return sizeOf(root);
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return new InOrder<>(root);
+            }
+        };
+    }
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) return added;
+        if (added.priority() > node.priority()) {
+            Node<T>[] split = split(node, added.createdTime(), added.id());
+            return added.with(split[0], split[1]);
+        }
+        return compare(added.createdTime(), added.id(), node) < 0
+                ? node.with(insert(node.left(), added), node.right())
+                : node.with(node.left(), insert(node.right(), added));
+    }
+
+    private static <T> Node<T> delete(Node<T> node, long createdTime, UUID id) {
+        if (node == null) return null;
+        int cmp = compare(createdTime, id, node);
+        if (cmp == 0) return merge(node.left(), node.right());
+        if (cmp < 0) {
+            Node<T> left = delete(node.left(), createdTime, id);
+            return left == node.left() ? node : node.with(left, node.right());
+        }
+        Node<T> right = delete(node.right(), createdTime, id);
+        return right == node.right() ? node : node.with(node.left(), right);
+    }
+
+    /**
+     * Split into the nodes before and after a key that is not in the tree
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> node, long createdTime, UUID id) {
+        if (node == null) return new Node[]{null, null};
+        if (compare(createdTime, id, node) < 0) {
+            Node<T>[] split = split(node.left(), createdTime, id);
+            return new Node[]{split[0], node.with(split[1], node.right())};
+        }
+        Node<T>[] split = split(node.right(), createdTime, id);
+        return new Node[]{node.with(node.left(), split[0]), split[1]};
+    }
+
+    /**
+     * Join two trees where every node of the first comes before every node of the second
+     */
+    private static <T> Node<T> merge(Node<T> first, Node<T> second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        if (first.priority() > second.priority()) {
+            return first.with(first.left(), merge(first.right(), second));
+        }
+        return second.with(merge(first, second.left()), second.right());
+    }
+
+    private static int compare(long createdTime, UUID id, Node<?> node) {
+        int cmp = Long.compare(createdTime, node.createdTime());
+        return cmp != 0 ? cmp : id.compareTo(node.id());
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node != null ? node.size() : 0;
+    }
+
+    private static final class InOrder<T> implements Iterator<T> {
+        private final Deque<Node<T>> path = new ArrayDeque<>();
+
+        InOrder(Node<T> root) {
+            descend(root);
+        }
+
+        private void descend(Node<T> node) {
+            for (; node != null; node = node.left()) {
+                path.push(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (path.isEmpty()) throw new NoSuchElementException();
+            Node<T> node = path.pop();
+            descend(node.right());
+            return node.listing();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.whoslucid.cobblemarket.listing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of the active market at a given version, ordered by creation time (oldest first).
+ * Readers (menus, searches) can hold on to a snapshot without locking;
+ * the version changes on every mutation and can be used for cache invalidation.
+ * <p>
+ * Each mutation derives the next snapshot from the previous one in O(log n), sharing everything it
+ * did not touch (see {@link ListingTree}), and the listing manager publishes it with a volatile write.
+ */
+@Getter
+public class MarketSnapshot {
+
+    public static final MarketSnapshot EMPTY = new MarketSnapshot(0, ListingTree.empty(),
+            ListingTree.empty(), ListingTree.empty(), ListingTree.empty());
+
+    private final long version;
+    private final List<Listing<?>> listings;
+    private final List<PokemonListing> pokemonListings;
+    private final List<ItemListing> itemListings;
+    private final List<Listing<?>> auctions;
+
+    @Getter(AccessLevel.NONE)
+    private final ListingTree<Listing<?>> all;
+    @Getter(AccessLevel.NONE)
+    private final ListingTree<PokemonListing> pokemon;
+    @Getter(AccessLevel.NONE)
+    private final ListingTree<ItemListing> items;
+    @Getter(AccessLevel.NONE)
+    private final ListingTree<Listing<?>> auctionTree;
+
+    private MarketSnapshot(long version, ListingTree<Listing<?>> all, ListingTree<PokemonListing> pokemon,
+                           ListingTree<ItemListing> items, ListingTree<Listing<?>> auctionTree) {
+        this.version = version;
+        this.all = all;
+        this.pokemon = pokemon;
+        this.items = items;
+        this.auctionTree = auctionTree;
+        this.listings = all.asList();
+        this.pokemonListings = pokemon.asList();
+        this.itemListings = items.asList();
+        this.auctions = auctionTree.asList();
+    }
+
+    /**
+     * Derive the snapshot with a listing added, ordered by the given creation time
+     */
+    public MarketSnapshot with(long version, Listing<?> listing, long createdTime) {
+        if (listing.isAuction()) {
+            return new MarketSnapshot(version, all.add(createdTime, listing), pokemon, items,
+                    auctionTree.add(createdTime, listing));
+        } else if (listing instanceof PokemonListing pokemonListing) {
+            return new MarketSnapshot(version, all.add(createdTime, listing),
+                    pokemon.add(createdTime, pokemonListing), items, auctionTree);
+        } else if (listing instanceof ItemListing itemListing) {
+            return new MarketSnapshot(version, all.add(createdTime, listing), pokemon,
+                    items.add(createdTime, itemListing), auctionTree);
+        }
+        return new MarketSnapshot(version, all.add(createdTime, listing), pokemon, items, auctionTree);
+    }
+
+    /**
+     * Derive the snapshot with a listing removed (the creation time it was added with)
+     */
+    public MarketSnapshot without(long version, UUID listingId, long createdTime) {
+        return new MarketSnapshot(version, all.remove(createdTime, listingId), pokemon.remove(createdTime, listingId),
+                items.remove(createdTime, listingId), auctionTree.remove(createdTime, listingId));
+    }
+
+    /**
+     * Derive the snapshot at a new version with the same listings (a listing changed in place)
+     */
+    public MarketSnapshot withVersion(long version) {
+        return new MarketSnapshot(version, all, pokemon, items, auctionTree);
+    }
+
+    /**
+     * Get the number of active listings in this snapshot
+     */
+    public int size() {
+        return listings.size();
+    }
+}
@@ -0,0 +1,141 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+import net.minecraft.world.item.ItemStack;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of decoded listing payloads (Pokemon / ItemStack) and their display items, keyed by listing ID.
+ * Entries are softly referenced so the GC can reclaim them under memory pressure, and are rebuilt when the
+ * listing's serialized payload (JSON tree or bytes) is replaced. Cached objects are never handed out directly, only copies.
+ */
+public class PayloadCache {
+
+    // Maximum number of distinct placeholder lines cached per entry
+    private static final int MAX_LINES = 64;
+
+    private static final Map<UUID, SoftReference<Entry<?>>> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, SoftReference<Entry<?>>> eldest) {
+            return size() > Math.max(0, CobbleMarket.config.getPayloadCacheSize());
+        }
+    };
+
+    /**
+     * Decoded payload of a single listing
+     */
+    public static class Entry<T> {
+        private final Object source;
+        private final T master;
+        private final ItemStack display;
+        private final String name;
+        private final Map<String, String> lines = new ConcurrentHashMap<>();
+
+        public Entry(Object source, T master, ItemStack display, String name) {
+            this.source = source;
+            this.master = master;
+            this.display = display != null ? display : ItemStack.EMPTY;
+            this.name = name;
+        }
+
+        /**
+         * Whether the payload decoded successfully
+         */
+        public boolean isDecoded() {
+            return master != null;
+        }
+
+        /**
+         * Get a copy of the display item
+         */
+        public ItemStack getDisplayItem() {
+            return display.copy();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Apply a read-only function to the decoded payload (null if it failed to decode).
+         * The function must not mutate or keep a reference to its argument.
+         */
+        public <R> R read(Function<T, R> reader) {
+            return master != null ? reader.apply(master) : null;
+        }
+
+        /**
+         * Replace payload placeholders in a template line, caching the result per line
+         */
+        public String replace(String text, BiFunction<String, T, String> replacer) {
+            if (master == null || text == null) return text;
+
+            String cached = lines.get(text);
+            if (cached != null) return cached;
+
+            String replaced = replacer.apply(text, master);
+            if (lines.size() < MAX_LINES) {
+                lines.put(text, replaced);
+            }
+            return replaced;
+        }
+    }
+
+    /**
+     * Get the cached entry for a listing, decoding it if missing or if the payload changed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Entry<T> get(UUID listingId, Object source, Function<Object, Entry<T>> decoder) {
+        if (listingId == null) return decoder.apply(source);
+
+        synchronized (CACHE) {
+            SoftReference<Entry<?>> reference = CACHE.get(listingId);
+            Entry<?> entry = reference != null ? reference.get() : null;
+            if (entry != null && entry.source == source) {
+                return (Entry<T>) entry;
+            }
+        }
+
+        // Decode outside the lock; a concurrent decode of the same listing just wins the put
+        Entry<T> entry = decoder.apply(source);
+        synchronized (CACHE) {
+            CACHE.put(listingId, new SoftReference<>(entry));
+        }
+        return entry;
+    }
+
+    /**
+     * Drop a listing's cached payload
+     */
+    public static void invalidate(UUID listingId) {
+        if (listingId == null) return;
+        synchronized (CACHE) {
+            CACHE.remove(listingId);
+        }
+    }
+
+    /**
+     * Drop all cached payloads
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Get the number of cached entries
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+}
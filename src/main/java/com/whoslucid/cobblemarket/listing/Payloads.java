@@ -0,0 +1,100 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.google.gson.JsonElement;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Encodes listing payloads (Pokemon / ItemStack) either as a JSON tree (readable) or as
+ * GZIP-compressed NBT bytes (compact, the default).
+ */
+public class Payloads {
+
+    // Key of the encoded value inside the root compound
+    private static final String VALUE = "v";
+
+    /**
+     * Whether new payloads should be stored as binary
+     */
+    public static boolean isBinary() {
+        return CobbleMarket.config.getStorage().isBinaryPayloads();
+    }
+
+    /**
+     * Encode a value as a JSON tree (null on failure)
+     */
+    public static <T> JsonElement encodeJson(Codec<T> codec, T value, String label) {
+        return codec.encodeStart(JsonOps.INSTANCE, value)
+                .resultOrPartial(error -> CobbleMarket.server.execute(() ->
+                        CobbleLib.LOGGER.error("Error encoding " + label + ": " + error)))
+                .orElse(null);
+    }
+
+    /**
+     * Encode a value as compressed NBT bytes (null on failure)
+     */
+    public static <T> byte[] encodeBinary(Codec<T> codec, T value, String label) {
+        Tag tag = codec.encodeStart(NbtOps.INSTANCE, value)
+                .resultOrPartial(error -> CobbleMarket.server.execute(() ->
+                        CobbleLib.LOGGER.error("Error encoding " + label + ": " + error)))
+                .orElse(null);
+        if (tag == null) return null;
+
+        CompoundTag root = new CompoundTag();
+        root.put(VALUE, tag);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            NbtIo.writeCompressed(root, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to write " + label + " payload: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Encode a value in the configured format
+     */
+    public static <T> Object encode(Codec<T> codec, T value, String label) {
+        return isBinary() ? encodeBinary(codec, value, label) : encodeJson(codec, value, label);
+    }
+
+    /**
+     * Decode a payload stored either as a JSON tree or as compressed NBT bytes (null on failure)
+     */
+    public static <T> T decode(Codec<T> codec, Object payload, String label) {
+        if (payload == null) return null;
+
+        try {
+            if (payload instanceof byte[] bytes) {
+                CompoundTag root = NbtIo.readCompressed(new ByteArrayInputStream(bytes), NbtAccounter.unlimitedHeap());
+                Tag tag = root.get(VALUE);
+                if (tag == null) return null;
+                return codec.decode(NbtOps.INSTANCE, tag)
+                        .resultOrPartial(error -> CobbleMarket.server.execute(() ->
+                                CobbleLib.LOGGER.error("Error decoding " + label + ": " + error)))
+                        .map(pair -> pair.getFirst())
+                        .orElse(null);
+            }
+            return codec.decode(JsonOps.INSTANCE, (JsonElement) payload)
+                    .resultOrPartial(error -> CobbleMarket.server.execute(() ->
+                            CobbleLib.LOGGER.error("Error decoding " + label + ": " + error)))
+                    .map(pair -> pair.getFirst())
+                    .orElse(null);
+        } catch (Exception e) {
+            CobbleLib.LOGGER.error("Failed to deserialize " + label + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
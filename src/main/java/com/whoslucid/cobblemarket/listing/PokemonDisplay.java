@@ -0,0 +1,131 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
+import com.cobblemon.mod.common.item.PokemonItem;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.whoslucid.cobblelib.util.PokemonUtils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of what the browse menus show for a Pokemon listing.
+ * Captured when the listing is created and stored next to the payload, so the model item and
+ * lore placeholders can be rendered without decoding the Pokemon.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PokemonDisplay {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%[a-z_]+%");
+
+    private String speciesId;
+    private String speciesName;
+    private List<String> aspects;
+    private boolean shiny;
+    private int level;
+    // Pokemon placeholder -> rendered value, for every placeholder of the lore at capture time
+    private Map<String, String> placeholders;
+
+    /**
+     * Constructor for deserialization (GSON)
+     */
+    private PokemonDisplay() {
+    }
+
+    /**
+     * Capture the display snapshot of a Pokemon
+     */
+    public static PokemonDisplay of(Pokemon pokemon) {
+        PokemonDisplay display = new PokemonDisplay();
+        display.speciesId = pokemon.getSpecies().getResourceIdentifier().toString();
+        display.speciesName = pokemon.getSpecies().getName();
+        display.aspects = List.copyOf(pokemon.getAspects());
+        display.shiny = pokemon.getShiny();
+        display.level = pokemon.getLevel();
+
+        // Resolve every placeholder used by the lore; ones PokemonUtils does not know are kept as-is
+        Map<String, String> placeholders = new HashMap<>();
+        for (String token : loreTokens()) {
+            placeholders.put(token, PokemonUtils.replace(token, pokemon));
+        }
+        display.placeholders = placeholders;
+        return display;
+    }
+
+    public Map<String, String> getPlaceholders() {
+        return placeholders != null ? Collections.unmodifiableMap(placeholders) : Collections.emptyMap();
+    }
+
+    /**
+     * Build the model item for this Pokemon (empty if the species no longer exists)
+     */
+    public ItemStack createDisplayItem() {
+        if (speciesId == null) return ItemStack.EMPTY;
+
+        Species species = PokemonSpecies.INSTANCE.getByIdentifier(ResourceLocation.parse(speciesId));
+        if (species == null) return ItemStack.EMPTY;
+
+        Set<String> aspectSet = aspects != null ? new HashSet<>(aspects) : new HashSet<>();
+        return PokemonItem.from(species, aspectSet, 1);
+    }
+
+    /**
+     * Whether every placeholder in the line was captured in this snapshot
+     */
+    public boolean resolves(String text) {
+        if (text == null || text.indexOf('%') < 0) return true;
+        if (placeholders == null) return false;
+
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        while (matcher.find()) {
+            if (!placeholders.containsKey(matcher.group())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Replace the captured Pokemon placeholders in a line
+     */
+    public String replace(String text) {
+        if (text == null || placeholders == null || text.indexOf('%') < 0) return text;
+
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            String value = placeholders.getOrDefault(matcher.group(), matcher.group());
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * All placeholders in the configured listing lore
+     */
+    private static Set<String> loreTokens() {
+        Set<String> tokens = new HashSet<>();
+        if (CobbleMarket.language == null) return tokens;
+
+        List<String> lines = new ArrayList<>();
+        lines.addAll(CobbleMarket.language.getPokemonLore());
+        lines.addAll(CobbleMarket.language.getListingLore());
+        lines.addAll(CobbleMarket.language.getAuctionLore());
+        for (String line : lines) {
+            Matcher matcher = PLACEHOLDER.matcher(line);
+            while (matcher.find()) {
+                tokens.add(matcher.group());
+            }
+        }
+        return tokens;
+    }
+}
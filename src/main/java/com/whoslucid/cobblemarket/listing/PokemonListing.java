@@ -1,18 +1,25 @@
 package com.whoslucid.cobblemarket.listing;
 
+import com.cobblemon.mod.common.Cobblemon;
 import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
+import com.cobblemon.mod.common.api.types.ElementalType;
+import com.cobblemon.mod.common.pokemon.Species;
 import com.cobblemon.mod.common.item.PokemonItem;
 import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.google.gson.JsonElement;
-import com.mojang.serialization.JsonOps;
 import com.whoslucid.cobblelib.Model.EconomyUse;
 import com.whoslucid.cobblelib.util.PokemonUtils;
-import com.whoslucid.cobblemarket.CobbleMarket;
 import com.whoslucid.cobblemarket.util.TimeUtils;
 import lombok.*;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Getter
@@ -21,8 +28,9 @@ import java.util.UUID;
 @ToString(callSuper = true)
 public class PokemonListing extends Listing<Pokemon> {
 
-    // Serialized Pokemon data using Cobblemon's CODEC
+    // Serialized Pokemon data using Cobblemon's CODEC, either as JSON or as compressed NBT (only one is set)
     private JsonElement pokemonData;
+    private byte[] pokemonBytes;
 
     // Cached searchable attributes (populated on creation for faster filtering)
     private String species;
@@ -35,6 +43,10 @@ public class PokemonListing extends Listing<Pokemon> {
     private int level;
     private String nature;
     private String ability;
+    private List<String> types;
+
+    // Snapshot used to render the listing without decoding pokemonData
+    private PokemonDisplay display;
 
     /**
      * Create a new Pokemon listing
@@ -52,13 +64,11 @@ public class PokemonListing extends Listing<Pokemon> {
         this.isPokemon = true;
 
         // Serialize Pokemon
-        this.pokemonData = Pokemon.getCODEC().encodeStart(JsonOps.INSTANCE, pokemon)
-                .resultOrPartial(error -> CobbleMarket.server.execute(() ->
-                        com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Error encoding Pokemon: " + error)))
-                .orElse(null);
+        setPayload(Payloads.encode(Pokemon.getCODEC(), pokemon, "Pokemon"));
 
         // Cache searchable attributes
         cacheAttributes(pokemon);
+        this.display = pokemon != null ? PokemonDisplay.of(pokemon) : null;
     }
 
     /**
@@ -82,49 +92,145 @@ public class PokemonListing extends Listing<Pokemon> {
         this.nature = PokemonUtils.getNatureTranslate(pokemon.getNature());
         this.ability = pokemon.getAbility().getName();
 
+        List<String> typeNames = new ArrayList<>();
+        for (ElementalType type : pokemon.getTypes()) {
+            typeNames.add(type.getName().toLowerCase(Locale.ROOT));
+        }
+        this.types = typeNames;
+
         String rarity = PokemonUtils.getRarityS(pokemon);
         this.isLegendary = rarity.equalsIgnoreCase("legendary");
         this.isMythical = rarity.equalsIgnoreCase("mythical");
         this.isUltraBeast = rarity.equalsIgnoreCase("ultra_beast");
     }
 
+    /**
+     * Get the lowercase type names, falling back to the species' base form for listings created before types were cached
+     */
+    public List<String> getTypes() {
+        if (types != null) return types;
+
+        Species baseSpecies = null;
+        if (display != null && display.getSpeciesId() != null) {
+            baseSpecies = PokemonSpecies.INSTANCE.getByIdentifier(ResourceLocation.parse(display.getSpeciesId()));
+        } else if (species != null) {
+            baseSpecies = PokemonSpecies.INSTANCE.getByName(species.toLowerCase(Locale.ROOT));
+        }
+        if (baseSpecies == null) return Collections.emptyList();
+
+        List<String> typeNames = new ArrayList<>();
+        for (ElementalType type : baseSpecies.getTypes()) {
+            typeNames.add(type.getName().toLowerCase(Locale.ROOT));
+        }
+        return typeNames;
+    }
+
+    /**
+     * Get the type names as stored (null for listings created before types were cached)
+     */
+    public List<String> getStoredTypes() {
+        return types;
+    }
+
     @Override
     public Pokemon getItem() {
         return getPokemon();
     }
 
     /**
-     * Deserialize and return the Pokemon
+     * Deserialize and return a new, independent Pokemon (use this when handing the Pokemon to a player)
      */
     public Pokemon getPokemon() {
-        if (pokemonData == null) return null;
-
-        try {
-            return Pokemon.getCODEC().decode(JsonOps.INSTANCE, pokemonData)
-                    .resultOrPartial(error -> CobbleMarket.server.execute(() ->
-                            com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Error decoding Pokemon: " + error)))
-                    .map(pair -> pair.getFirst())
-                    .orElse(null);
-        } catch (Exception e) {
-            com.whoslucid.cobblelib.CobbleLib.LOGGER.error("Failed to deserialize Pokemon: " + e.getMessage());
-            return null;
+        return Payloads.decode(Pokemon.getCODEC(), payloadSource(), "Pokemon");
+    }
+
+    /**
+     * Get the serialized payload (compressed NBT bytes or JSON tree)
+     */
+    private Object payloadSource() {
+        byte[] bytes = pokemonBytes;
+        return bytes != null ? bytes : pokemonData;
+    }
+
+    private void setPayload(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            this.pokemonBytes = bytes;
+            this.pokemonData = null;
+        } else {
+            this.pokemonData = (JsonElement) payload;
+            this.pokemonBytes = null;
+        }
+    }
+
+    @Override
+    public boolean hasPayload() {
+        return pokemonBytes != null || pokemonData != null;
+    }
+
+    @Override
+    public boolean convertPayload(boolean binary) {
+        if (!hasPayload() || (pokemonBytes != null) == binary) return false;
+
+        Object converted = payload().read(pokemon -> binary
+                ? Payloads.encodeBinary(Pokemon.getCODEC(), pokemon, "Pokemon")
+                : Payloads.encodeJson(Pokemon.getCODEC(), pokemon, "Pokemon"));
+        if (converted == null) return false;
+
+        setPayload(converted);
+        return true;
+    }
+
+    /**
+     * Get the cached decoded payload of this listing
+     */
+    private PayloadCache.Entry<Pokemon> payload() {
+        return PayloadCache.get(id, payloadSource(), data -> {
+            Pokemon pokemon = Payloads.decode(Pokemon.getCODEC(), data, "Pokemon");
+            if (pokemon == null) {
+                return new PayloadCache.Entry<>(data, null, ItemStack.EMPTY, null);
+            }
+            if (display == null) {
+                // Listing created before display snapshots existed; stored with the next save
+                display = PokemonDisplay.of(pokemon);
+            }
+            return new PayloadCache.Entry<>(data, pokemon, PokemonItem.from(pokemon, 1), pokemon.getSpecies().getName());
+        });
+    }
+
+    /**
+     * Replace Pokemon placeholders in a line, from the display snapshot when it covers the line
+     */
+    public String replacePokemonPlaceholders(String text) {
+        PokemonDisplay snapshot = display;
+        if (snapshot != null && snapshot.resolves(text)) {
+            return snapshot.replace(text);
         }
+        if (!hasPayload()) return text;
+        return payload().replace(text, PokemonUtils::replace);
     }
 
     @Override
     public ItemStack getDisplayItem() {
-        Pokemon pokemon = getPokemon();
-        if (pokemon == null) {
+        PokemonDisplay snapshot = display;
+        if (snapshot != null) {
+            ItemStack item = snapshot.createDisplayItem();
+            if (!item.isEmpty()) return item;
+        }
+        if (!hasPayload()) {
             return ItemStack.EMPTY;
         }
-        return PokemonItem.from(pokemon, 1);
+        return payload().getDisplayItem();
     }
 
     @Override
     public String getDisplayName() {
-        Pokemon pokemon = getPokemon();
-        if (pokemon != null) {
-            return pokemon.getSpecies().getName();
+        PokemonDisplay snapshot = display;
+        if (snapshot != null && snapshot.getSpeciesName() != null) {
+            return snapshot.getSpeciesName();
+        }
+        String name = hasPayload() ? payload().getName() : null;
+        if (name != null) {
+            return name;
         }
         return species != null ? PokemonUtils.capitalize(species) : "Unknown Pokemon";
     }
@@ -147,18 +253,31 @@ public class PokemonListing extends Listing<Pokemon> {
         return sb.toString();
     }
 
+    @Override
+    public boolean deliverTo(ServerPlayer player) {
+        Pokemon pokemon = getPokemon();
+        if (pokemon == null) return false;
+
+        // Party first, PC if the party is full
+        if (Cobblemon.INSTANCE.getStorage().getParty(player).add(pokemon)) return true;
+        var pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+        return pc != null && pc.add(pokemon);
+    }
+
     @Override
     public boolean isValid() {
-        return pokemonData != null && getPokemon() != null;
+        return hasPayload() && payload().isDecoded();
     }
 
     /**
      * Refresh cached attributes from current Pokemon data
      */
     public void refreshCache() {
+        PayloadCache.invalidate(id);
         Pokemon pokemon = getPokemon();
         if (pokemon != null) {
             cacheAttributes(pokemon);
+            this.display = PokemonDisplay.of(pokemon);
         }
     }
 }
@@ -0,0 +1,257 @@
+package com.whoslucid.cobblemarket.listing.index;
+
+import com.whoslucid.cobblemarket.listing.ItemListing;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.PokemonListing;
+
+import java.util.*;
+
+/**
+ * Bitmap index over listing attributes, maintained incrementally as listings are added and removed.
+ * Every active listing owns a slot (freed slots are reused, so bitmaps stay dense) and every attribute value
+ * ("shiny", "nature:adamant", "type:fire", ...) owns a bitmap of the slots that have it.
+ * A {@link ListingFilter} is evaluated as an AND of ORs over those bitmaps, so counts are cheap enough
+ * to compute for every filter button.
+ * All methods are synchronized; mutations are additionally serialized by the listing manager.
+ */
+public class AttributeIndex {
+
+    public static final String KIND_POKEMON = "kind:pokemon";
+    public static final String KIND_ITEM = "kind:item";
+    public static final String KIND_AUCTION = "kind:auction";
+
+    public static final String SHINY = "shiny";
+    public static final String LEGENDARY = "legendary";
+    public static final String MYTHICAL = "mythical";
+    public static final String ULTRA_BEAST = "ultra_beast";
+    public static final String HIDDEN_ABILITY = "hidden_ability";
+
+    public static final String PERFECT_IVS_PREFIX = "ivs:";
+    public static final String NATURE_PREFIX = "nature:";
+    public static final String TYPE_PREFIX = "type:";
+    public static final String LEVEL_PREFIX = "level:";
+    public static final String CURRENCY_PREFIX = "currency:";
+
+    // Width of a level band: band 0 is levels 1-25, band 1 is 26-50, ...
+    public static final int LEVEL_BAND_SIZE = 25;
+    public static final int LEVEL_BANDS = 4;
+
+    private static final BitSet EMPTY = new BitSet();
+
+    /**
+     * Result of a query: the IDs of the matching listings, resolved from their slots under the index lock.
+     * Slots are reused, so a result never refers back to them and can be checked without locking.
+     */
+    public record Matches(Set<UUID> ids) {
+
+        public boolean contains(UUID listingId) {
+            return ids.contains(listingId);
+        }
+
+        public int cardinality() {
+            return ids.size();
+        }
+    }
+
+    // Listing ID <-> slot
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] idsBySlot = new UUID[256];
+    private final BitSet freeSlots = new BitSet();
+    private int slotCount = 0;
+
+    // Attribute key -> slots having it, sorted so all values of a category are contiguous
+    private final NavigableMap<String, BitSet> bitmaps = new TreeMap<>();
+    // Listing ID -> its attribute keys, for removal
+    private final Map<UUID, List<String>> keysById = new HashMap<>();
+
+    /**
+     * Index a listing (replacing any previous entry with the same ID)
+     */
+    public synchronized void add(Listing<?> listing) {
+        remove(listing.getId());
+
+        int slot = allocateSlot(listing.getId());
+        List<String> keys = attributesOf(listing);
+        for (String key : keys) {
+            bitmaps.computeIfAbsent(key, k -> new BitSet()).set(slot);
+        }
+        keysById.put(listing.getId(), keys);
+    }
+
+    /**
+     * Remove a listing from the index
+     */
+    public synchronized void remove(UUID listingId) {
+        Integer slot = slots.remove(listingId);
+        if (slot == null) return;
+
+        for (String key : keysById.remove(listingId)) {
+            BitSet bitmap = bitmaps.get(key);
+            if (bitmap == null) continue;
+            bitmap.clear(slot);
+            if (bitmap.isEmpty()) bitmaps.remove(key);
+        }
+        idsBySlot[slot] = null;
+        freeSlots.set(slot);
+    }
+
+    public synchronized void clear() {
+        slots.clear();
+        keysById.clear();
+        bitmaps.clear();
+        freeSlots.clear();
+        idsBySlot = new UUID[256];
+        slotCount = 0;
+    }
+
+    /**
+     * Evaluate a filter within one kind of listing (one of the {@code KIND_} keys)
+     */
+    public synchronized Matches query(String kind, ListingFilter filter) {
+        BitSet matched = evaluate(kind, filter);
+        Set<UUID> ids = HashSet.newHashSet(matched.cardinality());
+        for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+            ids.add(idsBySlot[slot]);
+        }
+        return new Matches(ids);
+    }
+
+    /**
+     * Count the listings of a kind matching a filter
+     */
+    public synchronized int count(String kind, ListingFilter filter) {
+        return evaluate(kind, filter).cardinality();
+    }
+
+    private BitSet evaluate(String kind, ListingFilter filter) {
+        BitSet result = (BitSet) bitmaps.getOrDefault(kind, EMPTY).clone();
+
+        // Smallest clauses first so the result shrinks as early as possible
+        List<BitSet> clauses = new ArrayList<>();
+        for (List<String> clause : filter.clauses()) {
+            clauses.add(union(clause));
+        }
+        clauses.sort(Comparator.comparingInt(BitSet::cardinality));
+
+        for (BitSet clause : clauses) {
+            if (result.isEmpty()) break;
+            result.and(clause);
+        }
+        return result;
+    }
+
+    /**
+     * Get the indexed values of a category (e.g. every nature currently on the market), without the prefix
+     */
+    public synchronized List<String> values(String prefix) {
+        List<String> values = new ArrayList<>();
+        for (String key : bitmaps.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            values.add(key.substring(prefix.length()));
+        }
+        return values;
+    }
+
+    /**
+     * Get the number of attribute bitmaps
+     */
+    public synchronized int getBitmapCount() {
+        return bitmaps.size();
+    }
+
+    private BitSet union(List<String> keys) {
+        if (keys.size() == 1) {
+            return bitmaps.getOrDefault(keys.get(0), EMPTY);
+        }
+        BitSet union = new BitSet();
+        for (String key : keys) {
+            BitSet bitmap = bitmaps.get(key);
+            if (bitmap != null) union.or(bitmap);
+        }
+        return union;
+    }
+
+    private int allocateSlot(UUID listingId) {
+        int slot = freeSlots.nextSetBit(0);
+        if (slot >= 0) {
+            freeSlots.clear(slot);
+        } else {
+            slot = slotCount++;
+            if (slot >= idsBySlot.length) {
+                idsBySlot = Arrays.copyOf(idsBySlot, idsBySlot.length * 2);
+            }
+        }
+        idsBySlot[slot] = listingId;
+        slots.put(listingId, slot);
+        return slot;
+    }
+
+    /**
+     * Attribute keys of a listing
+     */
+    private static List<String> attributesOf(Listing<?> listing) {
+        List<String> keys = new ArrayList<>();
+        if (listing.getCurrency() != null && listing.getCurrency().getCurrency() != null) {
+            keys.add(currency(listing.getCurrency().getCurrency()));
+        }
+
+        keys.add(kindOf(listing));
+
+        if (listing instanceof PokemonListing pokemon) {
+            if (pokemon.isShiny()) keys.add(SHINY);
+            if (pokemon.isLegendary()) keys.add(LEGENDARY);
+            if (pokemon.isMythical()) keys.add(MYTHICAL);
+            if (pokemon.isUltraBeast()) keys.add(ULTRA_BEAST);
+            if (pokemon.isHasHiddenAbility()) keys.add(HIDDEN_ABILITY);
+            keys.add(perfectIvs(pokemon.getPerfectIvCount()));
+            if (pokemon.getLevel() > 0) keys.add(levelBand(bandOf(pokemon.getLevel())));
+            if (pokemon.getNature() != null) keys.add(nature(pokemon.getNature()));
+            for (String type : pokemon.getTypes()) {
+                keys.add(type(type));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Get the kind key of a listing (auctions are a kind of their own)
+     */
+    public static String kindOf(Listing<?> listing) {
+        if (listing.isAuction()) return KIND_AUCTION;
+        return listing instanceof ItemListing ? KIND_ITEM : KIND_POKEMON;
+    }
+
+    public static String perfectIvs(int count) {
+        return PERFECT_IVS_PREFIX + count;
+    }
+
+    public static String nature(String nature) {
+        return NATURE_PREFIX + nature.toLowerCase(Locale.ROOT);
+    }
+
+    public static String type(String type) {
+        return TYPE_PREFIX + type.toLowerCase(Locale.ROOT);
+    }
+
+    public static String levelBand(int band) {
+        return LEVEL_PREFIX + band;
+    }
+
+    public static String currency(String currency) {
+        return CURRENCY_PREFIX + currency.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the level band of a level (levels above the last band fall into it)
+     */
+    public static int bandOf(int level) {
+        return Math.min(LEVEL_BANDS - 1, Math.max(0, (level - 1) / LEVEL_BAND_SIZE));
+    }
+
+    /**
+     * Get the level range of a band, e.g. "26-50"
+     */
+    public static String bandLabel(int band) {
+        int from = band * LEVEL_BAND_SIZE + 1;
+        return band == LEVEL_BANDS - 1 ? from + "+" : from + "-" + (from + LEVEL_BAND_SIZE - 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.whoslucid.cobblemarket.listing.index;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable combination of browse filters, evaluated against the {@link AttributeIndex}.
+ * Different categories are AND-ed; values selected within one category (e.g. two natures) are OR-ed.
+ * Every {@code with...} method returns a new filter, so menus can pass filters around freely.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ListingFilter {
+
+    public static final ListingFilter NONE = new ListingFilter(EnumSet.noneOf(Flag.class), 0,
+            Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+
+    public enum Flag {
+        SHINY(AttributeIndex.SHINY),
+        LEGENDARY(AttributeIndex.LEGENDARY),
+        MYTHICAL(AttributeIndex.MYTHICAL),
+        ULTRA_BEAST(AttributeIndex.ULTRA_BEAST),
+        HIDDEN_ABILITY(AttributeIndex.HIDDEN_ABILITY);
+
+        @Getter
+        private final String key;
+
+        Flag(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Set<Flag> flags;
+    private final int minPerfectIvs;
+    private final Set<String> natures;
+    private final Set<String> types;
+    private final Set<Integer> levelBands;
+    private final Set<String> currencies;
+
+    private ListingFilter(Set<Flag> flags, int minPerfectIvs, Set<String> natures, Set<String> types,
+                          Set<Integer> levelBands, Set<String> currencies) {
+        this.flags = Collections.unmodifiableSet(flags);
+        this.minPerfectIvs = minPerfectIvs;
+        this.natures = Collections.unmodifiableSet(natures);
+        this.types = Collections.unmodifiableSet(types);
+        this.levelBands = Collections.unmodifiableSet(levelBands);
+        this.currencies = Collections.unmodifiableSet(currencies);
+    }
+
+    public boolean isEmpty() {
+        return flags.isEmpty() && minPerfectIvs <= 0 && natures.isEmpty() && types.isEmpty()
+                && levelBands.isEmpty() && currencies.isEmpty();
+    }
+
+    public boolean has(Flag flag) {
+        return flags.contains(flag);
+    }
+
+    /**
+     * Toggle a flag on or off
+     */
+    public ListingFilter withFlag(Flag flag, boolean enabled) {
+        EnumSet<Flag> copy = flags.isEmpty() ? EnumSet.noneOf(Flag.class) : EnumSet.copyOf(flags);
+        if (enabled) copy.add(flag); else copy.remove(flag);
+        return new ListingFilter(copy, minPerfectIvs, natures, types, levelBands, currencies);
+    }
+
+    /**
+     * Require at least this many perfect IVs (0 disables the filter)
+     */
+    public ListingFilter withMinPerfectIvs(int count) {
+        int clamped = Math.max(0, Math.min(6, count));
+        return new ListingFilter(flags, clamped, natures, types, levelBands, currencies);
+    }
+
+    public ListingFilter withNature(String nature, boolean enabled) {
+        return new ListingFilter(flags, minPerfectIvs, toggle(natures, normalize(nature), enabled), types, levelBands, currencies);
+    }
+
+    public ListingFilter withType(String type, boolean enabled) {
+        return new ListingFilter(flags, minPerfectIvs, natures, toggle(types, normalize(type), enabled), levelBands, currencies);
+    }
+
+    public ListingFilter withLevelBand(int band, boolean enabled) {
+        return new ListingFilter(flags, minPerfectIvs, natures, types, toggle(levelBands, band, enabled), currencies);
+    }
+
+    public ListingFilter withCurrency(String currency, boolean enabled) {
+        return new ListingFilter(flags, minPerfectIvs, natures, types, levelBands, toggle(currencies, normalize(currency), enabled));
+    }
+
+    /**
+     * The filter as attribute index clauses: every clause must match, any key within a clause may match
+     */
+    public List<List<String>> clauses() {
+        List<List<String>> clauses = new ArrayList<>();
+        for (Flag flag : flags) {
+            clauses.add(List.of(flag.getKey()));
+        }
+        if (minPerfectIvs > 0) {
+            List<String> keys = new ArrayList<>();
+            for (int ivs = minPerfectIvs; ivs <= 6; ivs++) {
+                keys.add(AttributeIndex.perfectIvs(ivs));
+            }
+            clauses.add(keys);
+        }
+        addClause(clauses, natures, AttributeIndex::nature);
+        addClause(clauses, types, AttributeIndex::type);
+        addClause(clauses, levelBands, AttributeIndex::levelBand);
+        addClause(clauses, currencies, AttributeIndex::currency);
+        return clauses;
+    }
+
+    private static <T> void addClause(List<List<String>> clauses, Set<T> values, Function<T, String> key) {
+        if (values.isEmpty()) return;
+
+        List<String> keys = new ArrayList<>(values.size());
+        for (T value : values) {
+            keys.add(key.apply(value));
+        }
+        clauses.add(keys);
+    }
+
+    private static <T> Set<T> toggle(Set<T> values, T value, boolean enabled) {
+        Set<T> copy = new TreeSet<>(values);
+        if (enabled) copy.add(value); else copy.remove(value);
+        return copy;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,111 @@
+package com.whoslucid.cobblemarket.listing.index;
+
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index from search tokens to listing IDs, maintained incrementally as listings are added and removed.
+ * Tokens come from {@link Listing#getSearchableText()} (species, nature, ability, item id/name, seller and tags).
+ * Queries are prefix matches per term, AND-ed across terms.
+ * Mutations must be serialized by the caller; queries are lock-free.
+ */
+public class SearchIndex {
+
+    // Token -> IDs of listings containing it, sorted so prefix ranges are contiguous
+    private final NavigableMap<String, Set<UUID>> postings = new ConcurrentSkipListMap<>();
+    // Listing ID -> its tokens, for removal
+    private final Map<UUID, Set<String>> tokensById = new ConcurrentHashMap<>();
+
+    /**
+     * Index a listing (replacing any previous entry with the same ID)
+     */
+    public void add(Listing<?> listing) {
+        remove(listing.getId());
+
+        Set<String> tokens = tokenize(listing.getSearchableText());
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(listing.getId());
+        }
+        tokensById.put(listing.getId(), tokens);
+    }
+
+    /**
+     * Remove a listing from the index
+     */
+    public void remove(UUID listingId) {
+        Set<String> tokens = tokensById.remove(listingId);
+        if (tokens == null) return;
+
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (k, ids) -> {
+                ids.remove(listingId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        tokensById.clear();
+    }
+
+    /**
+     * Find the IDs of listings matching every term of the query (each term as a prefix).
+     * An empty query matches nothing; callers should fall back to the full listing set.
+     */
+    public Set<UUID> search(String query) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) return Collections.emptySet();
+
+        // Resolve each term to the union of its prefix postings, then intersect smallest first
+        List<Set<UUID>> matches = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Set<UUID> ids = prefixMatches(term);
+            if (ids.isEmpty()) return Collections.emptySet();
+            matches.add(ids);
+        }
+        matches.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> result = new HashSet<>(matches.get(0));
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            result.retainAll(matches.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of distinct tokens
+     */
+    public int getTokenCount() {
+        return postings.size();
+    }
+
+    private Set<UUID> prefixMatches(String prefix) {
+        NavigableMap<String, Set<UUID>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+
+        Set<UUID> ids = new HashSet<>();
+        for (Set<UUID> posting : range.values()) {
+            ids.addAll(posting);
+        }
+        return ids;
+    }
+
+    /**
+     * Split text into lowercase alphanumeric tokens
+     */
+    public static Set<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return Collections.emptySet();
+
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,39 @@
+package com.whoslucid.cobblemarket.listing.index;
+
+import lombok.Getter;
+
+/**
+ * Orders offered by the browse menus. Each mode walks one of the orders kept by {@link SortedIndex}.
+ */
+@Getter
+public enum SortMode {
+    NEWEST(SortedIndex.Order.CREATED, true, false),
+    PRICE_ASCENDING(SortedIndex.Order.PRICE, false, false),
+    PRICE_DESCENDING(SortedIndex.Order.PRICE, true, false),
+    ENDING_SOON(SortedIndex.Order.END_TIME, false, false),
+    LEVEL(SortedIndex.Order.LEVEL, true, true),
+    PERFECT_IVS(SortedIndex.Order.PERFECT_IVS, true, true);
+
+    private final SortedIndex.Order order;
+    private final boolean descending;
+    // Only meaningful for Pokemon listings and auctions
+    private final boolean pokemonOnly;
+
+    SortMode(SortedIndex.Order order, boolean descending, boolean pokemonOnly) {
+        this.order = order;
+        this.descending = descending;
+        this.pokemonOnly = pokemonOnly;
+    }
+
+    /**
+     * Get the next mode in the cycle, skipping Pokemon-only modes when browsing items
+     */
+    public SortMode next(boolean pokemon) {
+        SortMode[] modes = values();
+        SortMode next = modes[(ordinal() + 1) % modes.length];
+        while (next.pokemonOnly && !pokemon) {
+            next = modes[(next.ordinal() + 1) % modes.length];
+        }
+        return next;
+    }
+}
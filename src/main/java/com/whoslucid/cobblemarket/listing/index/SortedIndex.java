@@ -0,0 +1,190 @@
+package com.whoslucid.cobblemarket.listing.index;
+
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.PokemonListing;
+import com.whoslucid.cobblemarket.util.Page;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * Ordered views over active listings, one skip list per listing kind and {@link Order}, keyed by (value, id).
+ * Entries are replaced whenever a listing is re-added (e.g. after a bid changed its price or end time),
+ * so a page of results is a walk from a {@link Cursor} instead of a full sort.
+ * Mutations must be serialized by the caller; walks are lock-free and weakly consistent.
+ */
+public class SortedIndex {
+
+    public enum Order {
+        CREATED,
+        PRICE,
+        END_TIME,
+        LEVEL,
+        PERFECT_IVS
+    }
+
+    private record Entry(Comparable<?> value, long createdTime, UUID id) {
+    }
+
+    private record Indexed(String kind, Entry[] entries) {
+    }
+
+    /**
+     * Opaque position in an order: the last entry of a page. Stays valid when that listing is removed.
+     */
+    public static final class Cursor {
+        private final SortMode mode;
+        private final Entry after;
+
+        private Cursor(SortMode mode, Entry after) {
+            this.mode = mode;
+            this.after = after;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cursor other && mode == other.mode && after.equals(other.after);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mode, after);
+        }
+    }
+
+    // Value, then newest first, then ID so that every entry is unique
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Entry> ENTRY_ORDER = (a, b) -> {
+        int result = ((Comparable) a.value()).compareTo(b.value());
+        if (result != 0) return result;
+        result = Long.compare(b.createdTime(), a.createdTime());
+        return result != 0 ? result : a.id().compareTo(b.id());
+    };
+
+    // Kind -> order -> entries
+    private final Map<String, Map<Order, NavigableSet<Entry>>> orders = new ConcurrentHashMap<>();
+    // Listing ID -> its kind and entries (indexed by order ordinal), for removal
+    private final Map<UUID, Indexed> indexedById = new ConcurrentHashMap<>();
+
+    /**
+     * Index a listing (replacing any previous entry with the same ID)
+     */
+    public void add(Listing<?> listing) {
+        remove(listing.getId());
+
+        String kind = AttributeIndex.kindOf(listing);
+        Map<Order, NavigableSet<Entry>> kindOrders = orders.computeIfAbsent(kind, k -> createOrders());
+
+        Entry[] entries = new Entry[Order.values().length];
+        for (Order order : Order.values()) {
+            Entry entry = new Entry(valueOf(listing, order), listing.getCreatedTime(), listing.getId());
+            kindOrders.get(order).add(entry);
+            entries[order.ordinal()] = entry;
+        }
+        indexedById.put(listing.getId(), new Indexed(kind, entries));
+    }
+
+    /**
+     * Remove a listing from every order
+     */
+    public void remove(UUID listingId) {
+        Indexed indexed = indexedById.remove(listingId);
+        if (indexed == null) return;
+
+        Map<Order, NavigableSet<Entry>> kindOrders = orders.get(indexed.kind());
+        if (kindOrders == null) return;
+        for (Order order : Order.values()) {
+            kindOrders.get(order).remove(indexed.entries()[order.ordinal()]);
+        }
+    }
+
+    public void clear() {
+        orders.clear();
+        indexedById.clear();
+    }
+
+    /**
+     * Walk the order of a sort mode from a cursor, collecting up to {@code limit} accepted listings.
+     * Costs O(log n) to find the cursor plus the number of entries walked.
+     *
+     * @param cursor position after the previous page, or null for the first page
+     */
+    public Page<UUID, Cursor> page(String kind, SortMode mode, Predicate<UUID> accept, Cursor cursor, int limit) {
+        Map<Order, NavigableSet<Entry>> kindOrders = orders.get(kind);
+        if (kindOrders == null || limit <= 0) return Page.empty();
+
+        NavigableSet<Entry> entries = kindOrders.get(mode.getOrder());
+        NavigableSet<Entry> walk = mode.isDescending() ? entries.descendingSet() : entries;
+        if (cursor != null && cursor.mode == mode) {
+            walk = walk.tailSet(cursor.after, false);
+        }
+
+        // One extra entry tells whether there is a next page
+        List<Entry> collected = new ArrayList<>(Math.min(limit, 64) + 1);
+        for (Entry entry : walk) {
+            if (!accept.test(entry.id())) continue;
+            collected.add(entry);
+            if (collected.size() > limit) break;
+        }
+        return toPage(collected, mode, limit);
+    }
+
+    /**
+     * Order a small set of listing IDs by a sort mode and return the page after the cursor
+     * (cheaper than walking the whole order for selective filters)
+     */
+    public Page<UUID, Cursor> sort(String kind, SortMode mode, Collection<UUID> ids, Cursor cursor, int limit) {
+        List<Entry> entries = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Indexed indexed = indexedById.get(id);
+            if (indexed != null && indexed.kind().equals(kind)) {
+                entries.add(indexed.entries()[mode.getOrder().ordinal()]);
+            }
+        }
+        Comparator<Entry> order = mode.isDescending() ? ENTRY_ORDER.reversed() : ENTRY_ORDER;
+        entries.sort(order);
+
+        int from = 0;
+        if (cursor != null && cursor.mode == mode) {
+            int position = Collections.binarySearch(entries, cursor.after, order);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = (int) Math.min(entries.size(), (long) from + limit + 1);
+        return toPage(entries.subList(from, to), mode, limit);
+    }
+
+    private static Page<UUID, Cursor> toPage(List<Entry> collected, SortMode mode, int limit) {
+        boolean hasNext = collected.size() > limit;
+        List<UUID> ids = new ArrayList<>(Math.min(collected.size(), limit));
+        for (int i = 0; i < collected.size() && i < limit; i++) {
+            ids.add(collected.get(i).id());
+        }
+        Cursor next = hasNext ? new Cursor(mode, collected.get(limit - 1)) : null;
+        return new Page<>(ids, next);
+    }
+
+    private static Map<Order, NavigableSet<Entry>> createOrders() {
+        Map<Order, NavigableSet<Entry>> kindOrders = new EnumMap<>(Order.class);
+        for (Order order : Order.values()) {
+            kindOrders.put(order, new ConcurrentSkipListSet<>(ENTRY_ORDER));
+        }
+        return kindOrders;
+    }
+
+    /**
+     * Sort key of a listing for an order
+     */
+    private static Comparable<?> valueOf(Listing<?> listing, Order order) {
+        return switch (order) {
+            case CREATED -> listing.getCreatedTime();
+            case PRICE -> listing.getPrice() != null ? listing.getPrice() : BigDecimal.ZERO;
+            // Listings without an end time sort after every timed one
+            case END_TIME -> listing.getEndTime() > 0 ? listing.getEndTime() : Long.MAX_VALUE;
+            case LEVEL -> listing instanceof PokemonListing pokemon ? pokemon.getLevel() : 0;
+            case PERFECT_IVS -> listing instanceof PokemonListing pokemon ? pokemon.getPerfectIvCount() : 0;
+        };
+    }
+}
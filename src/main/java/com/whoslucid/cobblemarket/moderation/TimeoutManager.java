@@ -125,6 +125,6 @@ public class TimeoutManager {
             } catch (Exception e) {
                 CobbleLib.LOGGER.error("Failed to save timeouts: " + e.getMessage());
             }
-        }, CobbleMarket.EXECUTOR);
+        }, CobbleMarket.IO.ordered("timeouts"));
     }
 }
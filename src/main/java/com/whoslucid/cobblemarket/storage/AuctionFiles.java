@@ -0,0 +1,126 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bid files kept next to an auction's listing file, so a bid does not rewrite the Pokemon payload:
+ * {@code <id>.bids} gets one compact line per bid and {@code <id>.state} holds the current bid, leader and end time.
+ * Both cost the same to write however large the payload or bid history is. They are folded back into
+ * {@code <id>.json} (and deleted) whenever the full listing is written again.
+ */
+public class AuctionFiles {
+
+    private static final String BIDS_SUFFIX = ".bids";
+    private static final String STATE_SUFFIX = ".state";
+
+    /**
+     * A bid (null if none was placed) and the auction state right after it, serialized on the calling thread
+     */
+    public record Update(UUID auctionId, String bidLine, String state) {
+    }
+
+    /**
+     * Capture a bid that was just placed (call while the auction cannot change)
+     */
+    public static Update capture(Listing<?> listing, Bid bid) {
+        AuctionState auction = listing.getAuction();
+        JsonObject state = new JsonObject();
+        state.addProperty("currentBid", auction.getCurrentBid());
+        state.addProperty("price", listing.getPrice());
+        state.addProperty("maxBid", auction.getMaxBid());
+        state.addProperty("endTime", listing.getEndTime());
+        if (auction.getHighestBidderUuid() != null) {
+            state.addProperty("highestBidderUuid", auction.getHighestBidderUuid().toString());
+            state.addProperty("highestBidderName", auction.getHighestBidderName());
+        }
+        return new Update(listing.getId(), bid != null ? ListingCodec.compact().toJson(bid) : null,
+                ListingCodec.compact().toJson(state));
+    }
+
+    /**
+     * Append the bid, if any, and replace the state file
+     */
+    public static void write(File dir, Update update) throws IOException {
+        if (update.bidLine() != null) {
+            StorageFiles.appendLines(file(dir, update.auctionId(), BIDS_SUFFIX), List.of(update.bidLine()));
+        }
+        StorageFiles.writeAtomic(file(dir, update.auctionId(), STATE_SUFFIX), update.state());
+    }
+
+    /**
+     * Apply the bid files of an auction loaded from its listing file
+     */
+    public static void apply(File dir, Listing<?> listing) {
+        AuctionState auction = listing.getAuction();
+        File bids = file(dir, listing.getId(), BIDS_SUFFIX);
+        if (bids.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(bids))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        Bid bid = ListingCodec.compact().fromJson(line, Bid.class);
+                        // Bids already folded into the listing file may still be in the log
+                        auction.restoreBid(bid);
+                    } catch (Exception e) {
+                        // A torn last line after a crash is expected
+                        CobbleLib.LOGGER.warn("Skipping unreadable bid of auction " + listing.getId() + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                CobbleLib.LOGGER.error("Failed to read bids of auction " + listing.getId() + ": " + e.getMessage());
+            }
+        }
+
+        File state = file(dir, listing.getId(), STATE_SUFFIX);
+        if (state.exists()) {
+            try (FileReader reader = new FileReader(state)) {
+                JsonObject object = JsonParser.parseReader(reader).getAsJsonObject();
+                auction.setCurrentBid(object.get("currentBid").getAsBigDecimal());
+                listing.setPrice(object.get("price").getAsBigDecimal());
+                auction.setMaxBid(object.get("maxBid").getAsBigDecimal());
+                listing.setEndTime(object.get("endTime").getAsLong());
+                if (object.has("highestBidderUuid")) {
+                    auction.setHighestBidderUuid(UUID.fromString(object.get("highestBidderUuid").getAsString()));
+                    auction.setHighestBidderName(object.get("highestBidderName").getAsString());
+                }
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to read state of auction " + listing.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete the bid files of an auction (after its full listing file was written or deleted)
+     */
+    public static void delete(File dir, UUID auctionId) {
+        file(dir, auctionId, BIDS_SUFFIX).delete();
+        file(dir, auctionId, STATE_SUFFIX).delete();
+    }
+
+    /**
+     * Move the bid files of an auction into quarantine along with its listing file
+     */
+    public static void quarantine(File dir, UUID auctionId) {
+        for (String suffix : List.of(BIDS_SUFFIX, STATE_SUFFIX)) {
+            File file = file(dir, auctionId, suffix);
+            if (file.exists()) Quarantine.move(file);
+        }
+    }
+
+    private static File file(File dir, UUID auctionId, String suffix) {
+        return new File(dir, auctionId.toString() + suffix);
+    }
+}
@@ -0,0 +1,38 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblemarket.history.PlayerHistory;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence backend for player transaction history. Transactions are only ever appended;
+ * there is no cap on how many are kept per player.
+ */
+public interface HistoryStore {
+
+    /**
+     * Load a player's most recent transactions (never null)
+     */
+    default PlayerHistory load(UUID playerUuid) {
+        PlayerHistory history = new PlayerHistory(playerUuid);
+        history.setTransactions(loadPage(playerUuid, 0, PlayerHistory.RECENT_TRANSACTIONS));
+        return history;
+    }
+
+    /**
+     * Persist a transaction that was just made
+     */
+    void append(UUID playerUuid, TransactionRecord record);
+
+    /**
+     * Load a page of a player's transactions, newest first
+     */
+    List<TransactionRecord> loadPage(UUID playerUuid, int offset, int limit);
+
+    /**
+     * Get the number of stored transactions for a player
+     */
+    int count(UUID playerUuid);
+}
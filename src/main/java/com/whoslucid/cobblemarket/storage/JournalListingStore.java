@@ -0,0 +1,125 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Listing store backed by the append-only {@link ListingJournal}.
+ * Expired listings are kept in memory here because the journal snapshot has to contain them.
+ */
+public class JournalListingStore implements ListingStore {
+
+    private final ListingJournal journal;
+    private final Supplier<Collection<Listing<?>>> activeListings;
+    private final Map<UUID, Map<UUID, Listing<?>>> expiredBySeller = new HashMap<>();
+
+    public JournalListingStore(Supplier<Collection<Listing<?>>> activeListings) {
+        this.activeListings = activeListings;
+        this.journal = new ListingJournal(Utils.getAbsolutePath(CobbleMarket.PATH_JOURNAL),
+                ListingCodec::toJsonTree, ListingCodec::parse, this::journalState);
+    }
+
+    @Override
+    public synchronized int load(Consumer<Listing<?>> active) {
+        expiredBySeller.clear();
+
+        if (!journal.exists()) {
+            // First start in journal mode: migrate the per-listing files into a snapshot
+            JsonListingStore files = new JsonListingStore();
+            List<Listing<?>> migrated = new ArrayList<>();
+            files.load(migrated::add);
+            files.forEachExpired((sellerUuid, listing) -> putExpired(listing));
+            migrated.forEach(active);
+
+            journal.compact();
+            CobbleLib.LOGGER.info("Migrated " + migrated.size() + " active listings to the listing journal");
+            return 0;
+        }
+
+        ListingJournal.Replay replay = journal.replay();
+        replay.active().forEach(active);
+        replay.expired().forEach(this::putExpired);
+
+        // Fold the replayed records into a fresh snapshot so the next start is fast
+        if (replay.records() > 0) {
+            journal.compact();
+        }
+        CobbleLib.LOGGER.info("Replayed " + replay.records() + " listing journal records");
+        return 0;
+    }
+
+    @Override
+    public synchronized List<Listing<?>> loadExpired(UUID sellerUuid) {
+        Map<UUID, Listing<?>> expired = expiredBySeller.get(sellerUuid);
+        return expired != null ? new ArrayList<>(expired.values()) : new ArrayList<>();
+    }
+
+    @Override
+    public synchronized void saveListing(Listing<?> listing) {
+        journal.appendCreate(listing);
+    }
+
+    @Override
+    public synchronized void saveBid(Listing<?> listing, Bid bid) {
+        journal.appendBid(listing, bid);
+    }
+
+    @Override
+    public synchronized void removeListing(Listing<?> listing) {
+        journal.appendRemove(listing.getId());
+    }
+
+    @Override
+    public synchronized void expireListing(Listing<?> listing) {
+        putExpired(listing);
+        journal.appendExpire(listing);
+    }
+
+    @Override
+    public synchronized void relistListing(Listing<?> listing) {
+        removeExpired(listing.getSellerUuid(), listing.getId());
+        journal.appendRelist(listing);
+    }
+
+    @Override
+    public synchronized void reclaimListing(UUID sellerUuid, UUID listingId) {
+        removeExpired(sellerUuid, listingId);
+        journal.appendReclaim(sellerUuid, listingId);
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<Listing<?>> active) {
+        journal.compact();
+        journal.close();
+    }
+
+    private void putExpired(Listing<?> listing) {
+        expiredBySeller.computeIfAbsent(listing.getSellerUuid(), k -> new LinkedHashMap<>())
+                .put(listing.getId(), listing);
+    }
+
+    private void removeExpired(UUID sellerUuid, UUID listingId) {
+        Map<UUID, Listing<?>> expired = expiredBySeller.get(sellerUuid);
+        if (expired == null) return;
+        expired.remove(listingId);
+        if (expired.isEmpty()) expiredBySeller.remove(sellerUuid);
+    }
+
+    /**
+     * Current market state for journal compaction
+     */
+    private synchronized ListingJournal.State journalState() {
+        List<Listing<?>> expired = new ArrayList<>();
+        for (Map<UUID, Listing<?>> playerExpired : expiredBySeller.values()) {
+            expired.addAll(playerExpired.values());
+        }
+        return new ListingJournal.State(new ArrayList<>(activeListings.get()), expired);
+    }
+}
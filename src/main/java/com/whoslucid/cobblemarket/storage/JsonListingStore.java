@@ -0,0 +1,224 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.File;
+import java.io.FileReader;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * One pretty-printed JSON file per listing:
+ * {@code listings/<id>.json} for active listings and {@code expired/<seller>/<id>.json} for expired ones.
+ * Bids on active auctions go to small {@link AuctionFiles} next to the listing file instead of rewriting it.
+ */
+public class JsonListingStore implements ListingStore {
+
+    @Override
+    public int load(Consumer<Listing<?>> active) {
+        File listingsDir = Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS);
+        if (!listingsDir.exists() || !listingsDir.isDirectory()) return 0;
+
+        File[] files = listingsDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) return 0;
+
+        // Read and parse the files in parallel; payloads are only decoded later by the validation pass
+        AtomicInteger quarantined = new AtomicInteger();
+        List<Listing<?>> listings = CobbleMarket.WORKERS.submit(() -> Arrays.stream(files)
+                .parallel()
+                .map(file -> {
+                    Listing<?> listing = loadListingFromFile(file);
+                    if (listing == null || !listing.isWellFormed()) {
+                        Quarantine.move(file);
+                        quarantineBids(listingsDir, file);
+                        quarantined.incrementAndGet();
+                        return null;
+                    }
+                    if (listing.isAuction()) {
+                        AuctionFiles.apply(listingsDir, listing);
+                    }
+                    return listing;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())).join();
+
+        listings.forEach(active);
+        return quarantined.get();
+    }
+
+    @Override
+    public List<Listing<?>> loadExpired(UUID sellerUuid) {
+        List<Listing<?>> listings = new ArrayList<>();
+        File playerDir = new File(Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED), sellerUuid.toString());
+        File[] files = playerDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) return listings;
+
+        for (File file : files) {
+            Listing<?> listing = loadListingFromFile(file);
+            if (listing != null) {
+                listings.add(listing);
+            }
+        }
+        return listings;
+    }
+
+    /**
+     * Visit every expired listing of every player (used for migrations)
+     */
+    public void forEachExpired(BiConsumer<UUID, Listing<?>> consumer) {
+        File expiredDir = Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED);
+        File[] playerDirs = expiredDir.listFiles(File::isDirectory);
+        if (playerDirs == null) return;
+
+        for (File playerDir : playerDirs) {
+            UUID playerUuid;
+            try {
+                playerUuid = UUID.fromString(playerDir.getName());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (Listing<?> listing : loadExpired(playerUuid)) {
+                consumer.accept(playerUuid, listing);
+            }
+        }
+    }
+
+    @Override
+    public void saveListing(Listing<?> listing) {
+        writeAsync(Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS), listing, "listing");
+    }
+
+    @Override
+    public void saveBid(Listing<?> listing, Bid bid) {
+        AuctionFiles.Update update = AuctionFiles.capture(listing, bid);
+        CompletableFuture.runAsync(() -> {
+            try {
+                AuctionFiles.write(Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS), update);
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to save bid on listing: " + listing.getId() + " - " + e.getMessage());
+            }
+        }, CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    @Override
+    public void removeListing(Listing<?> listing) {
+        deleteListingFile(listing.getId());
+    }
+
+    @Override
+    public void expireListing(Listing<?> listing) {
+        deleteListingFile(listing.getId());
+        writeAsync(expiredDir(listing.getSellerUuid()), listing, "expired listing");
+    }
+
+    @Override
+    public void relistListing(Listing<?> listing) {
+        deleteExpiredListingFile(listing.getSellerUuid(), listing.getId());
+        saveListing(listing);
+    }
+
+    @Override
+    public void reclaimListing(UUID sellerUuid, UUID listingId) {
+        deleteExpiredListingFile(sellerUuid, listingId);
+    }
+
+    @Override
+    public void quarantine(Listing<?> listing) {
+        CompletableFuture.runAsync(() -> {
+            File file = new File(Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS),
+                    listing.getId().toString() + ".json");
+            if (file.exists()) {
+                Quarantine.move(file);
+            } else {
+                Quarantine.write(listing);
+            }
+            AuctionFiles.quarantine(file.getParentFile(), listing.getId());
+        }, CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    /**
+     * Quarantine the bid files of an unreadable listing file, if it is named after a listing ID
+     */
+    private void quarantineBids(File dir, File file) {
+        String name = file.getName();
+        try {
+            AuctionFiles.quarantine(dir, UUID.fromString(name.substring(0, name.length() - ".json".length())));
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Listing<?>> active) {
+        for (Listing<?> listing : active) {
+            saveListing(listing);
+        }
+    }
+
+    // ==================== File I/O ====================
+
+    private File expiredDir(UUID sellerUuid) {
+        return new File(Utils.getAbsolutePath(CobbleMarket.PATH_EXPIRED), sellerUuid.toString());
+    }
+
+    /**
+     * Write a listing to {@code <dir>/<id>.json}. The listing is serialized on the calling thread,
+     * which holds its reservation or the listing manager lock, so later bids cannot change it mid-write.
+     * The file is replaced atomically before the bid files it now covers are deleted.
+     */
+    private void writeAsync(File dir, Listing<?> listing, String label) {
+        String json = ListingCodec.files().toJson(listing);
+        CompletableFuture.runAsync(() -> {
+            try {
+                StorageFiles.writeAtomic(new File(dir, listing.getId().toString() + ".json"), json);
+                // The listing file now holds every bid
+                if (listing.isAuction()) {
+                    AuctionFiles.delete(Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS), listing.getId());
+                }
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to save " + label + ": " + listing.getId() + " - " + e.getMessage());
+            }
+        }, CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    /**
+     * Delete a listing file and its bid files
+     */
+    private void deleteListingFile(UUID listingId) {
+        CompletableFuture.runAsync(() -> {
+            File dir = Utils.getAbsolutePath(CobbleMarket.PATH_LISTINGS);
+            File file = new File(dir, listingId.toString() + ".json");
+            if (file.exists()) file.delete();
+            AuctionFiles.delete(dir, listingId);
+        }, CobbleMarket.IO.ordered(listingId));
+    }
+
+    /**
+     * Delete an expired listing file
+     */
+    private void deleteExpiredListingFile(UUID playerUuid, UUID listingId) {
+        CompletableFuture.runAsync(() -> {
+            File file = new File(expiredDir(playerUuid), listingId.toString() + ".json");
+            if (file.exists()) file.delete();
+        }, CobbleMarket.IO.ordered(listingId));
+    }
+
+    /**
+     * Load a listing from a file
+     */
+    private Listing<?> loadListingFromFile(File file) {
+        try (FileReader reader = new FileReader(file)) {
+            return ListingCodec.read(reader);
+        } catch (Exception e) {
+            CobbleLib.LOGGER.error("Failed to load listing from: " + file.getName() + " - " + e.getMessage());
+            return null;
+        }
+    }
+}
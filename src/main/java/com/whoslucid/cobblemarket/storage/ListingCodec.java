@@ -0,0 +1,152 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.history.PlayerHistory;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.storage.adapter.AuctionStateAdapter;
+import com.whoslucid.cobblemarket.storage.adapter.BidAdapter;
+import com.whoslucid.cobblemarket.storage.adapter.ListingAdapter;
+import com.whoslucid.cobblemarket.storage.adapter.PlayerHistoryAdapter;
+import com.whoslucid.cobblemarket.storage.adapter.TransactionRecordAdapter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Base64;
+
+/**
+ * Shared Gson configuration and listing (de)serialization used by all storage backends.
+ * Listings, bids and history are (de)serialized by hand-written streaming adapters instead of reflection;
+ * listings carry a leading {@code "type"} field naming their class, see {@link ListingAdapter}.
+ */
+public class ListingCodec {
+
+    // Binary payloads are written as Base64 strings instead of arrays of numbers
+    private static final TypeAdapter<byte[]> BASE64 = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, byte[] value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(Base64.getEncoder().encodeToString(value));
+            }
+        }
+
+        @Override
+        public byte[] read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return Base64.getDecoder().decode(in.nextString());
+        }
+    };
+
+    private static final BidAdapter BIDS = new BidAdapter();
+    private static final AuctionStateAdapter AUCTIONS = new AuctionStateAdapter(BIDS);
+    private static final TransactionRecordAdapter RECORDS = new TransactionRecordAdapter();
+    private static final PlayerHistoryAdapter HISTORIES = new PlayerHistoryAdapter(RECORDS);
+
+    // Listing and its subclasses; the adapter needs the Gson instance for payload trees and currencies
+    private static final TypeAdapterFactory LISTINGS = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!Listing.class.isAssignableFrom(type.getRawType())) return null;
+            return (TypeAdapter<T>) new ListingAdapter(gson, AUCTIONS);
+        }
+    };
+
+    private static final Gson PRETTY = builder()
+            .setPrettyPrinting()
+            .create();
+
+    private static final Gson COMPACT = builder()
+            .create();
+
+    private static GsonBuilder builder() {
+        return new GsonBuilder()
+                .disableHtmlEscaping()
+                .registerTypeAdapter(byte[].class, BASE64)
+                .registerTypeAdapter(Bid.class, BIDS)
+                .registerTypeAdapter(AuctionState.class, AUCTIONS)
+                .registerTypeAdapter(TransactionRecord.class, RECORDS)
+                .registerTypeAdapter(PlayerHistory.class, HISTORIES)
+                .registerTypeAdapterFactory(LISTINGS);
+    }
+
+    /**
+     * Gson for human-readable files
+     */
+    public static Gson pretty() {
+        return PRETTY;
+    }
+
+    /**
+     * Gson for journals and database columns
+     */
+    public static Gson compact() {
+        return COMPACT;
+    }
+
+    /**
+     * Gson for listing and history files: pretty-printed unless {@code storage.compactFiles} is set
+     */
+    public static Gson files() {
+        return CobbleMarket.config.getStorage().isCompactFiles() ? COMPACT : PRETTY;
+    }
+
+    /**
+     * Serialize a listing to a JSON tree
+     */
+    public static JsonElement toJsonTree(Listing<?> listing) {
+        return COMPACT.toJsonTree(listing);
+    }
+
+    /**
+     * Deserialize a listing from a JSON tree
+     */
+    public static Listing<?> parse(JsonElement json) {
+        if (json == null || !json.isJsonObject()) return null;
+        return COMPACT.fromJson(json, Listing.class);
+    }
+
+    /**
+     * Deserialize a listing straight from a reader
+     */
+    public static Listing<?> read(Reader reader) {
+        return COMPACT.fromJson(reader, Listing.class);
+    }
+
+    /**
+     * Deserialize a listing from a JSON string
+     */
+    public static Listing<?> read(String json) {
+        return COMPACT.fromJson(json, Listing.class);
+    }
+
+    /**
+     * Get the type discriminator of a listing
+     */
+    public static String type(Listing<?> listing) {
+        return ListingAdapter.typeOf(listing);
+    }
+
+    /**
+     * Get the stored kind of a listing (POKEMON, ITEM or AUCTION)
+     */
+    public static String kind(Listing<?> listing) {
+        return listing.isAuction() ? "AUCTION" : type(listing);
+    }
+}
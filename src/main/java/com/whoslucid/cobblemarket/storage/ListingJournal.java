@@ -0,0 +1,410 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Append-only write-ahead journal for listing mutations.
+ * <p>
+ * Every mutation is appended as a single compact JSON line to the current segment
+ * ({@code segment-000001.log}, ...). Segments roll over once they reach the configured size.
+ * Periodically the full market state is written to {@code snapshot.json} and all segments
+ * covered by it are deleted. On load the snapshot is read and the remaining segments are replayed.
+ * <p>
+ * Replay is idempotent (records set state rather than apply deltas), so a record that is both
+ * contained in a snapshot and present in a later segment is harmless.
+ */
+public class ListingJournal {
+
+    public enum Op {
+        CREATE,     // New listing, carries the full listing
+        BID,        // Auction bid, carries the bid (if one was placed) and the resulting auction state
+        EXPIRE,     // Active listing moved to the seller's expired listings
+        RELIST,     // Expired listing moved back to active with new times
+        RECLAIM,    // Expired listing returned to the seller
+        REMOVE      // Active listing sold, cancelled or removed
+    }
+
+    private static final String SNAPSHOT_FILE = "snapshot.json";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * References to the market state at the moment a compaction is requested
+     */
+    public record State(Collection<Listing<?>> active, Collection<Listing<?>> expired) {}
+
+    /**
+     * Market state rebuilt from the snapshot and the journal segments
+     */
+    public record Replay(List<Listing<?>> active, List<Listing<?>> expired, int records) {}
+
+    private final File dir;
+    private final Gson gson;
+    private final Function<Listing<?>, JsonElement> serializer;
+    private final Function<JsonElement, Listing<?>> parser;
+    private final Supplier<State> stateSupplier;
+
+    private int currentSegment = 1;
+    private long currentSegmentBytes = 0;
+    private int recordsSinceSnapshot = 0;
+    private BufferedWriter writer;
+
+    public ListingJournal(File dir, Function<Listing<?>, JsonElement> serializer,
+                          Function<JsonElement, Listing<?>> parser, Supplier<State> stateSupplier) {
+        this.dir = dir;
+        this.serializer = serializer;
+        this.parser = parser;
+        this.stateSupplier = stateSupplier;
+        this.gson = ListingCodec.compact();
+    }
+
+    // ==================== Records ====================
+
+    public void appendCreate(Listing<?> listing) {
+        JsonObject record = record(Op.CREATE);
+        record.add("listing", serializer.apply(listing));
+        append(record);
+    }
+
+    public void appendBid(Listing<?> listing, Bid bid) {
+        AuctionState auction = listing.getAuction();
+        JsonObject record = record(Op.BID);
+        record.addProperty("id", listing.getId().toString());
+        if (bid != null) {
+            record.add("bid", gson.toJsonTree(bid));
+        }
+        record.addProperty("currentBid", auction.getCurrentBid());
+        record.addProperty("price", listing.getPrice());
+        record.addProperty("endTime", listing.getEndTime());
+        record.addProperty("maxBid", auction.getMaxBid());
+        if (auction.getHighestBidderUuid() != null) {
+            record.addProperty("highestBidderUuid", auction.getHighestBidderUuid().toString());
+            record.addProperty("highestBidderName", auction.getHighestBidderName());
+        }
+        append(record);
+    }
+
+    public void appendExpire(Listing<?> listing) {
+        JsonObject record = record(Op.EXPIRE);
+        record.addProperty("id", listing.getId().toString());
+        append(record);
+    }
+
+    public void appendRelist(Listing<?> listing) {
+        JsonObject record = record(Op.RELIST);
+        record.addProperty("id", listing.getId().toString());
+        record.addProperty("seller", listing.getSellerUuid().toString());
+        record.addProperty("createdTime", listing.getCreatedTime());
+        record.addProperty("endTime", listing.getEndTime());
+        append(record);
+    }
+
+    public void appendReclaim(UUID sellerUuid, UUID listingId) {
+        JsonObject record = record(Op.RECLAIM);
+        record.addProperty("id", listingId.toString());
+        record.addProperty("seller", sellerUuid.toString());
+        append(record);
+    }
+
+    public void appendRemove(UUID listingId) {
+        JsonObject record = record(Op.REMOVE);
+        record.addProperty("id", listingId.toString());
+        append(record);
+    }
+
+    private JsonObject record(Op op) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", op.name());
+        return record;
+    }
+
+    /**
+     * Queue a record for appending. Callers must hold the listing manager lock so that
+     * the order of records matches the order of the in-memory mutations.
+     */
+    private synchronized void append(JsonObject record) {
+        String line = gson.toJson(record);
+        CompletableFuture.runAsync(() -> write(line), CobbleMarket.IO.ordered(this));
+
+        if (++recordsSinceSnapshot >= CobbleMarket.config.getStorage().getJournalCompactAfterRecords()) {
+            compact();
+        }
+    }
+
+    // ==================== Writing ====================
+
+    /**
+     * Write one line to the current segment, rolling over when it gets too large
+     */
+    private void write(String line) {
+        try {
+            if (writer == null) {
+                openSegment();
+            }
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+            currentSegmentBytes += line.length() + 1;
+
+            if (currentSegmentBytes >= CobbleMarket.config.getStorage().getJournalSegmentMaxBytes()) {
+                closeWriter();
+                currentSegment++;
+                openSegment();
+            }
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to append to listing journal: " + e.getMessage());
+        }
+    }
+
+    private void openSegment() throws IOException {
+        if (!dir.exists()) dir.mkdirs();
+        File file = segmentFile(currentSegment);
+        StorageFiles.endTornLine(file);
+        writer = new BufferedWriter(new FileWriter(file, true));
+        currentSegmentBytes = file.length();
+    }
+
+    private void closeWriter() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to close listing journal segment: " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    /**
+     * Write a snapshot of the current market and drop all segments it covers.
+     * The state is captured now; serialization and file work happen on the executor.
+     * Auctions are serialized from a copy of their bidding state, and bids resolved after the capture
+     * land in the segments after the snapshot, so replay brings them up to date.
+     */
+    public synchronized void compact() {
+        State state = stateSupplier.get();
+        List<Listing<?>> active = new ArrayList<>(state.active());
+        List<Listing<?>> expired = new ArrayList<>(state.expired());
+        recordsSinceSnapshot = 0;
+
+        CompletableFuture.runAsync(() -> writeSnapshot(active, expired), CobbleMarket.IO.ordered(this));
+    }
+
+    private void writeSnapshot(List<Listing<?>> active, List<Listing<?>> expired) {
+        try {
+            if (!dir.exists()) dir.mkdirs();
+
+            // Everything queued so far went to segments up to the current one
+            closeWriter();
+            int nextSegment = currentSegment + 1;
+
+            JsonObject snapshot = new JsonObject();
+            snapshot.addProperty("segment", nextSegment);
+            JsonArray activeArray = new JsonArray();
+            for (Listing<?> listing : active) {
+                activeArray.add(serializer.apply(listing));
+            }
+            JsonArray expiredArray = new JsonArray();
+            for (Listing<?> listing : expired) {
+                expiredArray.add(serializer.apply(listing));
+            }
+            snapshot.add("active", activeArray);
+            snapshot.add("expired", expiredArray);
+
+            File temp = new File(dir, SNAPSHOT_FILE + ".tmp");
+            try (FileWriter fileWriter = new FileWriter(temp)) {
+                gson.toJson(snapshot, fileWriter);
+            }
+            Files.move(temp.toPath(), new File(dir, SNAPSHOT_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            currentSegment = nextSegment;
+            deleteSegmentsBefore(nextSegment);
+
+            if (CobbleMarket.config.isDebug()) {
+                CobbleLib.LOGGER.info("Compacted listing journal: " + active.size() + " active, "
+                        + expired.size() + " expired");
+            }
+        } catch (Exception e) {
+            CobbleLib.LOGGER.error("Failed to write listing journal snapshot: " + e.getMessage());
+        }
+    }
+
+    private void deleteSegmentsBefore(int segment) {
+        for (int index : listSegments()) {
+            if (index < segment) {
+                segmentFile(index).delete();
+            }
+        }
+    }
+
+    /**
+     * Close the current segment (queued after any pending writes)
+     */
+    public void close() {
+        CompletableFuture.runAsync(this::closeWriter, CobbleMarket.IO.ordered(this));
+    }
+
+    // ==================== Replay ====================
+
+    /**
+     * Check whether the journal holds any data yet
+     */
+    public boolean exists() {
+        return new File(dir, SNAPSHOT_FILE).exists() || !listSegments().isEmpty();
+    }
+
+    /**
+     * Rebuild the market state from the snapshot and the journal segments.
+     * Must be called before any record is appended.
+     */
+    public synchronized Replay replay() {
+        Map<UUID, Listing<?>> active = new LinkedHashMap<>();
+        Map<UUID, Listing<?>> expired = new LinkedHashMap<>();
+        int firstSegment = 1;
+        int records = 0;
+
+        File snapshotFile = new File(dir, SNAPSHOT_FILE);
+        if (snapshotFile.exists()) {
+            try (FileReader reader = new FileReader(snapshotFile)) {
+                JsonObject snapshot = JsonParser.parseReader(reader).getAsJsonObject();
+                firstSegment = snapshot.get("segment").getAsInt();
+                for (JsonElement element : snapshot.getAsJsonArray("active")) {
+                    Listing<?> listing = parser.apply(element);
+                    if (listing != null) active.put(listing.getId(), listing);
+                }
+                for (JsonElement element : snapshot.getAsJsonArray("expired")) {
+                    Listing<?> listing = parser.apply(element);
+                    if (listing != null) expired.put(listing.getId(), listing);
+                }
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to read listing journal snapshot: " + e.getMessage());
+            }
+        }
+
+        int lastSegment = firstSegment;
+        for (int index : listSegments()) {
+            if (index < firstSegment) continue;
+            lastSegment = Math.max(lastSegment, index);
+
+            try (BufferedReader reader = new BufferedReader(new FileReader(segmentFile(index)))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        apply(JsonParser.parseString(line).getAsJsonObject(), active, expired);
+                        records++;
+                    } catch (Exception e) {
+                        // A torn last line after a crash is expected, anything else is worth logging
+                        CobbleLib.LOGGER.warn("Skipping unreadable listing journal record in "
+                                + segmentFile(index).getName() + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                CobbleLib.LOGGER.error("Failed to read listing journal segment " + index + ": " + e.getMessage());
+            }
+        }
+
+        // Continue writing after the newest segment
+        currentSegment = lastSegment;
+        recordsSinceSnapshot = records;
+
+        return new Replay(new ArrayList<>(active.values()), new ArrayList<>(expired.values()), records);
+    }
+
+    private void apply(JsonObject record, Map<UUID, Listing<?>> active, Map<UUID, Listing<?>> expired) {
+        Op op = Op.valueOf(record.get("op").getAsString());
+        switch (op) {
+            case CREATE -> {
+                Listing<?> listing = parser.apply(record.get("listing"));
+                if (listing != null) {
+                    expired.remove(listing.getId());
+                    active.put(listing.getId(), listing);
+                }
+            }
+            case BID -> {
+                UUID id = UUID.fromString(record.get("id").getAsString());
+                Listing<?> listing = active.get(id);
+                if (listing == null || !listing.isAuction()) return;
+
+                AuctionState auction = listing.getAuction();
+
+                // A raised maximum changes the state without placing a bid
+                if (record.has("bid")) {
+                    auction.restoreBid(gson.fromJson(record.get("bid"), Bid.class));
+                }
+                auction.setCurrentBid(record.get("currentBid").getAsBigDecimal());
+                listing.setPrice(record.get("price").getAsBigDecimal());
+                listing.setEndTime(record.get("endTime").getAsLong());
+                if (record.has("maxBid")) {
+                    auction.setMaxBid(record.get("maxBid").getAsBigDecimal());
+                }
+                if (record.has("highestBidderUuid")) {
+                    auction.setHighestBidderUuid(UUID.fromString(record.get("highestBidderUuid").getAsString()));
+                    auction.setHighestBidderName(record.get("highestBidderName").getAsString());
+                }
+            }
+            case EXPIRE -> {
+                UUID id = UUID.fromString(record.get("id").getAsString());
+                Listing<?> listing = active.remove(id);
+                if (listing != null) expired.put(id, listing);
+            }
+            case RELIST -> {
+                UUID id = UUID.fromString(record.get("id").getAsString());
+                Listing<?> listing = expired.remove(id);
+                if (listing == null) listing = active.get(id);
+                if (listing == null) return;
+
+                listing.setCreatedTime(record.get("createdTime").getAsLong());
+                listing.setEndTime(record.get("endTime").getAsLong());
+                active.put(id, listing);
+            }
+            case RECLAIM -> expired.remove(UUID.fromString(record.get("id").getAsString()));
+            case REMOVE -> active.remove(UUID.fromString(record.get("id").getAsString()));
+        }
+    }
+
+    // ==================== Segments ====================
+
+    private File segmentFile(int index) {
+        return new File(dir, String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private List<Integer> listSegments() {
+        List<Integer> segments = new ArrayList<>();
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) return segments;
+
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                segments.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,77 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Persistence backend for active and expired listings.
+ * Mutating calls are made while the listing manager lock is held, in the same order as the
+ * in-memory mutations; implementations may perform the actual I/O asynchronously.
+ */
+public interface ListingStore {
+
+    /**
+     * Load all active listings without decoding their payloads
+     *
+     * @return the number of stored records that could not be read and were quarantined
+     */
+    int load(Consumer<Listing<?>> active);
+
+    /**
+     * Load a single player's expired listings
+     */
+    List<Listing<?>> loadExpired(UUID sellerUuid);
+
+    /**
+     * Persist a new or updated active listing
+     */
+    void saveListing(Listing<?> listing);
+
+    /**
+     * Persist a bid that was just placed on an auction, or with a null bid only the auction state
+     * a resolution changed without recording a bid (the leader raising their maximum)
+     */
+    default void saveBid(Listing<?> listing, Bid bid) {
+        saveListing(listing);
+    }
+
+    /**
+     * Delete an active listing (sold, cancelled or removed)
+     */
+    void removeListing(Listing<?> listing);
+
+    /**
+     * Move an active listing to its seller's expired listings
+     */
+    void expireListing(Listing<?> listing);
+
+    /**
+     * Move an expired listing back to active with its new times
+     */
+    void relistListing(Listing<?> listing);
+
+    /**
+     * Delete an expired listing that was returned to its seller
+     */
+    void reclaimListing(UUID sellerUuid, UUID listingId);
+
+    /**
+     * Take an active listing that failed validation out of the market, keeping a copy for inspection
+     */
+    default void quarantine(Listing<?> listing) {
+        CompletableFuture.runAsync(() -> Quarantine.write(listing), CobbleMarket.IO.ordered(listing.getId()));
+        removeListing(listing);
+    }
+
+    /**
+     * Flush everything on shutdown
+     */
+    void saveAll(Collection<Listing<?>> active);
+}
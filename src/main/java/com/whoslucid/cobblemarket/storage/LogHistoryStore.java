@@ -0,0 +1,235 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.history.PlayerHistory;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * One append-only log per player: {@code history/<uuid>.log}, one compact JSON transaction per line, oldest first.
+ * A transaction costs one appended line however long the history is, and pages are read backwards
+ * from the end of the file, so a recent page never reads the rest of the player's history.
+ * <p>
+ * Every file operation runs on the player's IO lane, so reads see the transactions appended before them.
+ * Histories in the old {@code history/<uuid>.json} format are moved into the log the first time they are read.
+ */
+public class LogHistoryStore implements HistoryStore {
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String LEGACY_SUFFIX = ".json";
+    private static final int CHUNK_BYTES = 8192;
+
+    @Override
+    public void append(UUID playerUuid, TransactionRecord record) {
+        String line = ListingCodec.compact().toJson(record);
+        CompletableFuture.runAsync(() -> {
+            try {
+                migrateLegacy(playerUuid);
+                StorageFiles.appendLines(log(playerUuid), List.of(line));
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to save history for: " + playerUuid + " - " + e.getMessage());
+            }
+        }, CobbleMarket.IO.ordered(playerUuid));
+    }
+
+    @Override
+    public List<TransactionRecord> loadPage(UUID playerUuid, int offset, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                migrateLegacy(playerUuid);
+                List<TransactionRecord> records = new ArrayList<>();
+                for (String line : readNewest(log(playerUuid), Math.max(offset, 0), limit)) {
+                    TransactionRecord record = parse(playerUuid, line);
+                    if (record != null) records.add(record);
+                }
+                return records;
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to load history for: " + playerUuid + " - " + e.getMessage());
+                return Collections.<TransactionRecord>emptyList();
+            }
+        }, CobbleMarket.IO.ordered(playerUuid)).join();
+    }
+
+    @Override
+    public int count(UUID playerUuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                migrateLegacy(playerUuid);
+                return countLines(log(playerUuid));
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Failed to count history for: " + playerUuid + " - " + e.getMessage());
+                return 0;
+            }
+        }, CobbleMarket.IO.ordered(playerUuid)).join();
+    }
+
+    /**
+     * Visit every stored player's full history, newest first (used for migrations)
+     */
+    public void forEach(BiConsumer<UUID, List<TransactionRecord>> consumer) {
+        File dir = Utils.getAbsolutePath(CobbleMarket.PATH_HISTORY);
+        File[] files = dir.listFiles((d, name) -> name.endsWith(LOG_SUFFIX) || name.endsWith(LEGACY_SUFFIX));
+        if (files == null) return;
+
+        for (UUID playerUuid : Arrays.stream(files).map(LogHistoryStore::playerOf).distinct().toList()) {
+            if (playerUuid != null) {
+                consumer.accept(playerUuid, loadPage(playerUuid, 0, Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    // ==================== Files ====================
+
+    private static File log(UUID playerUuid) {
+        return new File(Utils.getAbsolutePath(CobbleMarket.PATH_HISTORY), playerUuid.toString() + LOG_SUFFIX);
+    }
+
+    private static UUID playerOf(File file) {
+        String name = file.getName();
+        try {
+            return UUID.fromString(name.substring(0, name.lastIndexOf('.')));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static TransactionRecord parse(UUID playerUuid, String line) {
+        try {
+            return ListingCodec.compact().fromJson(line, TransactionRecord.class);
+        } catch (Exception e) {
+            // A line torn by a crash mid-append is expected
+            CobbleLib.LOGGER.warn("Skipping unreadable history record of " + playerUuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read complete lines from the end of a file, newest first, stopping once the page is full
+     */
+    private static List<String> readNewest(File file, int skip, int limit) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (limit <= 0 || !file.exists()) return lines;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long position = raf.length();
+            // Start of the line read so far that began before the current chunk
+            byte[] carry = new byte[0];
+            // The bytes after the last newline are either nothing or a line torn by a crash
+            boolean tail = true;
+            int skipped = 0;
+
+            while (lines.size() < limit) {
+                int read = (int) Math.min(CHUNK_BYTES, position);
+                position -= read;
+                byte[] chunk = new byte[read + carry.length];
+                raf.seek(position);
+                raf.readFully(chunk, 0, read);
+                System.arraycopy(carry, 0, chunk, read, carry.length);
+
+                int end = chunk.length;
+                // i == -1 is the start of the chunk, a line boundary only at the start of the file
+                for (int i = chunk.length - 1; i >= -1 && lines.size() < limit; i--) {
+                    if (i >= 0 ? chunk[i] != '\n' : position > 0) continue;
+
+                    if (tail) {
+                        tail = false;
+                    } else if (end > i + 1) {
+                        if (skipped < skip) {
+                            skipped++;
+                        } else {
+                            lines.add(new String(chunk, i + 1, end - i - 1, StandardCharsets.UTF_8));
+                        }
+                    }
+                    end = i;
+                }
+
+                if (position == 0) break;
+                carry = Arrays.copyOfRange(chunk, 0, end);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Count the complete lines of a file without decoding them
+     */
+    private static int countLines(File file) throws IOException {
+        if (!file.exists()) return 0;
+
+        int count = 0;
+        byte[] buffer = new byte[CHUNK_BYTES];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Move a history stored in the old JSON format (newest first) into the log, ahead of anything already logged
+     */
+    private static void migrateLegacy(UUID playerUuid) throws IOException {
+        File legacy = new File(Utils.getAbsolutePath(CobbleMarket.PATH_HISTORY), playerUuid.toString() + LEGACY_SUFFIX);
+        if (!legacy.exists()) return;
+
+        PlayerHistory history;
+        try (FileReader reader = new FileReader(legacy)) {
+            history = ListingCodec.compact().fromJson(reader, PlayerHistory.class);
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (history != null) {
+            List<TransactionRecord> records = history.getTransactions();
+            for (int i = records.size() - 1; i >= 0; i--) {
+                lines.add(ListingCodec.compact().toJson(records.get(i)));
+            }
+        }
+
+        // Rebuild the log in a temporary file so a crash leaves either the old or the new files
+        File log = log(playerUuid);
+        File temp = new File(log.getParentFile(), log.getName() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            if (log.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(log))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) continue;
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        Files.move(temp.toPath(), log.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        legacy.delete();
+        CobbleLib.LOGGER.info("Moved " + lines.size() + " history records of " + playerUuid + " into its log");
+    }
+}
@@ -0,0 +1,47 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps listings that could not be loaded or decoded in {@code quarantine/} so an admin can inspect
+ * or restore them, instead of deleting them or failing the startup.
+ */
+public class Quarantine {
+
+    /**
+     * Move an unreadable file into the quarantine directory
+     */
+    public static void move(File file) {
+        File dir = Utils.getAbsolutePath(CobbleMarket.PATH_QUARANTINE);
+        try {
+            if (!dir.exists()) dir.mkdirs();
+            Files.move(file.toPath(), new File(dir, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to quarantine: " + file.getName() + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write a listing that failed validation to the quarantine directory
+     */
+    public static void write(Listing<?> listing) {
+        File dir = Utils.getAbsolutePath(CobbleMarket.PATH_QUARANTINE);
+        try {
+            if (!dir.exists()) dir.mkdirs();
+            try (FileWriter writer = new FileWriter(new File(dir, listing.getId().toString() + ".json"))) {
+                ListingCodec.pretty().toJson(listing, writer);
+            }
+        } catch (IOException e) {
+            CobbleLib.LOGGER.error("Failed to quarantine listing: " + listing.getId() + " - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded, file-backed H2 database shared by the SQL listing and history stores.
+ * All access goes through this class and is serialized on the single connection.
+ */
+public class SqlDatabase {
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run(Connection connection) throws SQLException;
+    }
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS listings ("
+                    + "id UUID PRIMARY KEY,"
+                    + "state VARCHAR(16) NOT NULL,"
+                    + "seller UUID NOT NULL,"
+                    + "kind VARCHAR(16) NOT NULL,"
+                    + "species VARCHAR(64),"
+                    + "shiny BOOLEAN NOT NULL DEFAULT FALSE,"
+                    + "price DECIMAL(30, 4),"
+                    + "created_time BIGINT NOT NULL,"
+                    + "end_time BIGINT NOT NULL,"
+                    + "data CLOB NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_seller ON listings(seller, state)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_species ON listings(species)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_shiny ON listings(shiny)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_price ON listings(price)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_end_time ON listings(end_time)",
+            "CREATE TABLE IF NOT EXISTS history ("
+                    + "id UUID PRIMARY KEY,"
+                    + "player UUID NOT NULL,"
+                    + "ts BIGINT NOT NULL,"
+                    + "data CLOB NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_history_player ON history(player, ts DESC)",
+            "CREATE TABLE IF NOT EXISTS meta ("
+                    + "name VARCHAR(64) PRIMARY KEY,"
+                    + "val VARCHAR(255) NOT NULL)"
+    };
+
+    private final Connection connection;
+
+    public SqlDatabase(File file) throws SQLException {
+        try {
+            // Bundled via jarJar, so the driver may not be picked up by the service loader
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("H2 driver not found", e);
+        }
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+
+        this.connection = DriverManager.getConnection("jdbc:h2:file:" + file.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+        CobbleLib.LOGGER.info("Opened CobbleMarket database: " + file.getAbsolutePath());
+    }
+
+    /**
+     * Execute an INSERT/UPDATE/DELETE/MERGE statement
+     */
+    public synchronized int update(String sql, Object... params) {
+        try (PreparedStatement statement = prepare(sql, params)) {
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            CobbleLib.LOGGER.error("Database update failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Execute a query and map every row
+     */
+    public synchronized <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) {
+        List<T> results = new ArrayList<>();
+        try (PreparedStatement statement = prepare(sql, params);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                T value = mapper.map(resultSet);
+                if (value != null) results.add(value);
+            }
+        } catch (SQLException e) {
+            CobbleLib.LOGGER.error("Database query failed: " + e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * Run several statements in one transaction
+     */
+    public synchronized void transaction(Work work) {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                work.run(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            CobbleLib.LOGGER.error("Database transaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read a value from the meta table
+     */
+    public String getMeta(String name) {
+        List<String> values = query("SELECT val FROM meta WHERE name = ?", rs -> rs.getString(1), name);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Write a value to the meta table
+     */
+    public void setMeta(String name, String value) {
+        update("MERGE INTO meta (name, val) KEY (name) VALUES (?, ?)", name, value);
+    }
+
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            CobbleLib.LOGGER.error("Failed to close database: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement prepare(String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        bind(statement, params);
+        return statement;
+    }
+
+    /**
+     * Bind positional parameters to a statement
+     */
+    public static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+}
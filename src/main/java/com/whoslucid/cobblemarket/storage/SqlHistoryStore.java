@@ -0,0 +1,66 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * History store backed by the embedded SQL database, one row per transaction indexed by (player, timestamp)
+ */
+public class SqlHistoryStore implements HistoryStore {
+
+    private static final String INSERT = "MERGE INTO history (id, player, ts, data) KEY (id) VALUES (?, ?, ?, ?)";
+
+    private final SqlDatabase database;
+
+    public SqlHistoryStore(SqlDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public void append(UUID playerUuid, TransactionRecord record) {
+        Object[] row = row(playerUuid, record);
+        CompletableFuture.runAsync(() -> database.update(INSERT, row), CobbleMarket.IO.ordered(playerUuid));
+    }
+
+    @Override
+    public List<TransactionRecord> loadPage(UUID playerUuid, int offset, int limit) {
+        // Read on the player's IO lane so transactions appended just before are included
+        return CompletableFuture.supplyAsync(() -> database.query(
+                "SELECT data FROM history WHERE player = ? ORDER BY ts DESC LIMIT ? OFFSET ?",
+                rs -> ListingCodec.compact().fromJson(rs.getString(1), TransactionRecord.class),
+                playerUuid, Math.max(limit, 0), Math.max(offset, 0)), CobbleMarket.IO.ordered(playerUuid)).join();
+    }
+
+    @Override
+    public int count(UUID playerUuid) {
+        List<Integer> counts = database.query("SELECT COUNT(*) FROM history WHERE player = ?",
+                rs -> rs.getInt(1), playerUuid);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    /**
+     * Insert a player's transactions synchronously in one transaction (used by the file migration)
+     */
+    public void insertAll(UUID playerUuid, Collection<TransactionRecord> records) {
+        database.transaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (TransactionRecord record : records) {
+                    SqlDatabase.bind(statement, row(playerUuid, record));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private Object[] row(UUID playerUuid, TransactionRecord record) {
+        UUID id = record.getId() != null ? record.getId() : UUID.randomUUID();
+        return new Object[]{id, playerUuid, record.getTimestamp(), ListingCodec.compact().toJson(record)};
+    }
+}
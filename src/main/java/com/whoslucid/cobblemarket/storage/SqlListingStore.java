@@ -0,0 +1,136 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.Bid;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.PokemonListing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Listing store backed by the embedded SQL database.
+ * Seller, species, shiny, price and end time are stored in indexed columns next to the JSON payload,
+ * so per-player lookups do not need the whole market in memory.
+ */
+public class SqlListingStore implements ListingStore {
+
+    private static final String STATE_ACTIVE = "ACTIVE";
+    private static final String STATE_EXPIRED = "EXPIRED";
+
+    private static final String UPSERT = "MERGE INTO listings "
+            + "(id, state, seller, kind, species, shiny, price, created_time, end_time, data) KEY (id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_BID = "UPDATE listings SET price = ?, end_time = ?, data = ? WHERE id = ?";
+
+    private final SqlDatabase database;
+
+    public SqlListingStore(SqlDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public int load(Consumer<Listing<?>> active) {
+        database.query("SELECT data FROM listings WHERE state = ?",
+                rs -> ListingCodec.read(rs.getString(1)), STATE_ACTIVE)
+                .forEach(active);
+        return 0;
+    }
+
+    @Override
+    public List<Listing<?>> loadExpired(UUID sellerUuid) {
+        return database.query("SELECT data FROM listings WHERE seller = ? AND state = ? ORDER BY end_time",
+                rs -> ListingCodec.read(rs.getString(1)), sellerUuid, STATE_EXPIRED);
+    }
+
+    @Override
+    public void saveListing(Listing<?> listing) {
+        Object[] row = row(listing, STATE_ACTIVE);
+        CompletableFuture.runAsync(() -> database.update(UPSERT, row), CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    @Override
+    public void saveBid(Listing<?> listing, Bid bid) {
+        // A bid only moves the price, end time and payload; the other indexed columns are left alone
+        Object[] values = {listing.getPrice(), listing.getEndTime(), ListingCodec.compact().toJson(listing), listing.getId()};
+        CompletableFuture.runAsync(() -> database.update(UPDATE_BID, values), CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    @Override
+    public void removeListing(Listing<?> listing) {
+        UUID id = listing.getId();
+        CompletableFuture.runAsync(() -> database.update("DELETE FROM listings WHERE id = ?", id),
+                CobbleMarket.IO.ordered(id));
+    }
+
+    @Override
+    public void expireListing(Listing<?> listing) {
+        Object[] row = row(listing, STATE_EXPIRED);
+        CompletableFuture.runAsync(() -> database.update(UPSERT, row), CobbleMarket.IO.ordered(listing.getId()));
+    }
+
+    @Override
+    public void relistListing(Listing<?> listing) {
+        saveListing(listing);
+    }
+
+    @Override
+    public void reclaimListing(UUID sellerUuid, UUID listingId) {
+        CompletableFuture.runAsync(() -> database.update("DELETE FROM listings WHERE id = ?", listingId),
+                CobbleMarket.IO.ordered(listingId));
+    }
+
+    @Override
+    public void saveAll(Collection<Listing<?>> active) {
+        // Every mutation is already written through
+    }
+
+    /**
+     * Insert listings synchronously in one transaction (used by the file migration)
+     */
+    public void insertAll(Collection<Listing<?>> listings, boolean expired) {
+        database.transaction(connection -> insertAll(connection, listings, expired));
+    }
+
+    private void insertAll(Connection connection, Collection<Listing<?>> listings, boolean expired) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+            for (Listing<?> listing : listings) {
+                SqlDatabase.bind(statement, row(listing, expired ? STATE_EXPIRED : STATE_ACTIVE));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Build the column values for a listing. Serialization happens on the calling thread
+     * so the row reflects the listing at the time of the mutation.
+     */
+    private Object[] row(Listing<?> listing, String state) {
+        String species = null;
+        boolean shiny = false;
+        if (listing instanceof PokemonListing pokemonListing) {
+            species = pokemonListing.getSpecies() != null ? pokemonListing.getSpecies().toLowerCase() : null;
+            shiny = pokemonListing.isShiny();
+        }
+
+        return new Object[]{
+                listing.getId(),
+                state,
+                listing.getSellerUuid(),
+                ListingCodec.kind(listing),
+                species,
+                shiny,
+                listing.getPrice(),
+                listing.getCreatedTime(),
+                listing.getEndTime(),
+                ListingCodec.compact().toJson(listing)
+        };
+    }
+}
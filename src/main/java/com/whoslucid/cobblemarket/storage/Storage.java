@@ -0,0 +1,109 @@
+package com.whoslucid.cobblemarket.storage;
+
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.util.Utils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.listing.Listing;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Creates the listing and history stores for the configured storage mode
+ * and runs the one-shot migration from the JSON files into the database.
+ */
+public class Storage {
+
+    private static final String META_FILES_MIGRATED = "files_migrated";
+
+    private static SqlDatabase database;
+
+    /**
+     * Create the listing store for the configured mode
+     */
+    public static ListingStore createListingStore(Supplier<Collection<Listing<?>>> activeListings) {
+        if (CobbleMarket.config.getStorage().isSql()) {
+            SqlDatabase db = database();
+            if (db != null) return new SqlListingStore(db);
+        }
+        if (CobbleMarket.config.getStorage().isJournal()) {
+            return new JournalListingStore(activeListings);
+        }
+        return new JsonListingStore();
+    }
+
+    /**
+     * Create the history store for the configured mode
+     */
+    public static HistoryStore createHistoryStore() {
+        if (CobbleMarket.config.getStorage().isSql()) {
+            SqlDatabase db = database();
+            if (db != null) return new SqlHistoryStore(db);
+        }
+        return new LogHistoryStore();
+    }
+
+    /**
+     * Close the database, if one was opened
+     */
+    public static synchronized void close() {
+        if (database != null) {
+            database.close();
+            database = null;
+        }
+    }
+
+    /**
+     * Open the database on first use; falls back to files (returns null) if it cannot be opened
+     */
+    private static synchronized SqlDatabase database() {
+        if (database != null) return database;
+
+        File file = new File(Utils.getAbsolutePath(CobbleMarket.PATH),
+                CobbleMarket.config.getStorage().getSqlFile());
+        try {
+            database = new SqlDatabase(file);
+        } catch (SQLException e) {
+            CobbleLib.LOGGER.error("Failed to open CobbleMarket database, using JSON files instead - " + e.getMessage());
+            return null;
+        }
+
+        if (database.getMeta(META_FILES_MIGRATED) == null) {
+            migrateFiles(database);
+        }
+        return database;
+    }
+
+    /**
+     * Copy the JSON listing and expired files and the history logs into the database.
+     * The files are left in place so the mode can be switched back.
+     */
+    private static void migrateFiles(SqlDatabase db) {
+        SqlListingStore listings = new SqlListingStore(db);
+        SqlHistoryStore history = new SqlHistoryStore(db);
+        JsonListingStore listingFiles = new JsonListingStore();
+        LogHistoryStore historyFiles = new LogHistoryStore();
+
+        List<Listing<?>> active = new ArrayList<>();
+        listingFiles.load(active::add);
+        listings.insertAll(active, false);
+
+        List<Listing<?>> expired = new ArrayList<>();
+        listingFiles.forEachExpired((sellerUuid, listing) -> expired.add(listing));
+        listings.insertAll(expired, true);
+
+        int[] players = {0};
+        historyFiles.forEach((playerUuid, records) -> {
+            history.insertAll(playerUuid, records);
+            players[0]++;
+        });
+
+        db.setMeta(META_FILES_MIGRATED, String.valueOf(System.currentTimeMillis()));
+        CobbleLib.LOGGER.info("Migrated " + active.size() + " active listings, " + expired.size()
+                + " expired listings and " + players[0] + " player histories to the database");
+    }
+}
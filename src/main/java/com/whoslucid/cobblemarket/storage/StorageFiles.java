@@ -0,0 +1,66 @@
+package com.whoslucid.cobblemarket.storage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Crash-safe file writes shared by the file backends: whole files are replaced atomically,
+ * and line logs are appended so that a line torn by a crash never swallows the next one.
+ */
+public class StorageFiles {
+
+    /**
+     * Replace a file with new content through a temporary file, so a crash leaves either the old or the new file
+     */
+    public static void writeAtomic(File file, String content) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.exists()) dir.mkdirs();
+
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (FileWriter writer = new FileWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Append lines to a log, first ending a line torn by a crash
+     */
+    public static void appendLines(File file, List<String> lines) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.exists()) dir.mkdirs();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long length = raf.length();
+            StringBuilder text = new StringBuilder();
+            if (length > 0) {
+                raf.seek(length - 1);
+                if (raf.read() != '\n') text.append('\n');
+            }
+            for (String line : lines) {
+                text.append(line).append('\n');
+            }
+            raf.seek(length);
+            raf.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * End a last line torn by a crash, so whatever is appended next starts on a line of its own
+     */
+    public static void endTornLine(File file) throws IOException {
+        if (file.length() == 0) return;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            if (raf.read() != '\n') {
+                raf.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.auction.Bid;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.whoslucid.cobblemarket.storage.adapter.JsonFields.*;
+
+public class AuctionStateAdapter extends TypeAdapter<AuctionState> {
+
+    private final BidAdapter bids;
+
+    public AuctionStateAdapter(BidAdapter bids) {
+        this.bids = bids;
+    }
+
+    @Override
+    public void write(JsonWriter out, AuctionState auction) throws IOException {
+        if (auction == null) {
+            out.nullValue();
+            return;
+        }
+        // Bids may be resolved while this runs; write one consistent state
+        auction = auction.copy();
+        out.beginObject();
+        out.name("startingPrice").value(auction.getStartingPrice());
+        out.name("currentBid").value(auction.getCurrentBid());
+        out.name("highestBidderUuid").value(uuid(auction.getHighestBidderUuid()));
+        out.name("highestBidderName").value(auction.getHighestBidderName());
+        out.name("minBidIncrement").value(auction.getMinBidIncrement());
+        out.name("bidHistory");
+        out.beginArray();
+        for (Bid bid : auction.getBidHistory()) {
+            bids.write(out, bid);
+        }
+        out.endArray();
+        out.name("maxBid").value(auction.getMaxBid());
+        out.endObject();
+    }
+
+    @Override
+    public AuctionState read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        AuctionState auction = new AuctionState();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "startingPrice" -> auction.setStartingPrice(nextDecimal(in));
+                case "currentBid" -> auction.setCurrentBid(nextDecimal(in));
+                case "highestBidderUuid" -> auction.setHighestBidderUuid(nextUuid(in));
+                case "highestBidderName" -> auction.setHighestBidderName(nextString(in));
+                case "minBidIncrement" -> auction.setMinBidIncrement(nextDecimal(in));
+                case "bidHistory" -> auction.setBidHistory(readBids(in));
+                case "maxBid" -> auction.setMaxBid(nextDecimal(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return auction;
+    }
+
+    private List<Bid> readBids(JsonReader in) throws IOException {
+        List<Bid> history = new ArrayList<>();
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return history;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            Bid bid = bids.read(in);
+            if (bid != null) history.add(bid);
+        }
+        in.endArray();
+        return history;
+    }
+}
@@ -0,0 +1,49 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblemarket.auction.Bid;
+
+import java.io.IOException;
+
+import static com.whoslucid.cobblemarket.storage.adapter.JsonFields.*;
+
+public class BidAdapter extends TypeAdapter<Bid> {
+
+    @Override
+    public void write(JsonWriter out, Bid bid) throws IOException {
+        if (bid == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("bidderUuid").value(uuid(bid.getBidderUuid()));
+        out.name("bidderName").value(bid.getBidderName());
+        out.name("amount").value(bid.getAmount());
+        out.name("timestamp").value(bid.getTimestamp());
+        out.endObject();
+    }
+
+    @Override
+    public Bid read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Bid bid = new Bid();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bidderUuid" -> bid.setBidderUuid(nextUuid(in));
+                case "bidderName" -> bid.setBidderName(nextString(in));
+                case "amount" -> bid.setAmount(nextDecimal(in));
+                case "timestamp" -> bid.setTimestamp(in.nextLong());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return bid;
+    }
+}
@@ -0,0 +1,70 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read and write helpers shared by the streaming adapters.
+ * Values are written the way Gson's reflective adapters wrote them, so existing files read the same.
+ */
+public class JsonFields {
+
+    public static String uuid(UUID value) {
+        return value != null ? value.toString() : null;
+    }
+
+    public static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    public static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    public static UUID nextUuid(JsonReader in) throws IOException {
+        String value = nextString(in);
+        return value != null ? UUID.fromString(value) : null;
+    }
+
+    public static BigDecimal nextDecimal(JsonReader in) throws IOException {
+        String value = nextString(in);
+        return value != null ? new BigDecimal(value) : null;
+    }
+
+    /**
+     * Read an enum constant by name (null if unknown, like Gson)
+     */
+    public static <E extends Enum<E>> E nextEnum(JsonReader in, Class<E> type) throws IOException {
+        String value = nextString(in);
+        if (value == null) return null;
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static List<String> nextStringList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(nextString(in));
+        }
+        in.endArray();
+        return values;
+    }
+}
@@ -0,0 +1,272 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblelib.Model.EconomyUse;
+import com.whoslucid.cobblemarket.listing.ItemListing;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.ListingType;
+import com.whoslucid.cobblemarket.listing.PokemonDisplay;
+import com.whoslucid.cobblemarket.listing.PokemonListing;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.whoslucid.cobblemarket.storage.adapter.JsonFields.*;
+
+/**
+ * Streams listings field by field, with a leading {@code "type"} discriminator that picks the class
+ * before any other field is read. Payload trees, currencies and display snapshots are read with
+ * Gson's adapters for those types.
+ */
+public class ListingAdapter extends TypeAdapter<Listing<?>> {
+
+    public static final String TYPE_POKEMON = "POKEMON";
+    public static final String TYPE_ITEM = "ITEM";
+
+    private static final String TYPE_FIELD = "type";
+    // Fields of the old Auction class, written at the top level before auctions became a listing component
+    private static final List<String> LEGACY_AUCTION_FIELDS = List.of("startingPrice", "currentBid",
+            "highestBidderUuid", "highestBidderName", "minBidIncrement", "bidHistory", "maxBid");
+
+    private final AuctionStateAdapter auctions;
+    private final TypeAdapter<JsonElement> tree;
+    private final TypeAdapter<byte[]> bytes;
+    private final TypeAdapter<EconomyUse> currencies;
+    private final TypeAdapter<PokemonDisplay> displays;
+
+    public ListingAdapter(Gson gson, AuctionStateAdapter auctions) {
+        this.auctions = auctions;
+        this.tree = gson.getAdapter(JsonElement.class);
+        this.bytes = gson.getAdapter(byte[].class);
+        this.currencies = gson.getAdapter(EconomyUse.class);
+        this.displays = gson.getAdapter(PokemonDisplay.class);
+    }
+
+    /**
+     * Get the type discriminator of a listing
+     */
+    public static String typeOf(Listing<?> listing) {
+        return listing instanceof PokemonListing ? TYPE_POKEMON : TYPE_ITEM;
+    }
+
+    // ==================== Write ====================
+
+    @Override
+    public void write(JsonWriter out, Listing<?> listing) throws IOException {
+        if (listing == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name(TYPE_FIELD).value(typeOf(listing));
+        if (listing instanceof PokemonListing pokemon) {
+            writePokemon(out, pokemon);
+        } else {
+            writeItem(out, (ItemListing) listing);
+        }
+        writeBase(out, listing);
+        out.endObject();
+    }
+
+    private void writeBase(JsonWriter out, Listing<?> listing) throws IOException {
+        out.name("id").value(uuid(listing.getId()));
+        out.name("sellerUuid").value(uuid(listing.getSellerUuid()));
+        out.name("sellerName").value(listing.getSellerName());
+        out.name("price").value(listing.getPrice());
+        out.name("createdTime").value(listing.getCreatedTime());
+        out.name("endTime").value(listing.getEndTime());
+        out.name("listingType").value(name(listing.getListingType()));
+        out.name("currency");
+        currencies.write(out, listing.getCurrency());
+        out.name("isPokemon").value(listing.isPokemon());
+        out.name("auction");
+        auctions.write(out, listing.getAuction());
+        out.name("version").value(listing.getVersion());
+    }
+
+    private void writePokemon(JsonWriter out, PokemonListing listing) throws IOException {
+        out.name("pokemonData");
+        tree.write(out, listing.getPokemonData());
+        out.name("pokemonBytes");
+        bytes.write(out, listing.getPokemonBytes());
+        out.name("species").value(listing.getSpecies());
+        out.name("isShiny").value(listing.isShiny());
+        out.name("isLegendary").value(listing.isLegendary());
+        out.name("isMythical").value(listing.isMythical());
+        out.name("isUltraBeast").value(listing.isUltraBeast());
+        out.name("hasHiddenAbility").value(listing.isHasHiddenAbility());
+        out.name("perfectIvCount").value(listing.getPerfectIvCount());
+        out.name("level").value(listing.getLevel());
+        out.name("nature").value(listing.getNature());
+        out.name("ability").value(listing.getAbility());
+        out.name("types");
+        List<String> types = listing.getStoredTypes();
+        if (types == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (String type : types) {
+                out.value(type);
+            }
+            out.endArray();
+        }
+        out.name("display");
+        displays.write(out, listing.getDisplay());
+    }
+
+    private void writeItem(JsonWriter out, ItemListing listing) throws IOException {
+        out.name("itemData");
+        tree.write(out, listing.getItemData());
+        out.name("itemBytes");
+        bytes.write(out, listing.getItemBytes());
+        out.name("itemId").value(listing.getItemId());
+        out.name("itemName").value(listing.getItemName());
+        out.name("count").value(listing.getCount());
+    }
+
+    // ==================== Read ====================
+
+    @Override
+    public Listing<?> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        in.beginObject();
+        if (!in.hasNext()) {
+            throw new JsonParseException("Empty listing");
+        }
+
+        String first = in.nextName();
+        if (!first.equals(TYPE_FIELD)) {
+            return readUntyped(in, first);
+        }
+
+        Listing<?> listing = create(in.nextString());
+        while (in.hasNext()) {
+            String name = in.nextName();
+            boolean known = readBase(in, name, listing) || (listing instanceof PokemonListing pokemon
+                    ? readPokemon(in, name, pokemon)
+                    : readItem(in, name, (ItemListing) listing));
+            if (!known) in.skipValue();
+        }
+        in.endObject();
+        return listing;
+    }
+
+    private static Listing<?> create(String type) {
+        return switch (type) {
+            case TYPE_POKEMON -> new PokemonListing();
+            case TYPE_ITEM -> new ItemListing();
+            default -> throw new JsonParseException("Unknown listing type: " + type);
+        };
+    }
+
+    private boolean readBase(JsonReader in, String name, Listing<?> listing) throws IOException {
+        switch (name) {
+            case "id" -> listing.setId(nextUuid(in));
+            case "sellerUuid" -> listing.setSellerUuid(nextUuid(in));
+            case "sellerName" -> listing.setSellerName(nextString(in));
+            case "price" -> listing.setPrice(nextDecimal(in));
+            case "createdTime" -> listing.setCreatedTime(in.nextLong());
+            case "endTime" -> listing.setEndTime(in.nextLong());
+            case "listingType" -> listing.setListingType(nextEnum(in, ListingType.class));
+            case "currency" -> listing.setCurrency(currencies.read(in));
+            case "isPokemon" -> listing.setPokemon(in.nextBoolean());
+            case "auction" -> listing.setAuction(auctions.read(in));
+            case "version" -> listing.setVersion(nextString(in));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readPokemon(JsonReader in, String name, PokemonListing listing) throws IOException {
+        switch (name) {
+            case "pokemonData" -> listing.setPokemonData(nextTree(in));
+            case "pokemonBytes" -> listing.setPokemonBytes(bytes.read(in));
+            case "species" -> listing.setSpecies(nextString(in));
+            case "isShiny" -> listing.setShiny(in.nextBoolean());
+            case "isLegendary" -> listing.setLegendary(in.nextBoolean());
+            case "isMythical" -> listing.setMythical(in.nextBoolean());
+            case "isUltraBeast" -> listing.setUltraBeast(in.nextBoolean());
+            case "hasHiddenAbility" -> listing.setHasHiddenAbility(in.nextBoolean());
+            case "perfectIvCount" -> listing.setPerfectIvCount(in.nextInt());
+            case "level" -> listing.setLevel(in.nextInt());
+            case "nature" -> listing.setNature(nextString(in));
+            case "ability" -> listing.setAbility(nextString(in));
+            case "types" -> listing.setTypes(nextStringList(in));
+            case "display" -> listing.setDisplay(displays.read(in));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readItem(JsonReader in, String name, ItemListing listing) throws IOException {
+        switch (name) {
+            case "itemData" -> listing.setItemData(nextTree(in));
+            case "itemBytes" -> listing.setItemBytes(bytes.read(in));
+            case "itemId" -> listing.setItemId(nextString(in));
+            case "itemName" -> listing.setItemName(nextString(in));
+            case "count" -> listing.setCount(in.nextInt());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JsonElement nextTree(JsonReader in) throws IOException {
+        JsonElement element = tree.read(in);
+        return element == null || element.isJsonNull() ? null : element;
+    }
+
+    /**
+     * Read a listing whose first field is not the discriminator: one written before it existed,
+     * or edited by hand. The rest of the object is buffered once and read again with its type in front.
+     */
+    private Listing<?> readUntyped(JsonReader in, String first) throws IOException {
+        JsonObject fields = new JsonObject();
+        fields.add(first, tree.read(in));
+        while (in.hasNext()) {
+            fields.add(in.nextName(), tree.read(in));
+        }
+        in.endObject();
+
+        JsonElement type = fields.remove(TYPE_FIELD);
+        JsonObject typed = new JsonObject();
+        typed.addProperty(TYPE_FIELD, type != null ? type.getAsString() : migrateLegacy(fields));
+        for (Map.Entry<String, JsonElement> field : fields.entrySet()) {
+            typed.add(field.getKey(), field.getValue());
+        }
+        return fromJsonTree(typed);
+    }
+
+    /**
+     * Bring a listing written before the type discriminator to the current layout
+     *
+     * @return its type, determined from the stored fields
+     */
+    private static String migrateLegacy(JsonObject fields) {
+        if (fields.has("bidHistory")) {
+            JsonObject auction = new JsonObject();
+            for (String name : LEGACY_AUCTION_FIELDS) {
+                JsonElement value = fields.remove(name);
+                if (value != null) auction.add(name, value);
+            }
+            fields.add("auction", auction);
+        }
+        return fields.has("pokemonData") || fields.has("pokemonBytes") ? TYPE_POKEMON : TYPE_ITEM;
+    }
+}
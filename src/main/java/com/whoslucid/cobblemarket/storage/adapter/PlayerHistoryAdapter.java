@@ -0,0 +1,76 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblemarket.history.PlayerHistory;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.whoslucid.cobblemarket.storage.adapter.JsonFields.*;
+
+public class PlayerHistoryAdapter extends TypeAdapter<PlayerHistory> {
+
+    private final TransactionRecordAdapter records;
+
+    public PlayerHistoryAdapter(TransactionRecordAdapter records) {
+        this.records = records;
+    }
+
+    @Override
+    public void write(JsonWriter out, PlayerHistory history) throws IOException {
+        if (history == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("playerUuid").value(uuid(history.getPlayerUuid()));
+        out.name("transactions");
+        out.beginArray();
+        if (history.getTransactions() != null) {
+            for (TransactionRecord record : history.getTransactions()) {
+                records.write(out, record);
+            }
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public PlayerHistory read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        PlayerHistory history = new PlayerHistory();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "playerUuid" -> history.setPlayerUuid(nextUuid(in));
+                case "transactions" -> history.setTransactions(readRecords(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return history;
+    }
+
+    private List<TransactionRecord> readRecords(JsonReader in) throws IOException {
+        List<TransactionRecord> list = new ArrayList<>();
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return list;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            TransactionRecord record = records.read(in);
+            if (record != null) list.add(record);
+        }
+        in.endArray();
+        return list;
+    }
+}
@@ -0,0 +1,64 @@
+package com.whoslucid.cobblemarket.storage.adapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.whoslucid.cobblemarket.history.TransactionRecord;
+import com.whoslucid.cobblemarket.listing.ListingType;
+
+import java.io.IOException;
+
+import static com.whoslucid.cobblemarket.storage.adapter.JsonFields.*;
+
+public class TransactionRecordAdapter extends TypeAdapter<TransactionRecord> {
+
+    @Override
+    public void write(JsonWriter out, TransactionRecord record) throws IOException {
+        if (record == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(uuid(record.getId()));
+        out.name("transactionType").value(name(record.getTransactionType()));
+        out.name("listingType").value(name(record.getListingType()));
+        out.name("isPokemon").value(record.isPokemon());
+        out.name("itemName").value(record.getItemName());
+        out.name("price").value(record.getPrice());
+        out.name("currency").value(record.getCurrency());
+        out.name("taxDeducted").value(record.getTaxDeducted());
+        out.name("otherPartyName").value(record.getOtherPartyName());
+        out.name("otherPartyUuid").value(uuid(record.getOtherPartyUuid()));
+        out.name("timestamp").value(record.getTimestamp());
+        out.endObject();
+    }
+
+    @Override
+    public TransactionRecord read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        TransactionRecord record = new TransactionRecord();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> record.setId(nextUuid(in));
+                case "transactionType" -> record.setTransactionType(nextEnum(in, TransactionRecord.TransactionType.class));
+                case "listingType" -> record.setListingType(nextEnum(in, ListingType.class));
+                case "isPokemon" -> record.setPokemon(in.nextBoolean());
+                case "itemName" -> record.setItemName(nextString(in));
+                case "price" -> record.setPrice(nextDecimal(in));
+                case "currency" -> record.setCurrency(nextString(in));
+                case "taxDeducted" -> record.setTaxDeducted(nextDecimal(in));
+                case "otherPartyName" -> record.setOtherPartyName(nextString(in));
+                case "otherPartyUuid" -> record.setOtherPartyUuid(nextUuid(in));
+                case "timestamp" -> record.setTimestamp(in.nextLong());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return record;
+    }
+}
@@ -1,17 +1,15 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
-import com.whoslucid.cobblelib.api.EconomyApi;
 import com.whoslucid.cobblelib.util.AdventureTranslator;
-import com.whoslucid.cobblelib.util.PlayerUtils;
-import com.whoslucid.cobblelib.util.TypeMessage;
 import com.whoslucid.cobblemarket.CobbleMarket;
-import com.whoslucid.cobblemarket.auction.Auction;
+import com.whoslucid.cobblemarket.auction.AuctionEngine;
+import com.whoslucid.cobblemarket.auction.AuctionState;
 import com.whoslucid.cobblemarket.auction.Bid;
 import com.whoslucid.cobblemarket.config.Lang;
+import com.whoslucid.cobblemarket.listing.Listing;
 import com.whoslucid.cobblemarket.util.MarketUtils;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.server.level.ServerPlayer;
@@ -20,29 +18,28 @@ import net.minecraft.world.item.Items;
 import net.minecraft.world.item.component.ItemLore;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public class AuctionDetailMenu {
 
-    public static void open(ServerPlayer player, Auction auction) {
-        CompletableFuture.runAsync(() -> {
-            ChestTemplate template = buildTemplate(player, auction);
+    public static void open(ServerPlayer player, Listing<?> listing) {
+        UiSession.open(player, "AuctionDetailMenu", () -> {
+            ChestTemplate template = buildTemplate(player, listing);
             String title = CobbleMarket.language.getTitleAuctionDetail()
-                    .replace("%listing_name%", auction.getDisplayName());
+                    .replace("%listing_name%", listing.getDisplayName());
 
             GooeyPage page = GooeyPage.builder()
                     .template(template)
                     .title(AdventureTranslator.toNative(title))
                     .build();
 
-            player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
-        }, CobbleMarket.EXECUTOR);
+            return page;
+        });
     }
 
-    private static ChestTemplate buildTemplate(ServerPlayer player, Auction auction) {
+    private static ChestTemplate buildTemplate(ServerPlayer player, Listing<?> listing) {
+        AuctionState auction = listing.getAuction();
         ChestTemplate.Builder builder = ChestTemplate.builder(6);
         Lang.UIButtons buttons = CobbleMarket.language.getButtons();
 
@@ -52,30 +49,16 @@ public class AuctionDetailMenu {
             builder.set(i, filler);
         }
 
-        // Display Pokemon
-        ItemStack displayItem = auction.getDisplayItem();
-        List<String> itemLore = new ArrayList<>();
-        itemLore.addAll(CobbleMarket.language.getPokemonLore());
-        itemLore.add("");
-        itemLore.addAll(CobbleMarket.language.getAuctionLore());
-
-        List<String> replacedLore = MarketUtils.replaceListing(itemLore, auction);
-        replacedLore = replacedLore.stream()
-                .map(line -> line
-                        .replace("%current_bid%", MarketUtils.formatPrice(auction.getCurrentBid()))
-                        .replace("%bidder%", auction.getHighestBidderName() != null ?
-                                auction.getHighestBidderName() : "No bids")
-                        .replace("%min_next_bid%", MarketUtils.formatPrice(auction.getMinNextBid())))
-                .toList();
-
+        // Display Pokemon or item
+        ItemStack displayItem = listing.getDisplayItem();
         GooeyButton itemButton = GooeyButton.builder()
                 .display(displayItem)
-                .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&6" + auction.getDisplayName()))
-                .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(replacedLore)))
+                .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&6" + listing.getDisplayName()))
+                .with(DataComponents.LORE, new ItemLore(CobbleMarket.language.getAuctionTemplate().render(listing)))
                 .build();
         builder.set(13, itemButton);
 
-        boolean isOwnAuction = auction.isSeller(player.getUUID());
+        boolean isOwnAuction = listing.isSeller(player.getUUID());
         boolean isHighestBidder = auction.isHighestBidder(player.getUUID());
 
         if (isOwnAuction) {
@@ -86,27 +69,28 @@ public class AuctionDetailMenu {
                     .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
                             "&7Bids: &f" + auction.getBidCount(),
                             "&7Current Bid: &e" + MarketUtils.formatPrice(auction.getCurrentBid()),
-                            "&7Time Left: &c" + auction.getFormattedRemainingTime()
+                            "&7Time Left: &c" + listing.getFormattedRemainingTime()
                     ))))
                     .build();
             builder.set(22, statusBtn);
         } else {
-            // Bid buttons
-            BigDecimal minBid = auction.getMinNextBid();
+            // Maximum bid buttons (the highest bidder raises their maximum)
+            BigDecimal minBid = auction.getMinNextBid(player.getUUID());
             BigDecimal bid1 = minBid;
             BigDecimal bid2 = minBid.add(auction.getMinBidIncrement().multiply(BigDecimal.valueOf(5)));
             BigDecimal bid3 = minBid.add(auction.getMinBidIncrement().multiply(BigDecimal.valueOf(10)));
 
-            builder.set(21, createBidButton(player, auction, bid1, "&a", "Min Bid"));
-            builder.set(22, createBidButton(player, auction, bid2, "&e", "+5x"));
-            builder.set(23, createBidButton(player, auction, bid3, "&6", "+10x"));
+            builder.set(21, createBidButton(player, listing, bid1, "&a", "Min Bid"));
+            builder.set(22, createBidButton(player, listing, bid2, "&e", "+5x"));
+            builder.set(23, createBidButton(player, listing, bid3, "&6", "+10x"));
 
             if (isHighestBidder) {
                 GooeyButton highestBtn = GooeyButton.builder()
                         .display(new ItemStack(Items.NETHER_STAR))
                         .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&a&lYou are the highest bidder!"))
                         .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
-                                "&7Your bid: &e" + MarketUtils.formatPrice(auction.getCurrentBid())
+                                "&7Your bid: &e" + MarketUtils.formatPrice(auction.getCurrentBid()),
+                                "&7Your maximum: &e" + MarketUtils.formatPrice(auction.getMaxBid())
                         ))))
                         .build();
                 builder.set(31, highestBtn);
@@ -114,8 +98,9 @@ public class AuctionDetailMenu {
         }
 
         // Bid history
-        List<Bid> bidHistory = auction.getBidHistory();
-        if (bidHistory != null && !bidHistory.isEmpty()) {
+        // Copied once so bids resolved while the menu is built do not shift the indices
+        List<Bid> bidHistory = List.copyOf(auction.getBidHistory());
+        if (!bidHistory.isEmpty()) {
             int slot = 37;
             int shown = 0;
             for (int i = bidHistory.size() - 1; i >= 0 && shown < 5; i--, shown++) {
@@ -140,92 +125,19 @@ public class AuctionDetailMenu {
         return builder.build();
     }
 
-    private static GooeyButton createBidButton(ServerPlayer player, Auction auction,
+    private static GooeyButton createBidButton(ServerPlayer player, Listing<?> listing,
                                                 BigDecimal bidAmount, String color, String label) {
         return GooeyButton.builder()
                 .display(new ItemStack(Items.GOLD_INGOT))
                 .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative(color + label + ": " +
-                        MarketUtils.formatPrice(bidAmount) + " " + auction.getCurrency().getCurrency()))
+                        MarketUtils.formatPrice(bidAmount) + " " + listing.getCurrency().getCurrency()))
                 .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
-                        "&7Click to place this bid"
+                        "&7Click to bid up to this amount",
+                        "&7Higher bids are answered automatically"
                 ))))
                 .onClick(action -> {
-                    placeBid(player, auction, bidAmount);
+                    AuctionEngine.submit(player, listing, bidAmount);
                 })
                 .build();
     }
-
-    private static void placeBid(ServerPlayer player, Auction auction, BigDecimal bidAmount) {
-        // Check if auction still exists
-        var listing = CobbleMarket.listingManager.getListing(auction.getId());
-        if (!(listing instanceof Auction currentAuction)) {
-            PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingNotFound()
-                    .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
-            AuctionsMenu.open(player);
-            return;
-        }
-
-        // Check if own auction
-        if (currentAuction.isSeller(player.getUUID())) {
-            PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageCannotBidOwnAuction()
-                    .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
-            return;
-        }
-
-        // Check if bid is high enough
-        if (bidAmount.compareTo(currentAuction.getMinNextBid()) < 0) {
-            PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageBidTooLow()
-                            .replace("%prefix%", CobbleMarket.language.getPrefix())
-                            .replace("%min_bid%", MarketUtils.formatPrice(currentAuction.getMinNextBid()))
-                            .replace("%currency%", currentAuction.getCurrency().getCurrency()),
-                    null, TypeMessage.CHAT);
-            return;
-        }
-
-        // Check if player can afford
-        if (!EconomyApi.hasEnoughMoney(player.getUUID(), bidAmount, currentAuction.getCurrency(), false)) {
-            PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageNotEnoughMoney()
-                            .replace("%prefix%", CobbleMarket.language.getPrefix())
-                            .replace("%currency%", currentAuction.getCurrency().getCurrency()),
-                    null, TypeMessage.CHAT);
-            return;
-        }
-
-        // Get previous bidder for refund
-        Bid previousBid = currentAuction.getPreviousBid();
-
-        // Deduct money from new bidder
-        EconomyApi.hasEnoughMoney(player.getUUID(), bidAmount, currentAuction.getCurrency(), true);
-
-        // Refund previous bidder if exists
-        if (previousBid != null && currentAuction.getHighestBidderUuid() != null) {
-            EconomyApi.addMoney(currentAuction.getHighestBidderUuid(),
-                    currentAuction.getCurrentBid(), currentAuction.getCurrency());
-
-            // Notify previous bidder
-            PlayerUtils.sendMessage(currentAuction.getHighestBidderUuid(),
-                    CobbleMarket.language.getMessageBidOutbid()
-                            .replace("%prefix%", CobbleMarket.language.getPrefix())
-                            .replace("%listing_name%", currentAuction.getDisplayName())
-                            .replace("%amount%", MarketUtils.formatPrice(bidAmount)),
-                    null, TypeMessage.CHAT);
-        }
-
-        // Place bid
-        currentAuction.placeBid(player.getUUID(), player.getName().getString(), bidAmount);
-
-        // Save updated auction
-        CobbleMarket.listingManager.saveListing(currentAuction);
-
-        // Notify bidder
-        PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageBidPlaced()
-                        .replace("%prefix%", CobbleMarket.language.getPrefix())
-                        .replace("%amount%", MarketUtils.formatPrice(bidAmount))
-                        .replace("%currency%", currentAuction.getCurrency().getCurrency())
-                        .replace("%listing_name%", currentAuction.getDisplayName()),
-                null, TypeMessage.CHAT);
-
-        // Refresh menu
-        open(player, currentAuction);
-    }
 }
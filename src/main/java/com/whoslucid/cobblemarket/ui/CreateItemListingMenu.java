@@ -1,6 +1,5 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.Button;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
@@ -25,7 +24,6 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public class CreateItemListingMenu {
 
@@ -48,7 +46,7 @@ public class CreateItemListingMenu {
             return;
         }
 
-        CompletableFuture.runAsync(() -> {
+        UiSession.open(player, "CreateItemListingMenu", () -> {
             try {
                 ChestTemplate template = buildInventoryTemplate(player);
 
@@ -57,12 +55,13 @@ public class CreateItemListingMenu {
                         .title(AdventureTranslator.toNative("&0Select Item to List"))
                         .build();
 
-                player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
+                return page;
             } catch (Exception e) {
                 CobbleLib.LOGGER.error("Error opening CreateItemListingMenu: " + e.getMessage());
                 e.printStackTrace();
+                return null;
             }
-        }, CobbleMarket.EXECUTOR);
+        });
     }
 
     private static ChestTemplate buildInventoryTemplate(ServerPlayer player) {
@@ -97,7 +96,7 @@ public class CreateItemListingMenu {
                     .display(displayStack)
                     .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(lore)))
                     .onClick(action -> {
-                        openPriceSelection(player, finalInvSlot);
+                        openPriceSelection(player, finalInvSlot, false, 24); // Default: fixed price, 24h duration
                     })
                     .build();
 
@@ -113,7 +112,7 @@ public class CreateItemListingMenu {
         return builder.build();
     }
 
-    public static void openPriceSelection(ServerPlayer player, int inventorySlot) {
+    public static void openPriceSelection(ServerPlayer player, int inventorySlot, boolean isAuction, int auctionHours) {
         ItemStack stack = player.getInventory().getItem(inventorySlot);
         if (stack.isEmpty()) {
             PlayerUtils.sendMessage(player, "&cItem not found in inventory", null, TypeMessage.CHAT);
@@ -129,7 +128,15 @@ public class CreateItemListingMenu {
             return;
         }
 
-        CompletableFuture.runAsync(() -> {
+        // Check if auctions are enabled
+        if (isAuction && !CobbleMarket.config.isEnableAuctions()) {
+            PlayerUtils.sendMessage(player, CobbleMarket.language.getPrefix() + " &cAuctions are disabled.",
+                    null, TypeMessage.CHAT);
+            openPriceSelection(player, inventorySlot, false, auctionHours);
+            return;
+        }
+
+        UiSession.open(player, "CreateItemListingMenu", () -> {
             try {
                 BigDecimal minPrice = CobbleMarket.config.getMinimumPrice();
                 BigDecimal suggestedPrice = minPrice.multiply(BigDecimal.valueOf(stack.getCount()));
@@ -143,14 +150,37 @@ public class CreateItemListingMenu {
                     builder.set(i, filler);
                 }
 
+                // Auction Toggle button (slot 4)
+                ItemStack toggleItem = isAuction
+                        ? new ItemStack(Items.LIME_STAINED_GLASS_PANE)
+                        : new ItemStack(Items.RED_STAINED_GLASS_PANE);
+
+                GooeyButton toggleBtn = GooeyButton.builder()
+                        .display(toggleItem)
+                        .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative(
+                                isAuction ? "&a✓ Auction Mode: ON" : "&c✗ Auction Mode: OFF"))
+                        .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
+                                "",
+                                isAuction ? "&7Price will be the &estarting bid" : "&7Price will be &efixed price",
+                                "",
+                                "&eClick to toggle"
+                        ))))
+                        .onClick(action -> {
+                            openPriceSelection(player, inventorySlot, !isAuction, auctionHours);
+                        })
+                        .build();
+                builder.set(4, toggleBtn);
+
                 // Display item info
+                String priceLabel = isAuction ? "Starting Bid" : "Price";
                 ItemStack displayStack = stack.copy();
                 List<String> itemLore = Arrays.asList(
                         "&7Amount: &e" + stack.getCount(),
                         "",
-                        "&7Minimum Price: &e" + MarketUtils.formatPrice(minPrice),
+                        "&7Minimum " + priceLabel + ": &e" + MarketUtils.formatPrice(minPrice),
                         "",
-                        "&eClick a price button to list"
+                        isAuction ? "&6Auction Duration: &e" + auctionHours + " hours" : "",
+                        "&eClick a " + priceLabel.toLowerCase() + " button to list"
                 );
 
                 GooeyButton itemBtn = GooeyButton.builder()
@@ -164,20 +194,27 @@ public class CreateItemListingMenu {
                 BigDecimal price2 = suggestedPrice.multiply(BigDecimal.valueOf(2)).max(minPrice);
                 BigDecimal price3 = suggestedPrice.multiply(BigDecimal.valueOf(5)).max(minPrice);
 
-                builder.set(10, createPriceButton(player, inventorySlot, price1, "&a"));
-                builder.set(11, createPriceButton(player, inventorySlot, price2, "&e"));
-                builder.set(12, createPriceButton(player, inventorySlot, price3, "&6"));
-
-                // Custom price button
-                GooeyButton customBtn = GooeyButton.builder()
-                        .display(new ItemStack(Items.NAME_TAG))
-                        .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&bCustom Price"))
-                        .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
-                                "&7Use command:",
-                                "&e/market listitem <price>"
-                        ))))
-                        .build();
-                builder.set(16, customBtn);
+                builder.set(10, createPriceButton(player, inventorySlot, price1, "&a", isAuction, auctionHours));
+                builder.set(11, createPriceButton(player, inventorySlot, price2, "&e", isAuction, auctionHours));
+                builder.set(12, createPriceButton(player, inventorySlot, price3, "&6", isAuction, auctionHours));
+
+                if (isAuction) {
+                    // Duration buttons - slots 14, 15, 16
+                    builder.set(14, createDurationButton(player, inventorySlot, 1, auctionHours));
+                    builder.set(15, createDurationButton(player, inventorySlot, 12, auctionHours));
+                    builder.set(16, createDurationButton(player, inventorySlot, 24, auctionHours));
+                } else {
+                    // Custom price button
+                    GooeyButton customBtn = GooeyButton.builder()
+                            .display(new ItemStack(Items.NAME_TAG))
+                            .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&bCustom Price"))
+                            .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
+                                    "&7Use command:",
+                                    "&e/market listitem <price>"
+                            ))))
+                            .build();
+                    builder.set(16, customBtn);
+                }
 
                 // Back button
                 GooeyButton backBtn = buttons.getBack().getButton(action -> {
@@ -185,34 +222,84 @@ public class CreateItemListingMenu {
                 });
                 builder.set(22, backBtn);
 
+                String title = isAuction ? "&0Set Auction Starting Bid" : "&0Set Item Price";
                 GooeyPage page = GooeyPage.builder()
                         .template(builder.build())
-                        .title(AdventureTranslator.toNative("&0Set Item Price"))
+                        .title(AdventureTranslator.toNative(title))
                         .build();
 
-                player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
+                return page;
             } catch (Exception e) {
                 CobbleLib.LOGGER.error("Error opening item price selection: " + e.getMessage());
                 e.printStackTrace();
+                return null;
             }
-        }, CobbleMarket.EXECUTOR);
+        });
     }
 
-    private static GooeyButton createPriceButton(ServerPlayer player, int inventorySlot, BigDecimal price, String color) {
+    private static GooeyButton createPriceButton(ServerPlayer player, int inventorySlot, BigDecimal price, String color,
+                                                 boolean isAuction, int auctionHours) {
+        String actionText = isAuction
+                ? "&7Click to start auction"
+                : "&7Click to list for this price";
+
         return GooeyButton.builder()
                 .display(new ItemStack(Items.EMERALD))
                 .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative(color + MarketUtils.formatPrice(price) + " " +
                         CobbleMarket.config.getDefaultCurrency().getCurrency()))
                 .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
-                        "&7Click to list for this price"
+                        actionText
                 ))))
                 .onClick(action -> {
-                    createListing(player, inventorySlot, price);
+                    if (isAuction) {
+                        createListing(player, inventorySlot, price, auctionHours);
+                    } else {
+                        createListing(player, inventorySlot, price);
+                    }
+                })
+                .build();
+    }
+
+    private static GooeyButton createDurationButton(ServerPlayer player, int inventorySlot, int hours, int selectedHours) {
+        boolean isSelected = hours == selectedHours;
+        ItemStack clockItem = new ItemStack(Items.CLOCK);
+
+        // Add enchant glow if selected
+        if (isSelected) {
+            clockItem.set(DataComponents.ENCHANTMENT_GLINT_OVERRIDE, true);
+        }
+
+        String timeLabel = hours == 1 ? "1 Hour" : hours + " Hours";
+        String color = isSelected ? "&a" : "&e";
+
+        return GooeyButton.builder()
+                .display(clockItem)
+                .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative(color + timeLabel))
+                .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(Arrays.asList(
+                        isSelected ? "&a✓ Selected" : "&7Click to select",
+                        "",
+                        "&7Auction will run for",
+                        "&e" + timeLabel
+                ))))
+                .onClick(action -> {
+                    if (!isSelected) {
+                        openPriceSelection(player, inventorySlot, true, hours);
+                    }
                 })
                 .build();
     }
 
     public static void createListing(ServerPlayer player, int inventorySlot, BigDecimal price) {
+        createListing(player, inventorySlot, price, 0);
+    }
+
+    /**
+     * List an inventory item
+     *
+     * @param auctionHours auction duration, 0 to list at a fixed price
+     */
+    private static void createListing(ServerPlayer player, int inventorySlot, BigDecimal price, int auctionHours) {
+        boolean isAuction = auctionHours > 0;
         ItemStack stack = player.getInventory().getItem(inventorySlot);
         if (stack.isEmpty()) {
             PlayerUtils.sendMessage(player, "&cItem not found in inventory", null, TypeMessage.CHAT);
@@ -250,7 +337,7 @@ public class CreateItemListingMenu {
 
         // Create listing
         EconomyUse currency = CobbleMarket.config.getDefaultCurrency();
-        long duration = TimeUtils.hoursToMillis(CobbleMarket.config.getListingDurationHours());
+        long duration = TimeUtils.hoursToMillis(isAuction ? auctionHours : CobbleMarket.config.getListingDurationHours());
 
         ItemListing listing = new ItemListing(
                 player.getUUID(),
@@ -260,12 +347,18 @@ public class CreateItemListingMenu {
                 currency,
                 duration
         );
+        if (isAuction) {
+            listing.startAuction(CobbleMarket.config.getAuctionMinBidIncrement());
+        }
 
         CobbleMarket.listingManager.addListing(listing);
 
         // Send success message
         String itemName = listingStack.getHoverName().getString();
-        String msg = CobbleMarket.language.getMessageListingCreated()
+        String msg = isAuction
+                ? CobbleMarket.language.getPrefix() + " &aAuction created! Starting bid: &e" +
+                MarketUtils.formatPrice(price) + " " + currency.getCurrency() + " &7(Duration: " + auctionHours + "h)"
+                : CobbleMarket.language.getMessageListingCreated()
                 .replace("%prefix%", CobbleMarket.language.getPrefix())
                 .replace("%price%", MarketUtils.formatPrice(price))
                 .replace("%currency%", currency.getCurrency());
@@ -273,7 +366,8 @@ public class CreateItemListingMenu {
 
         // Broadcast if enabled
         if (CobbleMarket.config.isBroadcastNewListings()) {
-            String broadcast = CobbleMarket.language.getBroadcastNewListing()
+            String broadcast = (isAuction ? CobbleMarket.language.getBroadcastAuctionStart()
+                    : CobbleMarket.language.getBroadcastNewListing())
                     .replace("%seller%", player.getName().getString())
                     .replace("%listing_name%", itemName)
                     .replace("%price%", MarketUtils.formatPrice(price))
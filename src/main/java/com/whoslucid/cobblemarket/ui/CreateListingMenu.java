@@ -1,6 +1,5 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
@@ -15,7 +14,6 @@ import com.whoslucid.cobblelib.util.PlayerUtils;
 import com.whoslucid.cobblelib.util.TypeMessage;
 import com.whoslucid.cobblemarket.CobbleMarket;
 import com.whoslucid.cobblemarket.config.Lang;
-import com.whoslucid.cobblemarket.auction.Auction;
 import com.whoslucid.cobblemarket.listing.PokemonListing;
 import com.whoslucid.cobblemarket.util.MarketUtils;
 import com.whoslucid.cobblemarket.util.PriceCalculator;
@@ -29,7 +27,6 @@ import net.minecraft.world.item.enchantment.ItemEnchantments;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.concurrent.CompletableFuture;
 
 public class CreateListingMenu {
 
@@ -53,7 +50,7 @@ public class CreateListingMenu {
         }
 
         // Show selection menu for Pokemon or Item
-        CompletableFuture.runAsync(() -> {
+        UiSession.open(player, "CreateListingMenu", () -> {
             try {
                 ChestTemplate.Builder builder = ChestTemplate.builder(3);
                 Lang.UIButtons buttons = CobbleMarket.language.getButtons();
@@ -112,12 +109,13 @@ public class CreateListingMenu {
                         .title(AdventureTranslator.toNative("&0Create Listing"))
                         .build();
 
-                player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
+                return page;
             } catch (Exception e) {
                 CobbleLib.LOGGER.error("Error opening CreateListingMenu: " + e.getMessage());
                 e.printStackTrace();
+                return null;
             }
-        }, CobbleMarket.EXECUTOR);
+        });
     }
 
     public static void openPokemonSelection(ServerPlayer player) {
@@ -156,7 +154,7 @@ public class CreateListingMenu {
             return;
         }
 
-        CompletableFuture.runAsync(() -> {
+        UiSession.open(player, "CreateListingMenu", () -> {
             BigDecimal suggestedPrice = PriceCalculator.calculateSuggestedPrice(pokemon);
             BigDecimal minPrice = PriceCalculator.calculateMinimumPrice(pokemon);
 
@@ -233,8 +231,8 @@ public class CreateListingMenu {
                     .title(AdventureTranslator.toNative(title))
                     .build();
 
-            player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
-        }, CobbleMarket.EXECUTOR);
+            return page;
+        });
     }
 
     private static GooeyButton createPriceButton(ServerPlayer player, Pokemon pokemon, BigDecimal price, String color,
@@ -401,15 +399,15 @@ public class CreateListingMenu {
         EconomyUse currency = CobbleMarket.config.getDefaultCurrency();
         long duration = TimeUtils.hoursToMillis(durationHours);
 
-        Auction auction = new Auction(
+        PokemonListing auction = new PokemonListing(
                 player.getUUID(),
                 player.getName().getString(),
                 startingPrice,
                 pokemon,
                 currency,
-                duration,
-                CobbleMarket.config.getAuctionMinBidIncrement()
+                duration
         );
+        auction.startAuction(CobbleMarket.config.getAuctionMinBidIncrement());
 
         CobbleMarket.listingManager.addListing(auction);
 
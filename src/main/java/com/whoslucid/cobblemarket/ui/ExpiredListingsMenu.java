@@ -1,17 +1,11 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
-import ca.landonjw.gooeylibs2.api.button.Button;
+import ca.landonjw.gooeylibs2.api.button.ButtonAction;
+import ca.landonjw.gooeylibs2.api.button.ButtonClick;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
-import ca.landonjw.gooeylibs2.api.button.PlaceholderButton;
-import ca.landonjw.gooeylibs2.api.button.linked.LinkType;
-import ca.landonjw.gooeylibs2.api.button.linked.LinkedPageButton;
-import ca.landonjw.gooeylibs2.api.helpers.PaginationHelper;
-import ca.landonjw.gooeylibs2.api.page.LinkedPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
 import com.cobblemon.mod.common.Cobblemon;
 import com.cobblemon.mod.common.pokemon.Pokemon;
-import com.whoslucid.cobblelib.CobbleLib;
 import com.whoslucid.cobblelib.util.AdventureTranslator;
 import com.whoslucid.cobblelib.util.PlayerUtils;
 import com.whoslucid.cobblelib.util.TypeMessage;
@@ -29,83 +23,43 @@ import net.minecraft.world.item.component.ItemLore;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public class ExpiredListingsMenu {
 
     public static void open(ServerPlayer player) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<Listing<?>> listings = CobbleMarket.listingManager.getPlayerExpiredListings(player.getUUID());
-                List<Button> listingButtons = createListingButtons(player, listings);
-                Lang.UIButtons buttons = CobbleMarket.language.getButtons();
-
-                // Create template with placeholders for pagination
-                PlaceholderButton placeholder = new PlaceholderButton();
-                ChestTemplate template = ChestTemplate.builder(6)
-                        .rectangle(0, 0, 5, 9, placeholder)  // 5 rows of placeholders for listings
-                        .build();
-
-                // Create pagination
-                LinkedPage page = PaginationHelper.createPagesFromPlaceholders(
-                        template,
-                        listingButtons,
-                        LinkedPage.builder()
-                                .title(AdventureTranslator.toNative(CobbleMarket.language.getTitleExpiredListings()))
-                );
-
-                if (page == null) {
-                    page = LinkedPage.builder()
-                            .title(AdventureTranslator.toNative(CobbleMarket.language.getTitleExpiredListings()))
-                            .template(template)
-                            .build();
-                }
+        Lang.UIButtons buttons = CobbleMarket.language.getButtons();
+
+        PagedMenu.<Listing<?>, Integer>open(player, CobbleMarket.language.getTitleExpiredListings(),
+                null,
+                (offset, limit) -> CobbleMarket.listingManager.getPlayerExpiredPage(player.getUUID(), offset, limit),
+                ExpiredListingsMenu::createListingDisplay,
+                (listing, action) -> onListingClick(player, listing, action),
+                template -> addNavigationButtons(template, player, buttons));
+    }
 
-                // Add navigation buttons
-                addNavigationButtons(page, player, buttons);
+    private static ItemStack createListingDisplay(Listing<?> listing) {
+        ItemStack displayItem = listing.getDisplayItem();
+        if (displayItem.isEmpty()) return null;
 
-                final LinkedPage finalPage = page;
-                player.getServer().execute(() -> UIManager.openUIForcefully(player, finalPage));
-            } catch (Exception e) {
-                CobbleLib.LOGGER.error("Error opening ExpiredListingsMenu: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }, CobbleMarket.EXECUTOR);
+        List<String> lore = new ArrayList<>();
+        lore.add("&7Original Price: &e" + MarketUtils.formatPrice(listing.getPrice()) + " " + listing.getCurrency().getCurrency());
+        lore.add("");
+        lore.add("&aLeft-click to reclaim");
+        lore.add("&eRight-click to relist");
+
+        displayItem.set(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&c" + listing.getDisplayName()));
+        displayItem.set(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(lore)));
+        return displayItem;
     }
 
-    private static List<Button> createListingButtons(ServerPlayer player, List<Listing<?>> listings) {
-        List<Button> buttons = new ArrayList<>();
-
-        for (Listing<?> listing : listings) {
-            ItemStack displayItem = listing.getDisplayItem();
-            if (displayItem.isEmpty()) continue;
-
-            List<String> lore = new ArrayList<>();
-            lore.add("&7Original Price: &e" + MarketUtils.formatPrice(listing.getPrice()) + " " + listing.getCurrency().getCurrency());
-            lore.add("");
-            lore.add("&aLeft-click to reclaim");
-            lore.add("&eRight-click to relist");
-
-            GooeyButton button = GooeyButton.builder()
-                    .display(displayItem)
-                    .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&c" + listing.getDisplayName()))
-                    .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(lore)))
-                    .onClick(action -> {
-                        if (action.getClickType() == ca.landonjw.gooeylibs2.api.button.ButtonClick.RIGHT_CLICK ||
-                            action.getClickType() == ca.landonjw.gooeylibs2.api.button.ButtonClick.SHIFT_RIGHT_CLICK) {
-                            // Relist
-                            relistItem(player, listing);
-                        } else {
-                            // Reclaim
-                            reclaimItem(player, listing);
-                        }
-                    })
-                    .build();
-
-            buttons.add(button);
+    private static void onListingClick(ServerPlayer player, Listing<?> listing, ButtonAction action) {
+        if (action.getClickType() == ButtonClick.RIGHT_CLICK || action.getClickType() == ButtonClick.SHIFT_RIGHT_CLICK) {
+            // Relist
+            relistItem(player, listing);
+        } else {
+            // Reclaim
+            reclaimItem(player, listing);
         }
-
-        return buttons;
     }
 
     private static void reclaimItem(ServerPlayer player, Listing<?> listing) {
@@ -163,38 +117,11 @@ public class ExpiredListingsMenu {
         open(player);
     }
 
-    private static void addNavigationButtons(LinkedPage page, ServerPlayer player, Lang.UIButtons buttons) {
-        LinkedPage current = page;
-        while (current != null) {
-            ChestTemplate template = (ChestTemplate) current.getTemplate();
-
-            // Fill bottom row
-            GooeyButton filler = buttons.getFiller().getButton(action -> {});
-            for (int i = 45; i < 54; i++) {
-                template.set(i, filler);
-            }
-
-            // Previous page
-            LinkedPageButton prevButton = LinkedPageButton.builder()
-                    .display(buttons.getPreviousPage().getItemStack())
-                    .linkType(LinkType.Previous)
-                    .build();
-            template.set(45, prevButton);
-
-            // Next page
-            LinkedPageButton nextButton = LinkedPageButton.builder()
-                    .display(buttons.getNextPage().getItemStack())
-                    .linkType(LinkType.Next)
-                    .build();
-            template.set(53, nextButton);
-
-            // Back button
-            GooeyButton backBtn = buttons.getBack().getButton(action -> {
-                MarketMainMenu.open(player);
-            });
-            template.set(49, backBtn);
-
-            current = current.getNext();
-        }
+    private static void addNavigationButtons(ChestTemplate.Builder template, ServerPlayer player, Lang.UIButtons buttons) {
+        // Back button
+        GooeyButton backBtn = buttons.getBack().getButton(action -> {
+            MarketMainMenu.open(player);
+        });
+        template.set(49, backBtn);
     }
 }
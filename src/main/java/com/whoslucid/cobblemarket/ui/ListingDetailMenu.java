@@ -1,6 +1,5 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
@@ -15,6 +14,7 @@ import com.whoslucid.cobblemarket.config.Lang;
 import com.whoslucid.cobblemarket.history.TransactionRecord;
 import com.whoslucid.cobblemarket.listing.ItemListing;
 import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.ListingState;
 import com.whoslucid.cobblemarket.listing.PokemonListing;
 import com.whoslucid.cobblemarket.util.MarketUtils;
 import com.whoslucid.cobblemarket.util.PriceCalculator;
@@ -26,12 +26,11 @@ import net.minecraft.world.item.component.ItemLore;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public class ListingDetailMenu {
 
     public static void open(ServerPlayer player, Listing<?> listing) {
-        CompletableFuture.runAsync(() -> {
+        UiSession.open(player, "ListingDetailMenu", () -> {
             ChestTemplate template = buildTemplate(player, listing);
             String title = CobbleMarket.language.getTitleListingDetail()
                     .replace("%listing_name%", listing.getDisplayName());
@@ -41,8 +40,8 @@ public class ListingDetailMenu {
                     .title(AdventureTranslator.toNative(title))
                     .build();
 
-            player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
-        }, CobbleMarket.EXECUTOR);
+            return page;
+        });
     }
 
     private static ChestTemplate buildTemplate(ServerPlayer player, Listing<?> listing) {
@@ -148,19 +147,31 @@ public class ListingDetailMenu {
     }
 
     private static void executePurchase(ServerPlayer player, Listing<?> listing) {
-        // Double-check listing still exists
+        // Claim the listing; a second buyer (or a double-click) fails here instead of paying twice
         Listing<?> current = CobbleMarket.listingManager.getListing(listing.getId());
-        if (current == null) {
-            PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingNotFound()
+        if (current == null || !current.reserve()) {
+            String message = current != null && current.getState() == ListingState.RESERVED
+                    ? CobbleMarket.language.getMessageListingBusy()
+                    : CobbleMarket.language.getMessageListingNotFound();
+            PlayerUtils.sendMessage(player, message
                     .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
             MarketMainMenu.open(player);
             return;
         }
 
+        try {
+            deliverPurchase(player, listing, current);
+        } finally {
+            // No-op once sold; puts the listing back on the market if the purchase failed
+            current.release();
+        }
+    }
+
+    private static void deliverPurchase(ServerPlayer player, Listing<?> listing, Listing<?> current) {
         BigDecimal price = listing.getPrice();
 
-        // Deduct money from buyer
-        if (!EconomyApi.hasEnoughMoney(player.getUUID(), price, listing.getCurrency(), true)) {
+        // Take the money from the buyer into escrow
+        if (!CobbleMarket.escrow.hold(listing.getId(), player.getUUID(), price, listing.getCurrency())) {
             PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageNotEnoughMoney()
                             .replace("%prefix%", CobbleMarket.language.getPrefix())
                             .replace("%currency%", listing.getCurrency().getCurrency()),
@@ -173,7 +184,7 @@ public class ListingDetailMenu {
             Pokemon pokemon = pokemonListing.getPokemon();
             if (pokemon == null) {
                 // Refund buyer
-                EconomyApi.addMoney(player.getUUID(), price, listing.getCurrency());
+                CobbleMarket.escrow.refund(listing.getId(), player.getUUID(), price, listing.getCurrency());
                 PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingNotFound()
                         .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
                 return;
@@ -188,7 +199,7 @@ public class ListingDetailMenu {
                     pc.add(pokemon);
                 } else {
                     // Refund
-                    EconomyApi.addMoney(player.getUUID(), price, listing.getCurrency());
+                    CobbleMarket.escrow.refund(listing.getId(), player.getUUID(), price, listing.getCurrency());
                     PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageNoPartySpace()
                             .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
                     return;
@@ -197,7 +208,7 @@ public class ListingDetailMenu {
         } else if (listing instanceof ItemListing itemListing) {
             ItemStack item = itemListing.getItemStack();
             if (item.isEmpty()) {
-                EconomyApi.addMoney(player.getUUID(), price, listing.getCurrency());
+                CobbleMarket.escrow.refund(listing.getId(), player.getUUID(), price, listing.getCurrency());
                 PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingNotFound()
                         .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
                 return;
@@ -206,19 +217,20 @@ public class ListingDetailMenu {
             // Add to inventory
             if (!player.getInventory().add(item)) {
                 // No space
-                EconomyApi.addMoney(player.getUUID(), price, listing.getCurrency());
+                CobbleMarket.escrow.refund(listing.getId(), player.getUUID(), price, listing.getCurrency());
                 PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageNoInventorySpace()
                         .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
                 return;
             }
         }
 
-        // Pay seller (minus tax)
+        // Pay seller (minus tax), settled with the next escrow batch
         BigDecimal sellerEarnings = PriceCalculator.calculateSellerEarnings(price);
-        EconomyApi.addMoney(listing.getSellerUuid(), sellerEarnings, listing.getCurrency());
+        CobbleMarket.escrow.payout(listing.getId(), player.getUUID(), price,
+                listing.getSellerUuid(), sellerEarnings, listing.getCurrency());
 
         // Remove listing
-        CobbleMarket.listingManager.removeListing(listing.getId());
+        CobbleMarket.listingManager.completeReservation(current, ListingState.SOLD);
 
         // Record transactions
         BigDecimal tax = PriceCalculator.calculateTax(price);
@@ -267,25 +279,38 @@ public class ListingDetailMenu {
                 player,
                 listing.getDisplayItem(),
                 confirmAction -> {
-                    // Return item to player
-                    if (listing instanceof PokemonListing pokemonListing) {
-                        Pokemon pokemon = pokemonListing.getPokemon();
-                        if (pokemon != null) {
-                            var party = Cobblemon.INSTANCE.getStorage().getParty(player);
-                            if (!party.add(pokemon)) {
-                                var pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-                                if (pc != null) pc.add(pokemon);
+                    // Claim the listing so it cannot be bought or cancelled twice while the item is returned
+                    Listing<?> current = CobbleMarket.listingManager.getListing(listing.getId());
+                    if (current == null || !current.reserve()) {
+                        PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingNotFound()
+                                .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
+                        MyListingsMenu.open(player);
+                        return;
+                    }
+
+                    try {
+                        // Return item to player
+                        if (listing instanceof PokemonListing pokemonListing) {
+                            Pokemon pokemon = pokemonListing.getPokemon();
+                            if (pokemon != null) {
+                                var party = Cobblemon.INSTANCE.getStorage().getParty(player);
+                                if (!party.add(pokemon)) {
+                                    var pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+                                    if (pc != null) pc.add(pokemon);
+                                }
+                            }
+                        } else if (listing instanceof ItemListing itemListing) {
+                            ItemStack item = itemListing.getItemStack();
+                            if (!item.isEmpty()) {
+                                player.getInventory().add(item);
                             }
                         }
-                    } else if (listing instanceof ItemListing itemListing) {
-                        ItemStack item = itemListing.getItemStack();
-                        if (!item.isEmpty()) {
-                            player.getInventory().add(item);
-                        }
-                    }
 
-                    // Remove listing
-                    CobbleMarket.listingManager.removeListing(listing.getId());
+                        // Remove listing
+                        CobbleMarket.listingManager.completeReservation(current, ListingState.CANCELLED);
+                    } finally {
+                        current.release();
+                    }
 
                     PlayerUtils.sendMessage(player, CobbleMarket.language.getMessageListingCancelled()
                             .replace("%prefix%", CobbleMarket.language.getPrefix()), null, TypeMessage.CHAT);
@@ -1,6 +1,5 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
@@ -10,20 +9,18 @@ import com.whoslucid.cobblemarket.CobbleMarket;
 import com.whoslucid.cobblemarket.config.Lang;
 import net.minecraft.server.level.ServerPlayer;
 
-import java.util.concurrent.CompletableFuture;
-
 public class MarketMainMenu {
 
     public static void open(ServerPlayer player) {
-        CompletableFuture.runAsync(() -> {
+        UiSession.open(player, "MarketMainMenu", () -> {
             ChestTemplate template = buildTemplate(player);
             GooeyPage page = GooeyPage.builder()
                     .template(template)
                     .title(AdventureTranslator.toNative(CobbleMarket.language.getTitleMainMenu()))
                     .build();
 
-            player.getServer().execute(() -> UIManager.openUIForcefully(player, page));
-        }, CobbleMarket.EXECUTOR);
+            return page;
+        });
     }
 
     private static ChestTemplate buildTemplate(ServerPlayer player) {
@@ -1,131 +1,43 @@
 package com.whoslucid.cobblemarket.ui;
 
-import ca.landonjw.gooeylibs2.api.UIManager;
-import ca.landonjw.gooeylibs2.api.button.Button;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
-import ca.landonjw.gooeylibs2.api.button.PlaceholderButton;
-import ca.landonjw.gooeylibs2.api.button.linked.LinkType;
-import ca.landonjw.gooeylibs2.api.button.linked.LinkedPageButton;
-import ca.landonjw.gooeylibs2.api.helpers.PaginationHelper;
-import ca.landonjw.gooeylibs2.api.page.LinkedPage;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
-import com.whoslucid.cobblelib.CobbleLib;
 import com.whoslucid.cobblelib.util.AdventureTranslator;
 import com.whoslucid.cobblemarket.CobbleMarket;
 import com.whoslucid.cobblemarket.config.Lang;
 import com.whoslucid.cobblemarket.listing.Listing;
-import com.whoslucid.cobblemarket.util.MarketUtils;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.component.ItemLore;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-
 public class MyListingsMenu {
 
     public static void open(ServerPlayer player) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<Listing<?>> listings = CobbleMarket.listingManager.getPlayerListings(player.getUUID());
-                List<Button> listingButtons = createListingButtons(player, listings);
-                Lang.UIButtons buttons = CobbleMarket.language.getButtons();
-
-                // Create template with placeholders for pagination
-                PlaceholderButton placeholder = new PlaceholderButton();
-                ChestTemplate template = ChestTemplate.builder(6)
-                        .rectangle(0, 0, 5, 9, placeholder)  // 5 rows of placeholders for listings
-                        .build();
-
-                // Create pagination
-                LinkedPage page = PaginationHelper.createPagesFromPlaceholders(
-                        template,
-                        listingButtons,
-                        LinkedPage.builder()
-                                .title(AdventureTranslator.toNative(CobbleMarket.language.getTitleMyListings()))
-                );
-
-                if (page == null) {
-                    page = LinkedPage.builder()
-                            .title(AdventureTranslator.toNative(CobbleMarket.language.getTitleMyListings()))
-                            .template(template)
-                            .build();
-                }
-
-                // Add navigation buttons
-                addNavigationButtons(page, player, buttons);
-
-                final LinkedPage finalPage = page;
-                player.getServer().execute(() -> UIManager.openUIForcefully(player, finalPage));
-            } catch (Exception e) {
-                CobbleLib.LOGGER.error("Error opening MyListingsMenu: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }, CobbleMarket.EXECUTOR);
+        Lang.UIButtons buttons = CobbleMarket.language.getButtons();
+
+        PagedMenu.<Listing<?>, Integer>open(player, CobbleMarket.language.getTitleMyListings(),
+                null,
+                (offset, limit) -> CobbleMarket.listingManager.getPlayerListingPage(player.getUUID(), offset, limit),
+                MyListingsMenu::createListingDisplay,
+                (listing, action) -> ListingDetailMenu.open(player, listing),
+                template -> addNavigationButtons(template, player, buttons));
     }
 
-    private static List<Button> createListingButtons(ServerPlayer player, List<Listing<?>> listings) {
-        List<Button> buttons = new ArrayList<>();
-
-        for (Listing<?> listing : listings) {
-            ItemStack displayItem = listing.getDisplayItem();
-            if (displayItem.isEmpty()) continue;
-
-            List<String> lore = new ArrayList<>(CobbleMarket.language.getListingLore());
-            lore.add("");
-            lore.add("&cClick to cancel listing");
+    private static ItemStack createListingDisplay(Listing<?> listing) {
+        ItemStack displayItem = listing.getDisplayItem();
+        if (displayItem.isEmpty()) return null;
 
-            List<String> replacedLore = MarketUtils.replaceListing(lore, listing);
-
-            GooeyButton button = GooeyButton.builder()
-                    .display(displayItem)
-                    .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&e" + listing.getDisplayName()))
-                    .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(replacedLore)))
-                    .onClick(action -> {
-                        ListingDetailMenu.open(player, listing);
-                    })
-                    .build();
-
-            buttons.add(button);
-        }
-
-        return buttons;
+        displayItem.set(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative("&e" + listing.getDisplayName()));
+        displayItem.set(DataComponents.LORE, new ItemLore(CobbleMarket.language.getMyListingTemplate().render(listing)));
+        return displayItem;
     }
 
-    private static void addNavigationButtons(LinkedPage page, ServerPlayer player, Lang.UIButtons buttons) {
-        LinkedPage current = page;
-        while (current != null) {
-            ChestTemplate template = (ChestTemplate) current.getTemplate();
-
-            // Fill bottom row
-            GooeyButton filler = buttons.getFiller().getButton(action -> {});
-            for (int i = 45; i < 54; i++) {
-                template.set(i, filler);
-            }
-
-            // Previous page
-            LinkedPageButton prevButton = LinkedPageButton.builder()
-                    .display(buttons.getPreviousPage().getItemStack())
-                    .linkType(LinkType.Previous)
-                    .build();
-            template.set(45, prevButton);
-
-            // Next page
-            LinkedPageButton nextButton = LinkedPageButton.builder()
-                    .display(buttons.getNextPage().getItemStack())
-                    .linkType(LinkType.Next)
-                    .build();
-            template.set(53, nextButton);
-
-            // Back button
-            GooeyButton backBtn = buttons.getBack().getButton(action -> {
-                MarketMainMenu.open(player);
-            });
-            template.set(49, backBtn);
-
-            current = current.getNext();
-        }
+    private static void addNavigationButtons(ChestTemplate.Builder template, ServerPlayer player, Lang.UIButtons buttons) {
+        // Back button
+        GooeyButton backBtn = buttons.getBack().getButton(action -> {
+            MarketMainMenu.open(player);
+        });
+        template.set(49, backBtn);
     }
 }
@@ -0,0 +1,86 @@
+package com.whoslucid.cobblemarket.ui;
+
+import com.whoslucid.cobblemarket.CobbleMarket;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of rendered browse pages (display items with their name and lore), shared by every player.
+ * Pages are keyed by view, cursor and market version, so any listing change makes older entries unreachable;
+ * they are also re-rendered after {@code pageCacheSeconds} so remaining times stay fresh.
+ * Only display items are cached, click handlers are bound per player when a page opens.
+ */
+public class PageCache {
+
+    /**
+     * @param view    what is browsed (menu, filter, search and order); must implement equals/hashCode
+     * @param cursor  position of the page, null for the first one
+     * @param version market version the page was rendered at
+     */
+    public record Key(Object view, Object cursor, long version) {
+    }
+
+    private static final Map<Key, PagedMenu.Rendered<?, ?>> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PagedMenu.Rendered<?, ?>> eldest) {
+            return size() > Math.max(0, CobbleMarket.config.getPageCacheSize());
+        }
+    };
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    /**
+     * Get a rendered page, or null if it is missing or too old
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, C> PagedMenu.Rendered<T, C> get(Key key) {
+        long maxAge = CobbleMarket.config.getPageCacheSeconds() * 1000L;
+        synchronized (CACHE) {
+            PagedMenu.Rendered<?, ?> rendered = CACHE.get(key);
+            if (rendered != null && System.currentTimeMillis() - rendered.renderedAt() <= maxAge) {
+                hits++;
+                return (PagedMenu.Rendered<T, C>) rendered;
+            }
+            if (rendered != null) CACHE.remove(key);
+            misses++;
+            return null;
+        }
+    }
+
+    public static void put(Key key, PagedMenu.Rendered<?, ?> rendered) {
+        if (CobbleMarket.config.getPageCacheSize() <= 0) return;
+        synchronized (CACHE) {
+            CACHE.put(key, rendered);
+        }
+    }
+
+    /**
+     * Drop all rendered pages (e.g. after the language file was reloaded)
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Get the number of cached pages
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * Get the share of lookups served from the cache, in percent
+     */
+    public static int getHitRate() {
+        synchronized (CACHE) {
+            long total = hits + misses;
+            return total == 0 ? 0 : (int) (hits * 100 / total);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.whoslucid.cobblemarket.ui;
+
+import ca.landonjw.gooeylibs2.api.button.ButtonAction;
+import ca.landonjw.gooeylibs2.api.button.GooeyButton;
+import ca.landonjw.gooeylibs2.api.page.GooeyPage;
+import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
+import com.whoslucid.cobblelib.util.AdventureTranslator;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.config.Lang;
+import com.whoslucid.cobblemarket.util.Page;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Chest menu showing one page of a cursor-paged query at a time.
+ * Only the visible page is fetched and rendered; the next one is prefetched in the background when enabled,
+ * and previous pages are fetched again from their remembered cursors.
+ * Menus that look the same to every player pass a view key, and their rendered pages are shared through
+ * the {@link PageCache}; click handlers are bound to the player when the page opens.
+ * Pages are built through the player's {@link UiSession}, so a burst of page clicks only builds the last page.
+ */
+public class PagedMenu<T, C> {
+
+    public static final int PAGE_SIZE = 45;
+
+    /**
+     * Fetches the page after a cursor (null for the first page)
+     */
+    @FunctionalInterface
+    public interface Source<T, C> {
+        Page<T, C> fetch(C cursor, int limit);
+    }
+
+    /**
+     * Page with the display item of each entry (entries without one are left out)
+     */
+    record Rendered<T, C>(Page<T, C> page, List<ItemStack> displays, long version, long renderedAt) {
+    }
+
+    private final ServerPlayer player;
+    private final String title;
+    private final Object view;
+    private final Source<T, C> source;
+    private final Function<T, ItemStack> renderer;
+    private final BiConsumer<T, ButtonAction> onClick;
+    private final Consumer<ChestTemplate.Builder> decorator;
+
+    // Guarded by this
+    private C prefetchedCursor;
+    private CompletableFuture<Rendered<T, C>> prefetched;
+
+    private PagedMenu(ServerPlayer player, String title, Object view, Source<T, C> source,
+                      Function<T, ItemStack> renderer, BiConsumer<T, ButtonAction> onClick,
+                      Consumer<ChestTemplate.Builder> decorator) {
+        this.player = player;
+        this.title = title;
+        this.view = view;
+        this.source = source;
+        this.renderer = renderer;
+        this.onClick = onClick;
+        this.decorator = decorator;
+    }
+
+    /**
+     * Open the first page of a query
+     *
+     * @param view      key of what is browsed if it renders the same for every player (shared through the
+     *                  page cache), or null for per-player menus
+     * @param renderer  builds the display item of an entry (null to skip it); must not depend on the player
+     * @param onClick   handles a click on an entry
+     * @param decorator adds the menu's own buttons to the bottom row (slots 46-52)
+     */
+    public static <T, C> void open(ServerPlayer player, String title, Object view, Source<T, C> source,
+                                   Function<T, ItemStack> renderer, BiConsumer<T, ButtonAction> onClick,
+                                   Consumer<ChestTemplate.Builder> decorator) {
+        new PagedMenu<>(player, title, view, source, renderer, onClick, decorator).show(null, List.of());
+    }
+
+    /**
+     * Show the page at a cursor
+     *
+     * @param previous cursors of the pages before it, oldest first (the first page's cursor is null)
+     */
+    private void show(C cursor, List<C> previous) {
+        UiSession.open(player, "paged menu " + title, () -> {
+            Rendered<T, C> rendered = takePrefetched(cursor);
+            GooeyPage page = GooeyPage.builder()
+                    .template(buildTemplate(rendered, cursor, previous))
+                    .title(AdventureTranslator.toNative(title))
+                    .build();
+
+            prefetchNext(rendered);
+            return page;
+        });
+    }
+
+    /**
+     * Fetch and render the page at a cursor, or take it from the page cache
+     */
+    private Rendered<T, C> render(C at) {
+        long version = CobbleMarket.listingManager.getVersion();
+        PageCache.Key key = view != null ? new PageCache.Key(view, at, version) : null;
+        if (key != null) {
+            Rendered<T, C> cached = PageCache.get(key);
+            if (cached != null) return cached;
+        }
+
+        Page<T, C> page = source.fetch(at, PAGE_SIZE);
+        List<T> items = new ArrayList<>(page.items().size());
+        List<ItemStack> displays = new ArrayList<>(page.items().size());
+        for (T item : page.items()) {
+            ItemStack display = renderer.apply(item);
+            if (display == null || display.isEmpty()) continue;
+            items.add(item);
+            displays.add(display);
+        }
+
+        Rendered<T, C> rendered = new Rendered<>(new Page<>(items, page.next()), displays, version,
+                System.currentTimeMillis());
+        if (key != null) PageCache.put(key, rendered);
+        return rendered;
+    }
+
+    /**
+     * Use the prefetched page if it is for this cursor and the market did not change since, otherwise render now
+     */
+    private synchronized Rendered<T, C> takePrefetched(C at) {
+        CompletableFuture<Rendered<T, C>> future = prefetched;
+        boolean match = future != null && Objects.equals(prefetchedCursor, at);
+        prefetched = null;
+        prefetchedCursor = null;
+
+        if (match) {
+            Rendered<T, C> rendered = future.exceptionally(e -> null).join();
+            if (rendered != null && rendered.version() == CobbleMarket.listingManager.getVersion()) {
+                return rendered;
+            }
+        }
+        return render(at);
+    }
+
+    private synchronized void prefetchNext(Rendered<T, C> current) {
+        if (!CobbleMarket.config.isPrefetchNextPage() || !current.page().hasNext()) return;
+
+        C next = current.page().next();
+        prefetchedCursor = next;
+        prefetched = CompletableFuture.supplyAsync(() -> render(next), CobbleMarket.WORKERS);
+    }
+
+    private ChestTemplate buildTemplate(Rendered<T, C> rendered, C cursor, List<C> previous) {
+        ChestTemplate.Builder builder = ChestTemplate.builder(6);
+        Lang.UIButtons buttons = CobbleMarket.language.getButtons();
+
+        // Displays may be shared with other players, only the click handlers are this player's
+        List<T> items = rendered.page().items();
+        List<ItemStack> displays = rendered.displays();
+        for (int i = 0; i < displays.size() && i < PAGE_SIZE; i++) {
+            T item = items.get(i);
+            builder.set(i, GooeyButton.builder()
+                    .display(displays.get(i))
+                    .onClick(action -> onClick.accept(item, action))
+                    .build());
+        }
+
+        // Bottom row
+        GooeyButton filler = buttons.getFiller().getButton(action -> {});
+        for (int i = 45; i < 54; i++) {
+            builder.set(i, filler);
+        }
+        decorator.accept(builder);
+
+        // Navigation targets are fixed when the page is built, so repeated clicks on one page coalesce
+        if (!previous.isEmpty()) {
+            C back = previous.get(previous.size() - 1);
+            List<C> beforeBack = previous.subList(0, previous.size() - 1);
+            builder.set(45, buttons.getPreviousPage().getButton(action -> show(back, beforeBack)));
+        }
+        if (rendered.page().hasNext()) {
+            List<C> beforeNext = new ArrayList<>(previous);
+            beforeNext.add(cursor);
+            builder.set(53, buttons.getNextPage().getButton(action -> show(rendered.page().next(), beforeNext)));
+        }
+        return builder.build();
+    }
+}
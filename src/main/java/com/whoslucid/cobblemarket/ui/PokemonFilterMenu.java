@@ -0,0 +1,180 @@
+package com.whoslucid.cobblemarket.ui;
+
+import ca.landonjw.gooeylibs2.api.button.GooeyButton;
+import ca.landonjw.gooeylibs2.api.page.GooeyPage;
+import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblelib.Model.ItemModel;
+import com.whoslucid.cobblelib.util.AdventureTranslator;
+import com.whoslucid.cobblelib.util.PokemonUtils;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.config.Lang;
+import com.whoslucid.cobblemarket.listing.ListingManager;
+import com.whoslucid.cobblemarket.listing.index.AttributeIndex;
+import com.whoslucid.cobblemarket.listing.index.ListingFilter;
+import com.whoslucid.cobblemarket.listing.index.SortMode;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.component.ItemLore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Combinable filters for the Pokemon listings menu.
+ * Every button shows how many listings would match with that option selected, straight from the attribute index.
+ */
+public class PokemonFilterMenu {
+
+    private static final int SHINY_SLOT = 2;
+    private static final int LEGENDARY_SLOT = 3;
+    private static final int TYPES_START_SLOT = 9;
+    private static final int TYPES_MAX = 18;
+
+    public static void open(ServerPlayer player, ListingFilter filter, String searchQuery, SortMode sort) {
+        UiSession.open(player, "PokemonFilterMenu", () -> {
+            try {
+                ChestTemplate template = buildTemplate(player, filter, searchQuery, sort);
+                GooeyPage page = GooeyPage.builder()
+                        .template(template)
+                        .title(AdventureTranslator.toNative(CobbleMarket.language.getTitlePokemonFilters()))
+                        .build();
+
+                return page;
+            } catch (Exception e) {
+                CobbleLib.LOGGER.error("Error opening PokemonFilterMenu: " + e.getMessage());
+                e.printStackTrace();
+                return null;
+            }
+        });
+    }
+
+    private static ChestTemplate buildTemplate(ServerPlayer player, ListingFilter filter, String searchQuery,
+                                               SortMode sort) {
+        ChestTemplate.Builder builder = ChestTemplate.builder(6);
+        Lang.UIButtons buttons = CobbleMarket.language.getButtons();
+        ListingManager manager = CobbleMarket.listingManager;
+        AttributeIndex index = manager.getAttributeIndex();
+
+        GooeyButton filler = buttons.getFiller().getButton(action -> {});
+        for (int i = 0; i < 54; i++) {
+            builder.set(i, filler);
+        }
+
+        // Rarity and ability flags
+        builder.set(SHINY_SLOT, flagButton(player, buttons.getFilterShiny(), ListingFilter.Flag.SHINY, filter, searchQuery, sort));
+        builder.set(LEGENDARY_SLOT, flagButton(player, buttons.getFilterLegendary(), ListingFilter.Flag.LEGENDARY, filter, searchQuery, sort));
+        builder.set(buttons.getFilterMythical().getSlot(),
+                flagButton(player, buttons.getFilterMythical(), ListingFilter.Flag.MYTHICAL, filter, searchQuery, sort));
+        builder.set(buttons.getFilterUltraBeast().getSlot(),
+                flagButton(player, buttons.getFilterUltraBeast(), ListingFilter.Flag.ULTRA_BEAST, filter, searchQuery, sort));
+        builder.set(buttons.getFilterHiddenAbility().getSlot(),
+                flagButton(player, buttons.getFilterHiddenAbility(), ListingFilter.Flag.HIDDEN_ABILITY, filter, searchQuery, sort));
+
+        // Types on the market, combined with OR
+        List<String> types = index.values(AttributeIndex.TYPE_PREFIX);
+        for (int i = 0; i < types.size() && i < TYPES_MAX; i++) {
+            String type = types.get(i);
+            boolean active = filter.getTypes().contains(type);
+            ListingFilter withType = filter.withType(type, true);
+            builder.set(TYPES_START_SLOT + i, button(buttons.getFilterType(), PokemonUtils.capitalize(type), active,
+                    manager.countPokemonListings(withType, searchQuery),
+                    () -> open(player, filter.withType(type, !active), searchQuery, sort)));
+        }
+
+        // Perfect IVs: Any, 1+ ... 6
+        int ivs = filter.getMinPerfectIvs();
+        int nextIvs = (ivs + 1) % 7;
+        builder.set(buttons.getFilterPerfectIvs().getSlot(), button(buttons.getFilterPerfectIvs(),
+                ivs == 0 ? buttons.getFilterAny() : ivs == 6 ? "6" : ivs + "+", ivs > 0,
+                manager.countPokemonListings(filter, searchQuery),
+                () -> open(player, filter.withMinPerfectIvs(nextIvs), searchQuery, sort)));
+
+        // Nature, level band and currency cycle through the values on the market
+        builder.set(buttons.getFilterNature().getSlot(), cycleButton(player, buttons, buttons.getFilterNature(),
+                filter, searchQuery, sort, index.values(AttributeIndex.NATURE_PREFIX), filter.getNatures(),
+                ListingFilter::withNature, PokemonUtils::capitalize));
+
+        List<Integer> bands = new ArrayList<>();
+        for (int band = 0; band < AttributeIndex.LEVEL_BANDS; band++) {
+            bands.add(band);
+        }
+        builder.set(buttons.getFilterLevel().getSlot(), cycleButton(player, buttons, buttons.getFilterLevel(),
+                filter, searchQuery, sort, bands, filter.getLevelBands(),
+                ListingFilter::withLevelBand, AttributeIndex::bandLabel));
+
+        builder.set(buttons.getFilterCurrency().getSlot(), cycleButton(player, buttons, buttons.getFilterCurrency(),
+                filter, searchQuery, sort, index.values(AttributeIndex.CURRENCY_PREFIX), filter.getCurrencies(),
+                ListingFilter::withCurrency, PokemonUtils::capitalize));
+
+        // Navigation
+        builder.set(45, buttons.getBack().getButton(action -> PokemonListingsMenu.open(player, filter, searchQuery, sort)));
+        builder.set(buttons.getFilterClear().getSlot(), buttons.getFilterClear().getButton(action ->
+                open(player, ListingFilter.NONE, searchQuery, sort)));
+        builder.set(buttons.getFilterApply().getSlot(), button(buttons.getFilterApply(), "", false,
+                manager.countPokemonListings(filter, searchQuery),
+                () -> PokemonListingsMenu.open(player, filter, searchQuery, sort)));
+
+        return builder.build();
+    }
+
+    /**
+     * Toggle button for a flag, counting the matches with the flag on
+     */
+    private static GooeyButton flagButton(ServerPlayer player, ItemModel model, ListingFilter.Flag flag,
+                                          ListingFilter filter, String searchQuery, SortMode sort) {
+        boolean active = filter.has(flag);
+        int count = CobbleMarket.listingManager.countPokemonListings(filter.withFlag(flag, true), searchQuery);
+        return button(model, "", active, count, () -> open(player, filter.withFlag(flag, !active), searchQuery, sort));
+    }
+
+    /**
+     * Button cycling a single selected value of a category: Any, then every value in order
+     */
+    private static <T> GooeyButton cycleButton(ServerPlayer player, Lang.UIButtons buttons, ItemModel model,
+                                               ListingFilter filter, String searchQuery, SortMode sort, List<T> values,
+                                               Set<T> selected, Toggle<T> toggle, Function<T, String> label) {
+        T current = selected.isEmpty() ? null : selected.iterator().next();
+        int position = current != null ? values.indexOf(current) : -1;
+        T next = position + 1 < values.size() ? values.get(position + 1) : null;
+
+        ListingFilter cleared = filter;
+        for (T value : selected) {
+            cleared = toggle.apply(cleared, value, false);
+        }
+        ListingFilter nextFilter = next != null ? toggle.apply(cleared, next, true) : cleared;
+
+        return button(model, current != null ? label.apply(current) : buttons.getFilterAny(), current != null,
+                CobbleMarket.listingManager.countPokemonListings(filter, searchQuery),
+                () -> open(player, nextFilter, searchQuery, sort));
+    }
+
+    /**
+     * Filter button with the current value, an active marker and the match count in the lore
+     */
+    static GooeyButton button(ItemModel model, String value, boolean active, int count, Runnable onClick) {
+        Lang language = CobbleMarket.language;
+        String title = model.getDisplayname().replace("%value%", value);
+        if (active) {
+            title += " " + language.getButtons().getFilterActive();
+        }
+
+        List<String> lore = new ArrayList<>(model.getLore());
+        lore.add("");
+        lore.add(language.getButtons().getFilterCount().replace("%count%", String.valueOf(count)));
+
+        return GooeyButton.builder()
+                .display(model.getItemStack())
+                .with(DataComponents.CUSTOM_NAME, AdventureTranslator.toNative(title))
+                .with(DataComponents.LORE, new ItemLore(AdventureTranslator.toNativeL(lore)))
+                .onClick(action -> onClick.run())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Toggle<T> {
+        ListingFilter apply(ListingFilter filter, T value, boolean enabled);
+    }
+}
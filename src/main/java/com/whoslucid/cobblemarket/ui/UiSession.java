@@ -0,0 +1,111 @@
+package com.whoslucid.cobblemarket.ui;
+
+import ca.landonjw.gooeylibs2.api.UIManager;
+import ca.landonjw.gooeylibs2.api.page.GooeyPage;
+import com.whoslucid.cobblelib.CobbleLib;
+import com.whoslucid.cobblemarket.CobbleMarket;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the latest menu a player asked for. Every open request supersedes the previous ones:
+ * builds that are no longer the latest are skipped before they start and their pages are never shown.
+ * Requests arriving within {@code menuDebounceMillis} of the previous one are delayed to the end of that window,
+ * so a burst of clicks builds only the last menu.
+ */
+public class UiSession {
+
+    private static final Map<UUID, UiSession> SESSIONS = new ConcurrentHashMap<>();
+    private static final AtomicLong SKIPPED = new AtomicLong();
+
+    private final UUID playerUuid;
+    // Guarded by this
+    private long generation = 0;
+    private long lastRequest = 0;
+
+    private UiSession(UUID playerUuid) {
+        this.playerUuid = playerUuid;
+    }
+
+    /**
+     * Build a menu on the player's UI lane and open it, unless a newer menu was requested in the meantime
+     *
+     * @param name    menu name for error logs
+     * @param builder builds the page (null to open nothing)
+     */
+    public static void open(ServerPlayer player, String name, Supplier<GooeyPage> builder) {
+        SESSIONS.computeIfAbsent(player.getUUID(), UiSession::new).request(player, name, builder);
+    }
+
+    /**
+     * Drop a player's session, skipping any build still queued for them
+     */
+    public static void close(UUID playerUuid) {
+        UiSession session = SESSIONS.remove(playerUuid);
+        if (session != null) {
+            synchronized (session) {
+                session.generation++;
+            }
+        }
+    }
+
+    /**
+     * Get the number of builds skipped because a newer menu was requested
+     */
+    public static long getSkipped() {
+        return SKIPPED.get();
+    }
+
+    private void request(ServerPlayer player, String name, Supplier<GooeyPage> builder) {
+        long ticket;
+        long delay;
+        synchronized (this) {
+            ticket = ++generation;
+            long now = System.currentTimeMillis();
+            delay = lastRequest + CobbleMarket.config.getMenuDebounceMillis() - now;
+            lastRequest = now;
+        }
+
+        Executor lane = CobbleMarket.UI.ordered(playerUuid);
+        Runnable build = () -> build(player, name, builder, ticket);
+        if (delay > 0) {
+            CobbleMarket.SCHEDULER.schedule(() -> lane.execute(build), delay, TimeUnit.MILLISECONDS);
+        } else {
+            lane.execute(build);
+        }
+    }
+
+    private void build(ServerPlayer player, String name, Supplier<GooeyPage> builder, long ticket) {
+        if (!isCurrent(ticket)) {
+            SKIPPED.incrementAndGet();
+            return;
+        }
+
+        try {
+            GooeyPage page = builder.get();
+            if (page == null) return;
+
+            player.getServer().execute(() -> {
+                if (isCurrent(ticket)) {
+                    UIManager.openUIForcefully(player, page);
+                } else {
+                    SKIPPED.incrementAndGet();
+                }
+            });
+        } catch (Exception e) {
+            CobbleLib.LOGGER.error("Error opening " + name + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized boolean isCurrent(long ticket) {
+        return generation == ticket;
+    }
+}
@@ -0,0 +1,124 @@
+package com.whoslucid.cobblemarket.util;
+
+import com.whoslucid.cobblelib.util.AdventureTranslator;
+import com.whoslucid.cobblemarket.listing.Listing;
+import com.whoslucid.cobblemarket.listing.PokemonListing;
+import net.minecraft.network.chat.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lore lines compiled once into literal segments and placeholder slots.
+ * Rendering resolves every distinct placeholder at most once per listing and builds each line in a single pass;
+ * lines without placeholders are translated to components at compile time and shared between renders.
+ */
+public class LoreTemplate {
+
+    public static final Pattern PLACEHOLDER = Pattern.compile("%[a-z_]+%");
+
+    /**
+     * A compiled line: either a constant component, or literals interleaved with placeholder slots
+     * ({@code literals} has one more element than {@code slots})
+     */
+    private record Line(Component constant, String[] literals, int[] slots) {
+    }
+
+    private final List<Line> lines;
+    // Slot -> placeholder token
+    private final String[] tokens;
+
+    private LoreTemplate(List<Line> lines, String[] tokens) {
+        this.lines = lines;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Compile the concatenation of lore sections
+     */
+    @SafeVarargs
+    public static LoreTemplate compile(List<String>... sections) {
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        List<Line> lines = new ArrayList<>();
+
+        for (List<String> section : sections) {
+            if (section == null) continue;
+            for (String text : section) {
+                lines.add(compileLine(text != null ? text : "", slots));
+            }
+        }
+        return new LoreTemplate(List.copyOf(lines), slots.keySet().toArray(new String[0]));
+    }
+
+    private static Line compileLine(String text, Map<String, Integer> slots) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        List<String> literals = new ArrayList<>();
+        List<Integer> lineSlots = new ArrayList<>();
+
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(last, matcher.start()));
+            lineSlots.add(slots.computeIfAbsent(matcher.group(), token -> slots.size()));
+            last = matcher.end();
+        }
+        if (lineSlots.isEmpty()) {
+            return new Line(AdventureTranslator.toNative(text), null, null);
+        }
+        literals.add(text.substring(last));
+
+        int[] slotArray = new int[lineSlots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = lineSlots.get(i);
+        }
+        return new Line(null, literals.toArray(new String[0]), slotArray);
+    }
+
+    /**
+     * Render the lore of a listing
+     */
+    public List<Component> render(Listing<?> listing) {
+        String[] values = new String[tokens.length];
+        List<Component> rendered = new ArrayList<>(lines.size());
+        StringBuilder sb = new StringBuilder(64);
+
+        for (Line line : lines) {
+            if (line.constant() != null) {
+                rendered.add(line.constant());
+                continue;
+            }
+
+            sb.setLength(0);
+            sb.append(line.literals()[0]);
+            for (int i = 0; i < line.slots().length; i++) {
+                int slot = line.slots()[i];
+                if (values[slot] == null) {
+                    values[slot] = resolve(tokens[slot], listing);
+                }
+                sb.append(values[slot]).append(line.literals()[i + 1]);
+            }
+            rendered.add(AdventureTranslator.toNative(sb.toString()));
+        }
+        return rendered;
+    }
+
+    /**
+     * Get the number of lines
+     */
+    public int size() {
+        return lines.size();
+    }
+
+    /**
+     * Resolve a placeholder: Pokemon placeholders first (as {@link MarketUtils#replaceListing} does),
+     * then listing placeholders; unknown ones are kept as-is
+     */
+    private static String resolve(String token, Listing<?> listing) {
+        if (listing instanceof PokemonListing pokemonListing) {
+            String value = pokemonListing.replacePokemonPlaceholders(token);
+            if (!token.equals(value)) return value;
+        }
+        String value = MarketUtils.resolvePlaceholder(token, listing);
+        return value != null ? value : token;
+    }
+}
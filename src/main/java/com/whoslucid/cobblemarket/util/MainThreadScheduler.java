@@ -0,0 +1,119 @@
+package com.whoslucid.cobblemarket.util;
+
+import com.whoslucid.cobblelib.CobbleLib;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs market work on the server thread within a per-tick time budget.
+ * Tasks are run in priority order; whatever does not fit in a tick's budget waits for the next tick,
+ * so a large batch of due listings is spread over several ticks instead of stalling one.
+ */
+public class MainThreadScheduler {
+
+    public enum Priority {
+        INTERACTIVE, // Work a player is waiting on
+        SETTLEMENT,  // Auction endings (payouts, delivery)
+        BULK         // Listing expirations
+    }
+
+    private final Map<Priority, Queue<Runnable>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicInteger> depths = new EnumMap<>(Priority.class);
+
+    private volatile long lastTickMicros = 0;
+    private volatile int lastTickTasks = 0;
+    private volatile long ticksOverBudget = 0;
+
+    public MainThreadScheduler() {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ConcurrentLinkedQueue<>());
+            depths.put(priority, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Queue a task to run on the server thread (thread-safe)
+     */
+    public void submit(Priority priority, Runnable task) {
+        queues.get(priority).add(task);
+        depths.get(priority).incrementAndGet();
+    }
+
+    /**
+     * Run queued tasks until the budget is used up. At least one task runs per tick so the backlog always drains.
+     * Must be called from the server thread.
+     */
+    public void runTick(long budgetMicros) {
+        long start = System.nanoTime();
+        long deadline = start + Math.max(0, budgetMicros) * 1000L;
+        int ran = 0;
+
+        for (Priority priority : Priority.values()) {
+            Queue<Runnable> queue = queues.get(priority);
+            while (ran == 0 || System.nanoTime() < deadline) {
+                Runnable task = queue.poll();
+                if (task == null) break;
+                depths.get(priority).decrementAndGet();
+
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    CobbleLib.LOGGER.error("Market task failed: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                ran++;
+            }
+            if (ran > 0 && System.nanoTime() >= deadline) break;
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1000L;
+        if (ran > 0) {
+            lastTickMicros = elapsed;
+            lastTickTasks = ran;
+            if (elapsed > budgetMicros) ticksOverBudget++;
+        }
+    }
+
+    /**
+     * Get the number of queued tasks of a priority
+     */
+    public int getBacklog(Priority priority) {
+        return depths.get(priority).get();
+    }
+
+    /**
+     * Get the total number of queued tasks
+     */
+    public int getBacklog() {
+        int total = 0;
+        for (AtomicInteger depth : depths.values()) {
+            total += depth.get();
+        }
+        return total;
+    }
+
+    /**
+     * Time spent in the last tick that ran any task, in microseconds
+     */
+    public long getLastTickMicros() {
+        return lastTickMicros;
+    }
+
+    /**
+     * Number of tasks run in the last tick that ran any task
+     */
+    public int getLastTickTasks() {
+        return lastTickTasks;
+    }
+
+    /**
+     * Number of ticks that ran over the budget (a single long task can do this)
+     */
+    public long getTicksOverBudget() {
+        return ticksOverBudget;
+    }
+}
@@ -0,0 +1,262 @@
+package com.whoslucid.cobblemarket.util;
+
+import com.whoslucid.cobblelib.CobbleLib;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounded executor lane with per-key ordering and queue metrics.
+ * Tasks submitted with the same key (a listing, a player, a file) run one at a time in submission order;
+ * tasks with different keys may run in parallel on the backing threads. At most {@code capacity} tasks
+ * may be pending; beyond that the lane's {@link Overflow} policy applies instead of queueing without bound.
+ */
+public class MarketExecutor {
+
+    public enum Overflow {
+        BLOCK,      // The submitter waits for room (writes that must not be lost)
+        DROP_OLDEST,// The oldest queued task is dropped and never runs (menus, notifications)
+        REJECT      // The new task is refused and the submitter is told so (player commands)
+    }
+
+    private static final ThreadLocal<MarketExecutor> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final ExecutorService threads;
+    private final Lane[] lanes;
+    private final IntSupplier capacity;
+    private final Overflow overflow;
+
+    // Guarded by this
+    private int pending = 0;
+    private int running = 0;
+    private long completed = 0;
+    private long dropped = 0;
+    private long blocked = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+
+    /**
+     * @param lanes    number of ordering lanes; keys are hashed onto them
+     * @param capacity maximum number of pending tasks, read on every submit so it follows config reloads
+     */
+    public MarketExecutor(String name, ExecutorService threads, int lanes, IntSupplier capacity, Overflow overflow) {
+        this.name = name;
+        this.threads = threads;
+        this.lanes = new Lane[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane();
+        }
+        this.capacity = capacity;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Get an executor running its tasks in order with every other task of the same key
+     */
+    public Executor ordered(Object key) {
+        return task -> execute(key, task);
+    }
+
+    /**
+     * Run a task after every task previously submitted with the same key
+     *
+     * @return false if the task was refused or dropped because the lane is full
+     */
+    public boolean execute(Object key, Runnable task) {
+        Lane lane = lanes[Math.floorMod(Objects.hashCode(key), lanes.length)];
+        if (!reserve(lane)) return false;
+
+        if (lane.offer(new Task(task, System.nanoTime()))) {
+            threads.execute(lane);
+        }
+        return true;
+    }
+
+    /**
+     * Make room for a task according to the overflow policy
+     *
+     * @return false if the new task itself was dropped
+     */
+    private synchronized boolean reserve(Lane lane) {
+        while (pending >= Math.max(1, capacity.getAsInt())) {
+            // Waiting from one of our own tasks could wait forever, so those always get through
+            if (overflow == Overflow.BLOCK && CURRENT.get() != this) {
+                blocked++;
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            if (overflow == Overflow.BLOCK) break;
+
+            dropped++;
+            if (overflow == Overflow.REJECT || !dropOldest(lane)) {
+                CobbleLib.LOGGER.warn("Market executor " + name + " is full, dropping a task");
+                return false;
+            }
+            pending--;
+        }
+        pending++;
+        return true;
+    }
+
+    /**
+     * Drop the oldest queued task, preferring the lane the new task goes to
+     */
+    private boolean dropOldest(Lane preferred) {
+        if (preferred.dropOldest()) return true;
+        for (Lane lane : lanes) {
+            if (lane.dropOldest()) return true;
+        }
+        return false;
+    }
+
+    private synchronized void started(long waitNanos) {
+        running++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private synchronized void finished() {
+        running--;
+        pending--;
+        completed++;
+        notifyAll();
+    }
+
+    /**
+     * Wait until every pending task has run
+     *
+     * @return false if tasks were still pending after the timeout
+     */
+    public synchronized boolean awaitIdle(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pending > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Let pending tasks finish and stop the backing threads
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        if (!awaitIdle(timeout, unit)) {
+            CobbleLib.LOGGER.warn("Market executor " + name + " still had " + getPending() + " tasks at shutdown");
+        }
+        threads.shutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of tasks waiting or running
+     */
+    public synchronized int getPending() {
+        return pending;
+    }
+
+    /**
+     * Get the number of tasks waiting to start
+     */
+    public synchronized int getQueued() {
+        return pending - running;
+    }
+
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Get the number of times a submitter had to wait for room
+     */
+    public synchronized long getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Get the average time tasks waited before starting
+     */
+    public synchronized long getAverageWaitMicros() {
+        long started = completed + running;
+        return started == 0 ? 0 : totalWaitNanos / started / 1000L;
+    }
+
+    public synchronized long getMaxWaitMicros() {
+        return maxWaitNanos / 1000L;
+    }
+
+    private record Task(Runnable runnable, long queuedAt) {
+    }
+
+    /**
+     * Tasks of the keys hashed to one lane, run one at a time by whichever backing thread picked the lane up
+     */
+    private final class Lane implements Runnable {
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private boolean scheduled = false;
+
+        /**
+         * Queue a task
+         *
+         * @return true if the lane must be scheduled on a backing thread
+         */
+        synchronized boolean offer(Task task) {
+            tasks.add(task);
+            if (scheduled) return false;
+            scheduled = true;
+            return true;
+        }
+
+        synchronized boolean dropOldest() {
+            return tasks.pollFirst() != null;
+        }
+
+        private synchronized Task next() {
+            Task task = tasks.pollFirst();
+            if (task == null) scheduled = false;
+            return task;
+        }
+
+        @Override
+        public void run() {
+            CURRENT.set(MarketExecutor.this);
+            try {
+                Task task;
+                while ((task = next()) != null) {
+                    started(System.nanoTime() - task.queuedAt());
+                    try {
+                        task.runnable().run();
+                    } catch (Throwable e) {
+                        CobbleLib.LOGGER.error("Error in market executor " + name + ": " + e.getMessage());
+                    } finally {
+                        finished();
+                    }
+                }
+            } finally {
+                CURRENT.remove();
+            }
+        }
+    }
+}
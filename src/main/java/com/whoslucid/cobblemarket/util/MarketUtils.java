@@ -1,45 +1,74 @@
 package com.whoslucid.cobblemarket.util;
 
 import com.cobblemon.mod.common.pokemon.Pokemon;
-import com.whoslucid.cobblelib.util.PokemonUtils;
 import com.whoslucid.cobblemarket.CobbleMarket;
+import com.whoslucid.cobblemarket.auction.AuctionState;
 import com.whoslucid.cobblemarket.listing.Listing;
 import com.whoslucid.cobblemarket.listing.PokemonListing;
 import net.minecraft.world.item.ItemStack;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.regex.Matcher;
 
 public class MarketUtils {
 
     /**
-     * Replace placeholders in a string with listing data
+     * Replace placeholders in a string with listing data.
+     * Menus rendering many listings should use a compiled {@link LoreTemplate} instead.
      */
     public static String replaceListing(String text, Listing<?> listing) {
         if (text == null || listing == null) return text;
 
-        text = text.replace("%listing_id%", listing.getId().toString());
-        text = text.replace("%seller%", listing.getSellerName());
-        text = text.replace("%price%", formatPrice(listing.getPrice()));
-        text = text.replace("%currency%", listing.getCurrency().getCurrency());
-        text = text.replace("%time_remaining%", TimeUtils.formatDuration(listing.getRemainingTime()));
-        text = text.replace("%listing_type%", listing.getListingType().name());
+        // Pokemon placeholders first, on the raw template line, so the result can be cached per line
+        if (listing instanceof PokemonListing pokemonListing) {
+            text = pokemonListing.replacePokemonPlaceholders(text);
+        }
+        if (text.indexOf('%') < 0) return text;
+
+        Matcher matcher = LoreTemplate.PLACEHOLDER.matcher(text);
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        while (matcher.find()) {
+            String value = resolvePlaceholder(matcher.group(), listing);
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Get the value of a listing placeholder, or null if it is not one
+     */
+    public static String resolvePlaceholder(String token, Listing<?> listing) {
+        switch (token) {
+            case "%listing_id%": return listing.getId().toString();
+            case "%seller%": return listing.getSellerName();
+            case "%price%": return formatPrice(listing.getPrice());
+            case "%currency%": return listing.getCurrency().getCurrency();
+            case "%time_remaining%": return TimeUtils.formatDuration(listing.getRemainingTime());
+            case "%listing_type%": return listing.getListingType().name();
+        }
 
         if (listing instanceof PokemonListing pokemonListing) {
-            text = text.replace("%listing_name%", pokemonListing.getSpecies());
-            text = text.replace("%level%", String.valueOf(pokemonListing.getLevel()));
-            text = text.replace("%shiny_display%", pokemonListing.isShiny() ? "&a&lYES" : "&7No");
-            text = text.replace("%ivs_perfect%", String.valueOf(pokemonListing.getPerfectIvCount()));
-
-            Pokemon pokemon = pokemonListing.getPokemon();
-            if (pokemon != null) {
-                text = PokemonUtils.replace(text, pokemon);
+            switch (token) {
+                case "%listing_name%": return pokemonListing.getSpecies();
+                case "%level%": return String.valueOf(pokemonListing.getLevel());
+                case "%shiny_display%": return pokemonListing.isShiny() ? "&a&lYES" : "&7No";
+                case "%ivs_perfect%": return String.valueOf(pokemonListing.getPerfectIvCount());
             }
-        } else {
-            text = text.replace("%listing_name%", listing.getDisplayName());
+        } else if (token.equals("%listing_name%")) {
+            return listing.getDisplayName();
         }
 
-        return text;
+        AuctionState auction = listing.getAuction();
+        if (auction != null) {
+            switch (token) {
+                case "%current_bid%": return formatPrice(auction.getCurrentBid());
+                case "%bidder%": return auction.getHighestBidderName() != null ? auction.getHighestBidderName() : "No bids";
+                case "%min_next_bid%": return formatPrice(auction.getMinNextBid());
+            }
+        }
+        return null;
     }
 
     /**
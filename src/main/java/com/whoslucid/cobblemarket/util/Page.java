@@ -0,0 +1,44 @@
+package com.whoslucid.cobblemarket.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a cursor-paged query.
+ *
+ * @param items the entries of this page, in order
+ * @param next  the cursor of the following page, or null on the last page
+ */
+public record Page<T, C>(List<T> items, C next) {
+
+    public static <T, C> Page<T, C> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Map the entries of this page, keeping the cursor
+     */
+    public <R> Page<R, C> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        for (T item : items) {
+            R result = mapper.apply(item);
+            if (result != null) mapped.add(result);
+        }
+        return new Page<>(mapped, next);
+    }
+
+    /**
+     * Page an in-memory list by offset (for small per-player lists)
+     */
+    public static <T> Page<T, Integer> ofList(List<T> list, Integer offset, int limit) {
+        int from = Math.min(offset != null ? Math.max(offset, 0) : 0, list.size());
+        int to = Math.min(from + Math.max(limit, 0), list.size());
+        return new Page<>(new ArrayList<>(list.subList(from, to)), to < list.size() ? to : null);
+    }
+}
@@ -0,0 +1,218 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.whoslucid.cobblemarket.auction.AuctionState;
+import com.whoslucid.cobblemarket.auction.Bid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one listing with many buyers, bidders and settlers at once: the reservation must admit one holder
+ * at a time, exactly one caller may sell the listing, and the bidding state must end up as if the accepted
+ * maximum bids had been resolved one by one.
+ */
+class ListingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BIDS_PER_BIDDER = 2000;
+    private static final BigDecimal STARTING_PRICE = BigDecimal.valueOf(100);
+    private static final BigDecimal INCREMENT = BigDecimal.ONE;
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(THREADS + 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void manyBuyersSellOnce() throws Exception {
+        Listing<?> listing = new ItemListing();
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            buyers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (listing.getState() == ListingState.ACTIVE || listing.getState() == ListingState.RESERVED) {
+                    if (!listing.reserve()) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    assertEquals(1, holders.incrementAndGet(), "two callers held the reservation");
+                    holders.decrementAndGet();
+                    // Most buyers back out (could not afford it), one eventually completes the purchase
+                    if (random.nextInt(50) != 0) {
+                        listing.release();
+                    } else if (listing.transition(ListingState.RESERVED, ListingState.SOLD)) {
+                        sold.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        await(buyers);
+
+        assertEquals(1, sold.get());
+        assertEquals(ListingState.SOLD, listing.getState());
+        assertFalse(listing.reserve());
+        assertFalse(listing.transition(ListingState.RESERVED, ListingState.SOLD));
+    }
+
+    @Test
+    void manyBiddersResolveConsistently() throws Exception {
+        Listing<?> listing = new ItemListing();
+        listing.setAuction(new AuctionState(STARTING_PRICE, INCREMENT));
+        AuctionState auction = listing.getAuction();
+
+        // Highest accepted maximum of every bidder, and bids recorded by the resolutions
+        Map<UUID, BigDecimal> accepted = new ConcurrentHashMap<>();
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger holders = new AtomicInteger();
+        AtomicBoolean bidding = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> bidders = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int bidder = i;
+            UUID bidderUuid = UUID.randomUUID();
+            bidders.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int n = 0; n < BIDS_PER_BIDDER; n++) {
+                    // Distinct maxima across bidders, so no resolution depends on who bid first
+                    BigDecimal max = STARTING_PRICE.add(BigDecimal.valueOf((long) random.nextInt(BIDS_PER_BIDDER) * THREADS + bidder));
+                    while (!listing.reserve()) {
+                        Thread.onSpinWait();
+                    }
+                    try {
+                        assertEquals(1, holders.incrementAndGet(), "two bidders held the reservation");
+                        AuctionState.BidResult result = auction.placeMaxBid(bidderUuid, "bidder-" + bidder, max);
+                        listing.setPrice(auction.getCurrentBid());
+                        if (result.status() != AuctionState.BidStatus.TOO_LOW) {
+                            accepted.merge(bidderUuid, max, BigDecimal::max);
+                        }
+                        if (result.bid() != null) {
+                            recorded.incrementAndGet();
+                        }
+                    } finally {
+                        holders.decrementAndGet();
+                        listing.release();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Readers render and save the auction while it is being bid on
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (bidding.get()) {
+                    AuctionState copy = auction.copy();
+                    List<Bid> bids = copy.getBidHistory();
+                    if (bids.isEmpty()) {
+                        assertEquals(0, STARTING_PRICE.compareTo(copy.getCurrentBid()));
+                    } else {
+                        assertEquals(0, bids.get(bids.size() - 1).getAmount().compareTo(copy.getCurrentBid()),
+                                "copy mixes two resolutions");
+                    }
+                    for (Bid bid : auction.getBidHistory()) {
+                        assertNotNull(bid.getAmount());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        await(bidders);
+        bidding.set(false);
+        await(readers);
+
+        // The highest maximum leads, one increment above the best competing maximum
+        UUID leader = null;
+        BigDecimal leaderMax = null;
+        for (Map.Entry<UUID, BigDecimal> entry : accepted.entrySet()) {
+            if (leaderMax == null || entry.getValue().compareTo(leaderMax) > 0) {
+                leader = entry.getKey();
+                leaderMax = entry.getValue();
+            }
+        }
+        BigDecimal competing = null;
+        for (Map.Entry<UUID, BigDecimal> entry : accepted.entrySet()) {
+            if (!entry.getKey().equals(leader) && (competing == null || entry.getValue().compareTo(competing) > 0)) {
+                competing = entry.getValue();
+            }
+        }
+        BigDecimal expectedBid = competing == null ? STARTING_PRICE : leaderMax.min(competing.add(INCREMENT));
+
+        assertTrue(auction.isHighestBidder(leader));
+        assertEquals(0, leaderMax.compareTo(auction.getMaxBid()));
+        assertEquals(0, expectedBid.compareTo(auction.getCurrentBid()));
+        assertEquals(0, expectedBid.compareTo(listing.getPrice()));
+
+        // Every recorded bid is in the history, in rising order, ending at the current bid
+        List<Bid> bids = auction.getBidHistory();
+        assertEquals(recorded.get(), bids.size());
+        for (int i = 1; i < bids.size(); i++) {
+            assertTrue(bids.get(i).getAmount().compareTo(bids.get(i - 1).getAmount()) > 0);
+        }
+        assertEquals(0, bids.get(bids.size() - 1).getAmount().compareTo(auction.getCurrentBid()));
+
+        // Settlement races: exactly one caller ends the auction
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch settle = new CountDownLatch(1);
+        List<Future<?>> settlers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            settlers.add(pool.submit(() -> {
+                settle.await();
+                if (listing.reserve()) {
+                    ListingState outcome = auction.hasBids() ? ListingState.SOLD : ListingState.EXPIRED;
+                    if (listing.transition(ListingState.RESERVED, outcome)) {
+                        sold.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        settle.countDown();
+        await(settlers);
+
+        assertEquals(1, sold.get());
+        assertEquals(ListingState.SOLD, listing.getState());
+    }
+
+    private static void await(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            try {
+                future.get(60, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error error) throw error;
+                throw e;
+            }
+        }
+    }
+}
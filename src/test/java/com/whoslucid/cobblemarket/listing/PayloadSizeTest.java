@@ -0,0 +1,153 @@
+package com.whoslucid.cobblemarket.listing;
+
+import com.google.gson.JsonElement;
+import com.whoslucid.cobblemarket.storage.ListingCodec;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap and disk size of a 50k-listing market with JSON tree payloads against compressed NBT payloads.
+ * The payloads are synthetic Pokemon shaped like Cobblemon's (species, stats, moves, held item...), encoded
+ * by {@link Payloads}; disk sizes are what the payload adds to a listing file in each format.
+ */
+class PayloadSizeTest {
+
+    private static final int LISTINGS = 50_000;
+    private static final String[] SPECIES = {"garchomp", "pikachu", "dragonite", "gengar", "lucario", "eevee"};
+    private static final String[] NATURES = {"adamant", "jolly", "modest", "timid", "bold", "careful"};
+    private static final String[] MOVES = {"earthquake", "dragonclaw", "swordsdance", "stoneedge", "thunderbolt",
+            "shadowball", "closecombat", "extremespeed", "protect", "substitute"};
+    private static final String[] STATS = {"hp", "attack", "defence", "special_attack", "special_defence", "speed"};
+
+    @Test
+    void binaryPayloadsAreSmallerOnHeapAndDisk() {
+        Random random = new Random(42);
+        CompoundTag[] pokemon = new CompoundTag[LISTINGS];
+        for (int i = 0; i < LISTINGS; i++) {
+            pokemon[i] = pokemon(random);
+        }
+
+        long jsonDisk = 0;
+        JsonElement[] trees = new JsonElement[LISTINGS];
+        long heapBefore = usedHeap();
+        for (int i = 0; i < LISTINGS; i++) {
+            trees[i] = Payloads.encodeJson(CompoundTag.CODEC, pokemon[i], "Pokemon");
+        }
+        long jsonHeap = usedHeap() - heapBefore;
+        for (JsonElement tree : trees) {
+            jsonDisk += ListingCodec.pretty().toJson(tree).getBytes(StandardCharsets.UTF_8).length;
+        }
+        trees = null;
+
+        long binaryDisk = 0;
+        byte[][] bytes = new byte[LISTINGS][];
+        heapBefore = usedHeap();
+        for (int i = 0; i < LISTINGS; i++) {
+            bytes[i] = Payloads.encodeBinary(CompoundTag.CODEC, pokemon[i], "Pokemon");
+        }
+        long binaryHeap = usedHeap() - heapBefore;
+        for (byte[] payload : bytes) {
+            // Written as a quoted Base64 string
+            binaryDisk += Base64.getEncoder().encodeToString(payload).length() + 2;
+        }
+
+        System.out.printf("Payloads of %,d listings: heap %,d KB as JSON trees, %,d KB as bytes (%.1fx); "
+                        + "disk %,d KB as JSON, %,d KB as bytes (%.1fx)%n",
+                LISTINGS, jsonHeap / 1024, binaryHeap / 1024, (double) jsonHeap / binaryHeap,
+                jsonDisk / 1024, binaryDisk / 1024, (double) jsonDisk / binaryDisk);
+
+        for (byte[] payload : bytes) {
+            assertNotNull(payload);
+        }
+        assertTrue(binaryDisk < jsonDisk, "binary payloads take more disk than JSON");
+        assertTrue(binaryHeap < jsonHeap, "binary payloads take more heap than JSON trees");
+    }
+
+    /**
+     * A random Pokemon in the layout of Cobblemon's NBT
+     */
+    private static CompoundTag pokemon(Random random) {
+        CompoundTag tag = new CompoundTag();
+        tag.putString("Species", "cobblemon:" + SPECIES[random.nextInt(SPECIES.length)]);
+        tag.putIntArray("UUID", uuid(UUID.randomUUID()));
+        tag.putInt("Level", 1 + random.nextInt(100));
+        tag.putInt("Experience", random.nextInt(1_000_000));
+        tag.putInt("Friendship", random.nextInt(256));
+        tag.putString("Gender", random.nextBoolean() ? "MALE" : "FEMALE");
+        tag.putBoolean("Shiny", random.nextInt(100) == 0);
+        tag.putString("Nature", "cobblemon:" + NATURES[random.nextInt(NATURES.length)]);
+        tag.putString("FormId", "normal");
+        tag.putString("CaughtBall", "cobblemon:poke_ball");
+        tag.putFloat("ScaleModifier", 1.0F);
+        tag.putInt("Health", 50 + random.nextInt(300));
+
+        CompoundTag ability = new CompoundTag();
+        ability.putString("AbilityName", random.nextBoolean() ? "roughskin" : "sandveil");
+        ability.putInt("AbilityIndex", random.nextInt(2));
+        ability.putString("AbilityPriority", "LOWEST");
+        tag.put("Ability", ability);
+
+        CompoundTag ivs = new CompoundTag();
+        CompoundTag evs = new CompoundTag();
+        for (String stat : STATS) {
+            ivs.putInt(stat, random.nextInt(32));
+            evs.putInt(stat, random.nextInt(86));
+        }
+        tag.put("IVs", ivs);
+        tag.put("EVs", evs);
+
+        ListTag moves = new ListTag();
+        for (int i = 0; i < 4; i++) {
+            CompoundTag move = new CompoundTag();
+            move.putString("MoveName", MOVES[random.nextInt(MOVES.length)]);
+            move.putInt("MovePP", 5 + random.nextInt(30));
+            move.putInt("RaisedPPStages", random.nextInt(4));
+            moves.add(move);
+        }
+        tag.put("MoveSet", moves);
+
+        ListTag benched = new ListTag();
+        benched.add(StringTag.valueOf(MOVES[random.nextInt(MOVES.length)]));
+        tag.put("BenchedMoves", benched);
+
+        CompoundTag heldItem = new CompoundTag();
+        heldItem.putString("id", random.nextBoolean() ? "cobblemon:choice_scarf" : "minecraft:air");
+        heldItem.putInt("count", 1);
+        tag.put("HeldItem", heldItem);
+
+        CompoundTag trainer = new CompoundTag();
+        trainer.putString("OriginalTrainerType", "PLAYER");
+        trainer.put("OriginalTrainer", new IntArrayTag(uuid(UUID.randomUUID())));
+        tag.put("Trainer", trainer);
+        return tag;
+    }
+
+    private static int[] uuid(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        return new int[]{(int) (most >> 32), (int) most, (int) (least >> 32), (int) least};
+    }
+
+    /**
+     * Heap in use after collecting garbage, so the difference between two calls is what was retained in between
+     */
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}